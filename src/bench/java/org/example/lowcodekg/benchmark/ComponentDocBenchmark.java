@@ -0,0 +1,59 @@
+package org.example.lowcodekg.benchmark;
+
+import org.example.lowcodekg.extraction.document.AntMDExtractor;
+import org.example.lowcodekg.extraction.document.EleMDExtractor;
+import org.example.lowcodekg.extraction.document.RawData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 组件文档库的解析吞吐量，对比不同的并发解析线程数
+ * 只计解析，不写入图数据库；文档库须在本地检出，运行时指定库类型与目录，例如：
+ * -Dbench.args="ComponentDocBenchmark -p library=element-plus -p dir=/path/to/element-plus"
+ * -Dbench.args="ComponentDocBenchmark -p library=antd -p dir=/path/to/ant-design/components"
+ * 每次调用解析整个文档库，文档数在准备阶段输出，吞吐量 = 文档数 / 每次调用的耗时
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ComponentDocBenchmark {
+
+    /**
+     * element-plus 或 antd
+     */
+    @Param
+    public String library;
+
+    @Param
+    public String dir;
+
+    @Param({"1", "2", "4", "8"})
+    public int workers;
+
+    @Setup
+    public void setup() {
+        if (!"element-plus".equals(library) && !"antd".equals(library)) {
+            throw new IllegalStateException("unknown doc library: " + library);
+        }
+        System.out.println(library + ": " + parse().size() + " docs");
+    }
+
+    @Benchmark
+    public List<RawData> parse() {
+        if ("element-plus".equals(library)) {
+            EleMDExtractor extractor = new EleMDExtractor();
+            extractor.setDataDir(List.of(dir));
+            extractor.parseData(workers);
+            return extractor.dataList;
+        }
+        AntMDExtractor extractor = new AntMDExtractor();
+        extractor.setDataDir(List.of(dir));
+        extractor.parseData(workers);
+        return extractor.dataList;
+    }
+}
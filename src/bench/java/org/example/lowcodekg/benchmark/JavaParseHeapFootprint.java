@@ -0,0 +1,164 @@
+package org.example.lowcodekg.benchmark;
+
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.FileASTRequestor;
+import org.example.lowcodekg.common.util.SourceText;
+import org.example.lowcodekg.extraction.workflow.JavaASTVisitor;
+import org.example.lowcodekg.extraction.workflow.JavaFileFacts;
+import org.example.lowcodekg.model.schema.entity.workflow.JavaProject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * 解析一个 Java 项目后仍然存活的堆大小
+ * 按 JavaExtractor 的方式用一个 ASTParser 解析项目的全部源文件，在 acceptAST 中由 JavaASTVisitor 抽取，
+ * 解析前后各做一次完全 GC 并读取堆占用，差值即 JavaProject 中保留下来的抽取结果所占的堆；
+ * 加 --retain-ast 时额外持有每个 CompilationUnit，对应改动前 IMethodBinding 使整棵 AST 及其绑定环境保持可达的情况
+ * 两种方式须分别在独立的 JVM 中运行，避免互相影响：
+ * mvn -Pbenchmark -DskipTests test-compile exec:exec -Dbench.main=org.example.lowcodekg.benchmark.JavaParseHeapFootprint -Dbench.args="{项目目录}"
+ * mvn -Pbenchmark -DskipTests test-compile exec:exec -Dbench.main=org.example.lowcodekg.benchmark.JavaParseHeapFootprint -Dbench.args="{项目目录} --retain-ast"
+ */
+public class JavaParseHeapFootprint {
+
+    private static final String[] SOURCE_ROOT_MARKERS = {"/src/main/java", "/src/test/java"};
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: JavaParseHeapFootprint <project dir> [--retain-ast]");
+            System.exit(1);
+        }
+        String projectDir = Paths.get(args[0]).toAbsolutePath().normalize().toString();
+        boolean retainAst = Arrays.asList(args).contains("--retain-ast");
+
+        List<String> srcPaths;
+        try (Stream<Path> paths = Files.walk(Paths.get(projectDir))) {
+            srcPaths = paths.map(Path::toString).filter(path -> path.endsWith(".java")).sorted().toList();
+        }
+        String[] sourceRoots = sourceRoots(projectDir, srcPaths);
+
+        long before = usedHeapAfterGc();
+        resetPeakUsage();
+
+        JavaProject javaProject = new JavaProject(null);
+        javaProject.setProjectName(Paths.get(projectDir).getFileName().toString());
+        List<JavaFileFacts> facts = new ArrayList<>();
+        List<CompilationUnit> units = new ArrayList<>();
+        ASTParser parser = ASTParser.newParser(AST.JLS10);
+        parser.setResolveBindings(true);
+        parser.setKind(ASTParser.K_COMPILATION_UNIT);
+        parser.setBindingsRecovery(true);
+        String[] rootEncodings = new String[sourceRoots.length];
+        Arrays.fill(rootEncodings, "utf-8");
+        parser.setEnvironment(null, sourceRoots, rootEncodings, true);
+        Map<String, String> options = JavaCore.getOptions();
+        options.put("org.eclipse.jdt.core.compiler.source", "1.17");
+        parser.setCompilerOptions(options);
+        String[] encodings = new String[srcPaths.size()];
+        Arrays.fill(encodings, "utf-8");
+        parser.createASTs(srcPaths.toArray(new String[0]), encodings, new String[]{}, new FileASTRequestor() {
+            @Override
+            public void acceptAST(String sourceFilePath, CompilationUnit javaUnit) {
+                try {
+                    String relativePath = Paths.get(projectDir).relativize(Paths.get(sourceFilePath)).toString().replace('\\', '/');
+                    JavaASTVisitor visitor = new JavaASTVisitor(javaProject, SourceText.read(sourceFilePath), relativePath);
+                    javaUnit.accept(visitor);
+                    facts.add(visitor.getFacts());
+                    if (retainAst) {
+                        units.add(javaUnit);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }, null);
+
+        long peak = peakUsage();
+        long after = usedHeapAfterGc();
+        int classes = facts.stream().mapToInt(f -> f.getClassList().size()).sum();
+        int methods = facts.stream().mapToInt(f -> f.getMethodList().size()).sum();
+        int fields = facts.stream().mapToInt(f -> f.getFieldList().size()).sum();
+        System.out.printf("%s (%s): %d files, %d classes, %d methods, %d fields%n", projectDir,
+                retainAst ? "ASTs retained" : "ASTs released", facts.size(), classes, methods, fields);
+        System.out.printf("heap after GC: before parse %.1f MB, after parse %.1f MB, retained %.1f MB; peak during parse %.1f MB%n",
+                mb(before), mb(after), mb(after - before), mb(peak));
+        // 测量完成前保持抽取结果（及 --retain-ast 时的 AST）可达
+        Reference.reachabilityFence(javaProject);
+        Reference.reachabilityFence(units);
+    }
+
+    /**
+     * 反复 GC 直到堆占用不再下降
+     */
+    private static long usedHeapAfterGc() {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long current = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            if (current >= used) {
+                return current;
+            }
+            used = current;
+        }
+        return used;
+    }
+
+    private static void resetPeakUsage() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * 各堆内存池峰值之和，各池的峰值不一定同时出现，是整体峰值的上界
+     */
+    private static long peakUsage() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static double mb(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+
+    private static String[] sourceRoots(String projectDir, List<String> srcPaths) {
+        Set<String> roots = new TreeSet<>();
+        roots.add(projectDir);
+        for (String srcPath : srcPaths) {
+            String normalized = srcPath.replace('\\', '/');
+            for (String marker : SOURCE_ROOT_MARKERS) {
+                int index = normalized.indexOf(marker + "/");
+                if (index >= 0) {
+                    roots.add(srcPath.substring(0, index + marker.length()));
+                    break;
+                }
+            }
+        }
+        return roots.toArray(new String[0]);
+    }
+}
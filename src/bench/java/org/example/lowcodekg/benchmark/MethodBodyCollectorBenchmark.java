@@ -0,0 +1,364 @@
+package org.example.lowcodekg.benchmark;
+
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.*;
+import org.example.lowcodekg.extraction.workflow.MethodBodyCollector;
+import org.example.lowcodekg.extraction.workflow.NameResolver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MethodBodyCollector 与原有 JavaASTVisitor.parseMethodBody（复制语句列表并就地展开嵌套代码块）的对比
+ * 在准备阶段解析一个包含 statements 条语句的方法，语句分布在多层嵌套的代码块、循环、条件与 try 块中，
+ * 计时只包含遍历方法体，不包含 JDT 解析
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+public class MethodBodyCollectorBenchmark {
+
+    @Param({"1000", "5000", "20000"})
+    public int statements;
+
+    private Block body;
+
+    @Setup
+    public void setup() {
+        body = parseBigMethod(buildSource(statements / 50, 50)).getBody();
+    }
+
+    @Benchmark
+    public void collector(Blackhole blackhole) {
+        MethodBodyCollector collector = new MethodBodyCollector(new NameResolver());
+        collector.collect(body);
+        blackhole.consume(collector.getMethodCalls());
+        blackhole.consume(collector.getFullVariables());
+        blackhole.consume(collector.getFieldAccesses());
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        Set<String> methodCalls = new HashSet<>();
+        StringBuilder fullVariables = new StringBuilder();
+        StringBuilder fieldAccesses = new StringBuilder();
+        parseMethodBody(methodCalls, fullVariables, fieldAccesses, body);
+        blackhole.consume(methodCalls);
+        blackhole.consume(fullVariables.toString());
+        blackhole.consume(fieldAccesses.toString());
+    }
+
+    /**
+     * 生成一个包含大量语句的方法，语句分布在多层嵌套的代码块、循环、条件与 try 块中
+     */
+    private static String buildSource(int blocks, int statementsPerBlock) {
+        StringBuilder source = new StringBuilder();
+        source.append("import java.util.*;\n");
+        source.append("public class Big {\n");
+        source.append("    static class Point { static int ORIGIN = 0; int x; }\n");
+        source.append("    private List<String> names = new ArrayList<>();\n");
+        source.append("    int f(int v) { return v + 1; }\n");
+        source.append("    String g(String s) { return s.trim(); }\n");
+        source.append("    void big(Map<String, List<Integer>> map) {\n");
+        for (int b = 0; b < blocks; b++) {
+            switch (b % 4) {
+                case 0 -> source.append("        {\n");
+                case 1 -> source.append("        for (int i").append(b).append(" = f(").append(b).append("); i").append(b).append(" < 10; i").append(b).append("++) {\n");
+                case 2 -> source.append("        if (f(").append(b).append(") > Point.ORIGIN) {\n");
+                default -> source.append("        try {\n");
+            }
+            for (int s = 0; s < statementsPerBlock; s++) {
+                switch (s % 5) {
+                    case 0 -> source.append("            int a").append(b).append('_').append(s).append(" = f(").append(s).append(") + Point.ORIGIN;\n");
+                    case 1 -> source.append("            String t").append(b).append('_').append(s).append(" = g(names.get(0));\n");
+                    case 2 -> source.append("            names.add(g(\"").append(s).append("\"));\n");
+                    case 3 -> source.append("            for (Integer n : map.get(\"k\")) { f(n); }\n");
+                    default -> source.append("            while (f(0) < 0) { names.clear(); }\n");
+                }
+            }
+            source.append(b % 4 == 3 ? "        } catch (Exception e) { f(-1); }\n" : "        }\n");
+        }
+        source.append("    }\n}\n");
+        return source.toString();
+    }
+
+    private static MethodDeclaration parseBigMethod(String source) {
+        ASTParser parser = ASTParser.newParser(AST.JLS10);
+        parser.setKind(ASTParser.K_COMPILATION_UNIT);
+        parser.setResolveBindings(true);
+        parser.setBindingsRecovery(true);
+        parser.setEnvironment(null, null, null, true);
+        parser.setUnitName("/Big.java");
+        Map<String, String> options = JavaCore.getOptions();
+        JavaCore.setComplianceOptions(JavaCore.VERSION_1_8, options);
+        parser.setCompilerOptions(options);
+        parser.setSource(source.toCharArray());
+        CompilationUnit unit = (CompilationUnit) parser.createAST(null);
+        TypeDeclaration type = (TypeDeclaration) unit.types().get(0);
+        for (MethodDeclaration method : type.getMethods()) {
+            if (method.getName().getIdentifier().equals("big")) {
+                return method;
+            }
+        }
+        throw new IllegalStateException("method big not found");
+    }
+
+    /*
+     * 原有实现：复制语句列表并在其中展开嵌套的代码块
+     */
+
+    private static void parseMethodBody(Set<String> methodCalls, StringBuilder fullVariables, StringBuilder fieldAccesses, Block methodBody) {
+        if (methodBody == null)
+            return;
+        List<Statement> statementList = methodBody.statements();
+        List<Statement> statements = new ArrayList<>();
+        for (int i = 0; i < statementList.size(); i++) {
+            statements.add(statementList.get(i));
+        }
+        for (int i = 0; i < statements.size(); i++) {
+
+            if (statements.get(i).getNodeType() == ASTNode.BLOCK) {
+                List<Statement> blockStatements = ((Block) statements.get(i)).statements();
+                for (int j = 0; j < blockStatements.size(); j++) {
+                    statements.add(i + j + 1, blockStatements.get(j));
+                }
+            }
+            else if (statements.get(i).getNodeType() == ASTNode.ASSERT_STATEMENT) {
+                Expression expression = ((AssertStatement) statements.get(i)).getExpression();
+                if (expression != null) {
+                    parseExpression(methodCalls, fieldAccesses, expression);
+                }
+                expression = ((AssertStatement) statements.get(i)).getMessage();
+                if (expression != null) {
+                    parseExpression(methodCalls, fieldAccesses, expression);
+                }
+            }
+            else if (statements.get(i).getNodeType() == ASTNode.DO_STATEMENT) {
+                Expression expression = ((DoStatement) statements.get(i)).getExpression();
+                if (expression != null) {
+                    parseExpression(methodCalls, fieldAccesses, expression);
+                }
+                Statement doBody = ((DoStatement) statements.get(i)).getBody();
+                if (doBody != null) {
+                    statements.add(i + 1, doBody);
+                }
+            }
+            else if (statements.get(i).getNodeType() == ASTNode.ENHANCED_FOR_STATEMENT) {
+                Expression expression = ((EnhancedForStatement) statements.get(i)).getExpression();
+                Type type = ((EnhancedForStatement) statements.get(i)).getParameter().getType();
+                fullVariables.append(getFullName(type) + ", ");
+                if (expression != null) {
+                    parseExpression(methodCalls, fieldAccesses, expression);
+                }
+                Statement forBody = ((EnhancedForStatement) statements.get(i)).getBody();
+                if (forBody != null) {
+                    statements.add(i + 1, forBody);
+                }
+            }
+            else if (statements.get(i).getNodeType() == ASTNode.EXPRESSION_STATEMENT) {
+                Expression expression = ((ExpressionStatement) statements.get(i)).getExpression();
+                if (expression != null) {
+                    parseExpression(methodCalls, fieldAccesses, expression);
+                }
+            }
+            else if (statements.get(i).getNodeType() == ASTNode.FOR_STATEMENT) {
+                List<Expression> list = ((ForStatement) statements.get(i)).initializers();
+                for (int j = 0; j < list.size(); j++) {
+                    parseExpression(methodCalls, fieldAccesses, list.get(j));
+                }
+                Expression expression = ((ForStatement) statements.get(i)).getExpression();
+                if (expression != null) {
+                    parseExpression(methodCalls, fieldAccesses, expression);
+                }
+                Statement forBody = ((ForStatement) statements.get(i)).getBody();
+                if (forBody != null) {
+                    statements.add(i + 1, forBody);
+                }
+            }
+            else if (statements.get(i).getNodeType() == ASTNode.IF_STATEMENT) {
+                Expression expression = ((IfStatement) statements.get(i)).getExpression();
+                if (expression != null) {
+                    parseExpression(methodCalls, fieldAccesses, expression);
+                }
+                Statement thenStatement = ((IfStatement) statements.get(i)).getThenStatement();
+                Statement elseStatement = ((IfStatement) statements.get(i)).getElseStatement();
+                if (elseStatement != null) {
+                    statements.add(i + 1, elseStatement);
+                }
+                if (thenStatement != null) {
+                    statements.add(i + 1, thenStatement);
+                }
+            }
+            else if (statements.get(i).getNodeType() == ASTNode.RETURN_STATEMENT) {
+                Expression expression = ((ReturnStatement) statements.get(i)).getExpression();
+                if (expression != null) {
+                    parseExpression(methodCalls, fieldAccesses, expression);
+                }
+            }
+            else if (statements.get(i).getNodeType() == ASTNode.SWITCH_STATEMENT) {
+                Expression expression = ((SwitchStatement) statements.get(i)).getExpression();
+                if (expression != null) {
+                    parseExpression(methodCalls, fieldAccesses, expression);
+                }
+                List<Statement> switchStatements = ((SwitchStatement) statements.get(i)).statements();
+                for (int j = 0; j < switchStatements.size(); j++) {
+                    statements.add(i + j + 1, switchStatements.get(j));
+                }
+            }
+            else if (statements.get(i).getNodeType() == ASTNode.THROW_STATEMENT) {
+                Expression expression = ((ThrowStatement) statements.get(i)).getExpression();
+                if (expression != null) {
+                    parseExpression(methodCalls, fieldAccesses, expression);
+                }
+            }
+            else if (statements.get(i).getNodeType() == ASTNode.TRY_STATEMENT) {
+                Statement tryStatement = ((TryStatement) statements.get(i)).getBody();
+                if (tryStatement != null) {
+                    statements.add(i + 1, tryStatement);
+                }
+                continue;
+            }
+            else if (statements.get(i).getNodeType() == ASTNode.VARIABLE_DECLARATION_STATEMENT) {
+                Type type = ((VariableDeclarationStatement) statements.get(i)).getType();
+                fullVariables.append(getFullName(type) + ", ");
+                ((VariableDeclarationStatement) statements.get(i)).fragments().forEach(n -> parseExpression(methodCalls, fieldAccesses, ((VariableDeclaration) n).getInitializer()));
+            }
+            else if (statements.get(i).getNodeType() == ASTNode.WHILE_STATEMENT) {
+                Expression expression = ((WhileStatement) statements.get(i)).getExpression();
+                if (expression != null) {
+                    parseExpression(methodCalls, fieldAccesses, expression);
+                }
+                Statement whileBody = ((WhileStatement) statements.get(i)).getBody();
+                if (whileBody != null) {
+                    statements.add(i + 1, whileBody);
+                }
+            }
+        }
+    }
+
+    private static void parseExpression(Set<String> methodCalls, StringBuilder fieldAccesses, Expression expression) {
+        if (expression == null) {
+            return;
+        }
+        else if (expression.getNodeType() == ASTNode.ARRAY_INITIALIZER) {
+            List<Expression> expressions = ((ArrayInitializer) expression).expressions();
+            for (Expression expression2 : expressions) {
+                parseExpression(methodCalls, fieldAccesses, expression2);
+            }
+        }
+        else if (expression.getNodeType() == ASTNode.CAST_EXPRESSION) {
+            parseExpression(methodCalls, fieldAccesses, ((CastExpression) expression).getExpression());
+        }
+        else if (expression.getNodeType() == ASTNode.CONDITIONAL_EXPRESSION) {
+            parseExpression(methodCalls, fieldAccesses, ((ConditionalExpression) expression).getExpression());
+            parseExpression(methodCalls, fieldAccesses, ((ConditionalExpression) expression).getElseExpression());
+            parseExpression(methodCalls, fieldAccesses, ((ConditionalExpression) expression).getThenExpression());
+        }
+        else if (expression.getNodeType() == ASTNode.INFIX_EXPRESSION) {
+            parseExpression(methodCalls, fieldAccesses, ((InfixExpression) expression).getLeftOperand());
+            parseExpression(methodCalls, fieldAccesses, ((InfixExpression) expression).getRightOperand());
+        }
+        else if (expression.getNodeType() == ASTNode.INSTANCEOF_EXPRESSION) {
+            parseExpression(methodCalls, fieldAccesses, ((InstanceofExpression) expression).getLeftOperand());
+        }
+        else if (expression.getNodeType() == ASTNode.PARENTHESIZED_EXPRESSION) {
+            parseExpression(methodCalls, fieldAccesses, ((ParenthesizedExpression) expression).getExpression());
+        }
+        else if (expression.getNodeType() == ASTNode.POSTFIX_EXPRESSION) {
+            parseExpression(methodCalls, fieldAccesses, ((PostfixExpression) expression).getOperand());
+        }
+        else if (expression.getNodeType() == ASTNode.PREFIX_EXPRESSION) {
+            parseExpression(methodCalls, fieldAccesses, ((PrefixExpression) expression).getOperand());
+        }
+        else if (expression.getNodeType() == ASTNode.THIS_EXPRESSION) {
+            parseExpression(methodCalls, fieldAccesses, ((ThisExpression) expression).getQualifier());
+        }
+        else if (expression.getNodeType() == ASTNode.METHOD_INVOCATION) {
+            List<Expression> arguments = ((MethodInvocation) expression).arguments();
+            String bindingKey = getBindingKey(((MethodInvocation) expression).resolveMethodBinding());
+            if (bindingKey != null)
+                methodCalls.add(bindingKey);
+            for (Expression exp : arguments)
+                parseExpression(methodCalls, fieldAccesses, exp);
+            parseExpression(methodCalls, fieldAccesses, ((MethodInvocation) expression).getExpression());
+        }
+        else if (expression.getNodeType() == ASTNode.ASSIGNMENT) {
+            parseExpression(methodCalls, fieldAccesses, ((Assignment) expression).getLeftHandSide());
+            parseExpression(methodCalls, fieldAccesses, ((Assignment) expression).getRightHandSide());
+        }
+        else if (expression.getNodeType() == ASTNode.QUALIFIED_NAME) {
+            if (((QualifiedName) expression).getQualifier().resolveTypeBinding() != null) {
+                String name = ((QualifiedName) expression).getQualifier().resolveTypeBinding().getQualifiedName() + "." + ((QualifiedName) expression).getName().getIdentifier();
+                fieldAccesses.append(name + ", ");
+            }
+            parseExpression(methodCalls, fieldAccesses, ((QualifiedName) expression).getQualifier());
+        }
+    }
+
+    private static String getBindingKey(IMethodBinding binding) {
+        if (binding == null) {
+            return null;
+        }
+        IMethodBinding declaration = binding.getMethodDeclaration();
+        return declaration == null ? binding.getKey() : declaration.getKey();
+    }
+
+    /**
+     * 原有的类型名解析，泛型、联合与交叉类型在循环中以 += 拼接
+     */
+    private static String getFullName(Type t) {
+        if (t == null)
+            return "";
+        ITypeBinding binding = t.resolveBinding();
+        if (binding != null){
+            return binding.getQualifiedName();
+        }
+        if (t.isNameQualifiedType()) {
+            return ((NameQualifiedType) t).getQualifier().getFullyQualifiedName();
+        }
+        if (t.isPrimitiveType()) {
+            return t.toString();
+        }
+        if (t.isQualifiedType()) {
+            QualifiedType t0 = (QualifiedType) t;
+            return getFullName(t0.getQualifier()) + "." + t0.getName().getIdentifier();
+        }
+        if (t.isSimpleType()) {
+            return ((SimpleType) t).getName().getFullyQualifiedName();
+        }
+        if (t.isWildcardType()) {
+            return "? (extends|super) " + getFullName(((WildcardType) t).getBound());
+        }
+
+        if (t.isParameterizedType()) {
+            ParameterizedType t0 = ((ParameterizedType) t);
+            String s = getFullName(t0.getType()) + "<";
+            for (Object type : t0.typeArguments())
+                s += getFullName((Type) type) + ",";
+            return s.substring(0, s.length() - 1) + ">";
+        }
+        if (t.isUnionType()) {
+            UnionType t0 = (UnionType) t;
+            String s = "";
+            for (Object type : t0.types())
+                s += getFullName((Type) type) + "|";
+            return s.substring(0, s.length() - 1);
+        }
+        if (t.isIntersectionType()) {
+            IntersectionType t0 = (IntersectionType) t;
+            String s = "";
+            for (Object type : t0.types())
+                s += getFullName((Type) type) + "&";
+            return s.substring(0, s.length() - 1);
+        }
+        if (t.isArrayType()) {
+            return getFullName(((ArrayType) t).getElementType()) + "[]";
+        }
+        return "";
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.lowcodekg.benchmark;
+
+import org.example.lowcodekg.extraction.workflow.TypeReferenceResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TypeReferenceResolver 与原有正则分词查表的对比
+ * 每次调用模拟一个项目的 JavaProject.parse：新建解析器，解析全部参数、返回值、变量类型字符串，
+ * 因此解析器的备忘表从空开始，结果包含建表的开销
+ * 类型字符串按固定种子生成，同一泛型签名在项目中重复出现，重复率由 repeat 控制
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class TypeReferenceResolverBenchmark {
+
+    private static final String[] JDK_TYPES = {
+            "java.lang.String", "java.lang.Integer", "java.lang.Long", "java.lang.Boolean",
+            "java.util.Date", "java.time.LocalDateTime", "int", "long", "boolean", "void"
+    };
+
+    /**
+     * 项目内类的数量
+     */
+    @Param({"2000", "20000"})
+    public int classes;
+
+    /**
+     * 每个不同的类型字符串平均出现的次数
+     */
+    @Param({"1", "20"})
+    public int repeat;
+
+    private Map<String, String> index;
+    private List<String> typeStrings;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        List<String> names = new ArrayList<>(classes);
+        index = new HashMap<>(classes * 2);
+        for (int i = 0; i < classes; i++) {
+            String name = "com.example.module" + (i % 50) + "." + (i % 3 == 0 ? "dto" : "entity") + ".Type" + i;
+            names.add(name);
+            index.put(name, name);
+        }
+        // 方法数按类数的 10 倍估计
+        int total = classes * 10;
+        List<String> distinct = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, total / repeat); i++) {
+            distinct.add(typeString(random, names));
+        }
+        typeStrings = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            typeStrings.add(distinct.get(random.nextInt(distinct.size())));
+        }
+    }
+
+    private static String typeString(Random random, List<String> names) {
+        String project = names.get(random.nextInt(names.size()));
+        String jdk = JDK_TYPES[random.nextInt(JDK_TYPES.length)];
+        return switch (random.nextInt(5)) {
+            case 0 -> project;
+            case 1 -> "java.util.List<" + project + ">";
+            case 2 -> "java.util.Map<" + jdk + "," + project + ">";
+            case 3 -> project + "," + jdk + "," + names.get(random.nextInt(names.size()));
+            default -> "com.example.common.PageResult<" + project + ">[]";
+        };
+    }
+
+    /**
+     * 原有实现：每次都用正则分词，逐个 token 查表
+     */
+    @Benchmark
+    public int regexSplit() {
+        int found = 0;
+        for (String str : typeStrings) {
+            Set<String> result = new HashSet<>();
+            for (String token : str.split("[^\\w\\.]+")) {
+                if (index.containsKey(token)) {
+                    result.add(index.get(token));
+                }
+            }
+            found += result.size();
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int resolver() {
+        return resolveAll(new TypeReferenceResolver<>(index));
+    }
+
+    @Benchmark
+    public int bloomResolver() {
+        return resolveAll(new TypeReferenceResolver<>(index, true));
+    }
+
+    private int resolveAll(TypeReferenceResolver<String> resolver) {
+        int found = 0;
+        for (String str : typeStrings) {
+            found += resolver.resolve(str).size();
+        }
+        return found;
+    }
+}
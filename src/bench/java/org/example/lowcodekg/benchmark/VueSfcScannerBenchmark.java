@@ -0,0 +1,227 @@
+package org.example.lowcodekg.benchmark;
+
+import org.example.lowcodekg.common.util.VueSfcScanner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * VueSfcScanner 与原有逐次按行切分的 PageParserUtil 实现的对比
+ * 语料为真实前端项目中的 .vue 文件，由参数 dir 指定（递归查找，跳过 node_modules），例如：
+ * -Dbench.args="VueSfcScannerBenchmark -p dir=/path/to/vue-project"
+ * 每次调用处理全部文件：取 template、script、data() 块、methods 块及其中每个方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class VueSfcScannerBenchmark {
+
+    @Param({""})
+    public String dir;
+
+    private List<String> files;
+
+    @Setup
+    public void setup() throws IOException {
+        if (dir.isEmpty()) {
+            throw new IllegalStateException("no corpus, run with -p dir=<directory containing .vue files>");
+        }
+        try (Stream<Path> paths = Files.walk(Paths.get(dir))) {
+            files = paths.filter(path -> path.toString().endsWith(".vue"))
+                    .filter(path -> !path.toString().contains("node_modules"))
+                    .sorted()
+                    .map(VueSfcScannerBenchmark::read)
+                    .toList();
+        }
+        if (files.isEmpty()) {
+            throw new IllegalStateException("no .vue files under " + dir);
+        }
+        long chars = files.stream().mapToLong(String::length).sum();
+        System.out.println("corpus: " + files.size() + " .vue files, " + chars + " chars");
+    }
+
+    private static String read(Path path) {
+        try {
+            return Files.readString(path, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Benchmark
+    public void scanner(Blackhole blackhole) {
+        for (String file : files) {
+            VueSfcScanner sfc = VueSfcScanner.scan(file);
+            blackhole.consume(sfc.templateContent());
+            blackhole.consume(sfc.scriptContent());
+            blackhole.consume(sfc.dataBlock());
+            for (VueSfcScanner.MethodHeader method : sfc.methods()) {
+                blackhole.consume(method.params());
+                blackhole.consume(sfc.methodBody(method));
+            }
+        }
+    }
+
+    @Benchmark
+    public void lineSplit(Blackhole blackhole) {
+        for (String file : files) {
+            blackhole.consume(Legacy.getTemplateContent(file));
+            String script = Legacy.getScriptContent(file);
+            blackhole.consume(script);
+            blackhole.consume(Legacy.getScriptData(script));
+            Legacy.parseScriptMethod(script, blackhole);
+        }
+    }
+
+    /**
+     * 原有实现，摘自改动前的 PageParserUtil 与 PageExtractor.parseScriptMethod
+     */
+    private static final class Legacy {
+
+        static String getScriptMethod(String content) {
+            String[] lines = content.split("\n");
+            List<String> lineList = new ArrayList<>(Arrays.asList(lines));
+            StringBuilder dataBlock = new StringBuilder();
+            for(int i = 0;i < lineList.size();i++) {
+                if(lineList.get(i).contains("methods: {")) {
+                    int j = i + 1;
+                    String intent = getScriptIndent(lineList.get(i));
+                    while(j < lineList.size()) {
+                        dataBlock.append(lineList.get(j) + "\n");
+                        j++;
+                        if(j >= lineList.size()
+                                || lineList.get(j).equals(intent + "},")
+                                || lineList.get(j).equals(intent + "}"))
+                            break;
+                    }
+                    break;
+                }
+            }
+            return dataBlock.toString();
+        }
+
+        static String getScriptIndent(String line) {
+            StringBuilder indentation = new StringBuilder();
+            for (char c : line.toCharArray()) {
+                if (c == ' ') {
+                    indentation.append(" ");
+                } else if (c == '\t') {
+                    indentation.append('\t');
+                } else {
+                    break;
+                }
+            }
+            return indentation.toString();
+        }
+
+        static String getScriptData(String content) {
+            String[] lines = content.split("\n");
+            List<String> lineList = new ArrayList<>(Arrays.asList(lines));
+            StringBuilder dataBlock = new StringBuilder();
+            for(int i = 0;i < lineList.size();i++) {
+                if(lineList.get(i).contains("data")) {
+                    if((lineList.get(i).contains("data()") || lineList.get(i).contains("function"))
+                            && i+1 < lineList.size() && lineList.get(i+1).contains("return {")) {
+                        int j = i + 2;
+                        String intent = getScriptIndent(lineList.get(i));
+                        while (j < lineList.size()) {
+                            String tmp = lineList.get(j);
+                            if(tmp.contains("//")) {
+                                tmp = tmp.substring(0, tmp.indexOf("//"));
+                            }
+                            dataBlock.append(tmp);
+                            j++;
+                            if (j == lineList.size() || lineList.get(j).equals(intent + "},")
+                                    || lineList.get(j).equals(intent + "}"))
+                                break;
+                        }
+                        break;
+                    }
+                }
+            }
+            if(dataBlock.length() == 0) {
+                return null;
+            }
+            dataBlock.insert(0, " { ");
+            return dataBlock.toString();
+        }
+
+        static String getScriptContent(String fileContent) {
+            StringBuilder scriptContent = new StringBuilder();
+            List<String> lines = Arrays.asList(fileContent.split("\n"));
+            for(int i = 0;i < lines.size();i++) {
+                if(lines.get(i).contains("<script")) {
+                    int j = i + 1;
+                    while(j < lines.size() && !lines.get(j).contains("</script>")) {
+                        scriptContent.append(lines.get(j)).append("\n");
+                        j++;
+                    }
+                    break;
+                }
+            }
+            return scriptContent.toString();
+        }
+
+        static String getTemplateContent(String fileContent) {
+            StringBuilder templateContent = new StringBuilder("<template>\n");
+            List<String> lines = Arrays.asList(fileContent.split("\n"));
+            for(int i = 0;i < lines.size();i++) {
+                if(lines.get(i).startsWith("<template")) {
+                    int j = i + 1;
+                    while(j < lines.size() && !lines.get(j).startsWith("</template>")) {
+                        templateContent.append(lines.get(j)).append("\n");
+                        j++;
+                    }
+                    break;
+                }
+            }
+            templateContent.append("</template>");
+            return templateContent.toString();
+        }
+
+        static void parseScriptMethod(String content, Blackhole blackhole) {
+            String methodContent = getScriptMethod(content);
+            if(methodContent.length() == 0) {
+                return;
+            }
+            List<String> lines = Arrays.asList(methodContent.split("\n"));
+            int i = 0;
+            while(i < lines.size()) {
+                String line = lines.get(i);
+                Pattern p = Pattern.compile("(\\w+)\\(([\\w,:\\s=\\.]*)\\)\\s*\\{");
+                Matcher match = p.matcher(line);
+                if(match.find()) {
+                    StringBuilder mContent = new StringBuilder();
+                    String intent = getScriptIndent(line);
+                    int j = i + 1;
+                    while(j < lines.size()) {
+                        if(lines.get(j).equals(intent + "},")
+                                || lines.get(j).equals(intent + "}")) {
+                            break;
+                        }
+                        mContent.append(lines.get(j));
+                        j++;
+                    }
+                    i = j;
+                    blackhole.consume(match.group(2));
+                    blackhole.consume(mContent.toString());
+                }
+                i++;
+            }
+        }
+    }
+}
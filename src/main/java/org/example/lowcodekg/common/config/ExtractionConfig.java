@@ -0,0 +1,210 @@
+package org.example.lowcodekg.common.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 知识抽取过程的并发与批量参数
+ * 字段默认值用于未经 Spring 注入的场景（如单元测试中直接 new 出的抽取器）
+ */
+@Getter
+@Configuration
+public class ExtractionConfig {
+
+    /**
+     * 并发解析的 Java 项目数
+     */
+    @Value("${extraction.java.project-workers:4}")
+    private int javaProjectWorkers = 4;
+
+    /**
+     * 已解析、等待写入 Neo4j 的项目数上限，超过后解析线程阻塞等待
+     */
+    @Value("${extraction.java.max-pending-writes:2}")
+    private int javaMaxPendingWrites = 2;
+
+    /**
+     * 是否按包分批解析单个项目（适用于超大项目，限制峰值内存并利用多核）
+     */
+    @Value("${extraction.java.partitioned:false}")
+    private boolean javaPartitioned = false;
+
+    /**
+     * 分批解析时每批包含的源文件数上限
+     */
+    @Value("${extraction.java.batch-size:500}")
+    private int javaBatchSize = 500;
+
+    /**
+     * 分批解析时同时在解析中的批次数上限
+     */
+    @Value("${extraction.java.max-in-flight-batches:2}")
+    private int javaMaxInFlightBatches = 2;
+
+    /**
+     * 解析类型引用时是否使用 Bloom filter 预过滤项目外的类型
+     */
+    @Value("${extraction.java.type-bloom-filter:false}")
+    private boolean javaTypeBloomFilter = false;
+
+    /**
+     * 增量抽取使用的源文件哈希清单目录
+     */
+    @Value("${extraction.incremental.cache-dir:.lowcodekg/manifest}")
+    private String incrementalCacheDir = ".lowcodekg/manifest";
+
+    /**
+     * 是否缓存单个源文件的解析结果，全量抽取时未变化的文件直接读取缓存而不重新解析
+     * Java 缓存结果带有项目声明指纹，类、方法、字段的声明有变化时全部重新解析
+     */
+    @Value("${extraction.fact-cache.enabled:true}")
+    private boolean factCacheEnabled = true;
+
+    /**
+     * 解析结果缓存目录
+     */
+    @Value("${extraction.fact-cache.dir:.lowcodekg/facts}")
+    private String factCacheDir = ".lowcodekg/facts";
+
+    /**
+     * 批量写入 Neo4j 时每条 UNWIND 语句包含的记录数
+     */
+    @Value("${extraction.neo4j.batch-size:1000}")
+    private int neo4jBatchSize = 1000;
+
+    /**
+     * 是否以 UNWIND 批量创建 Java 类、方法、字段节点
+     */
+    @Value("${extraction.neo4j.bulk-nodes:true}")
+    private boolean neo4jBulkNodes = true;
+
+    /**
+     * 是否在启动与抽取前创建图谱查询所需的索引与约束
+     */
+    @Value("${extraction.neo4j.schema.enabled:true}")
+    private boolean neo4jSchemaEnabled = true;
+
+    /**
+     * 等待新建索引上线的最长秒数
+     */
+    @Value("${extraction.neo4j.schema.await-seconds:300}")
+    private int neo4jSchemaAwaitSeconds = 300;
+
+    /**
+     * 索引就绪后是否 EXPLAIN 常用查找语句，报告仍退化为扫描的查询
+     */
+    @Value("${extraction.neo4j.schema.explain:true}")
+    private boolean neo4jSchemaExplain = true;
+
+    /**
+     * 功能描述生成流水线中 LLM 摘要阶段的并发数
+     */
+    @Value("${extraction.summary.llm-workers:4}")
+    private int summaryLlmWorkers = 4;
+
+    /**
+     * 功能描述生成流水线中 IR 生成阶段的并发数
+     */
+    @Value("${extraction.summary.ir-workers:4}")
+    private int summaryIrWorkers = 4;
+
+    /**
+     * 功能描述生成流水线中向量嵌入阶段的并发数
+     */
+    @Value("${extraction.summary.embedding-workers:2}")
+    private int summaryEmbeddingWorkers = 2;
+
+    /**
+     * 功能描述生成流水线中 ES 索引阶段的并发数
+     */
+    @Value("${extraction.summary.index-workers:2}")
+    private int summaryIndexWorkers = 2;
+
+    /**
+     * 功能描述生成流水线第一阶段的排队上限，排满后提交方阻塞等待
+     */
+    @Value("${extraction.summary.queue-capacity:10000}")
+    private int summaryQueueCapacity = 10000;
+
+    /**
+     * 工作流 content（功能描述提示中的代码部分）的 token 预算，不大于 0 时不限制
+     */
+    @Value("${extraction.workflow.content-token-budget:6000}")
+    private int workflowContentTokenBudget = 6000;
+
+    /**
+     * 工作流 content 中保留完整代码的最大调用深度，更深的方法只保留签名
+     */
+    @Value("${extraction.workflow.full-body-depth:2}")
+    private int workflowFullBodyDepth = 2;
+
+    /**
+     * 工作流聚类时 LSH 哈希表的数量，越多召回越高
+     */
+    @Value("${extraction.cluster.tables:8}")
+    private int clusterTables = 8;
+
+    /**
+     * 工作流聚类时每张哈希表的超平面数（桶编号位数），越多桶越小
+     */
+    @Value("${extraction.cluster.bits:12}")
+    private int clusterBits = 12;
+
+    /**
+     * 两个工作流合并为同一簇的最小余弦相似度
+     */
+    @Value("${extraction.cluster.similarity:0.92}")
+    private double clusterSimilarity = 0.92;
+
+    /**
+     * 同一个桶内每个工作流最多比较的工作流数
+     */
+    @Value("${extraction.cluster.max-bucket-comparisons:64}")
+    private int clusterMaxBucketComparisons = 64;
+
+    /**
+     * 并发解析的页面文件数，不大于 0 时取 CPU 核数
+     */
+    @Value("${extraction.page.workers:0}")
+    private int pageWorkers = 0;
+
+    /**
+     * 已解析、等待写入 Neo4j 的页面数上限
+     */
+    @Value("${extraction.page.max-pending-writes:64}")
+    private int pageMaxPendingWrites = 64;
+
+    /**
+     * 并发解析的组件文档数，不大于 0 时取 CPU 核数
+     */
+    @Value("${extraction.doc.workers:0}")
+    private int docWorkers = 0;
+
+    /**
+     * 扫描源码目录时并行列目录、读取与哈希文件的并发上限
+     */
+    @Value("${extraction.scan.io-threads:8}")
+    private int scanIoThreads = 8;
+
+    /**
+     * 扫描源码目录时跳过的目录名，以逗号分隔
+     */
+    @Value("${extraction.scan.exclude-dirs:.git,node_modules}")
+    private String scanExcludeDirs = ".git,node_modules";
+
+    public int getPageWorkers() {
+        return pageWorkers > 0 ? pageWorkers : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int getDocWorkers() {
+        return docWorkers > 0 ? docWorkers : Runtime.getRuntime().availableProcessors();
+    }
+
+    public List<String> getScanExcludeDirs() {
+        return Arrays.stream(scanExcludeDirs.split(",")).map(String::strip).filter(dir -> !dir.isEmpty()).toList();
+    }
+}
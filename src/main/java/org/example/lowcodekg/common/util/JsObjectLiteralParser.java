@@ -0,0 +1,406 @@
+package org.example.lowcodekg.common.util;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+
+import java.math.BigDecimal;
+
+/**
+ * 将 Vue 组件 data() 返回的 JS 对象字面量解析为 JSON 对象，代替 LLM 完成格式转换
+ * 支持字符串（单引号、双引号、不含插值的模板字符串）、数字、布尔值、null / undefined、嵌套对象与数组、
+ * 属性简写、末尾逗号以及 // 与 块注释；表达式与函数调用等无法求值的内容，以去掉注释、合并空白后的源码
+ * 作为字符串值，如 'Bearer ' + sessionStorage.getItem('token')
+ * 最外层对象允许缺少右括号（由 PageParserUtil.getScriptData 截取的代码块可能不含）
+ * 遇到展开运算符、计算属性名、方法简写等不支持的语法时抛出 IllegalArgumentException
+ */
+public class JsObjectLiteralParser {
+
+    /**
+     * 标记不是字面量、需要作为表达式处理的值
+     */
+    private static final Object EXPRESSION = new Object();
+
+    private final String text;
+    private final int length;
+    private int pos = 0;
+
+    private JsObjectLiteralParser(String text) {
+        this.text = text;
+        this.length = text.length();
+    }
+
+    /**
+     * @param block 以 { 开始的对象字面量，其后只允许出现空白、注释与分号
+     * @return 保持属性顺序的 JSON 对象
+     */
+    public static JSONObject parse(String block) {
+        if (block == null) {
+            throw new IllegalArgumentException("empty object literal");
+        }
+        JsObjectLiteralParser parser = new JsObjectLiteralParser(block);
+        parser.skipBlank();
+        JSONObject object = parser.parseObject(true);
+        parser.skipBlank();
+        while (parser.pos < parser.length && parser.text.charAt(parser.pos) == ';') {
+            parser.pos++;
+            parser.skipBlank();
+        }
+        if (parser.pos < parser.length) {
+            throw parser.error("unexpected content after object literal");
+        }
+        return object;
+    }
+
+    private JSONObject parseObject(boolean topLevel) {
+        expect('{');
+        JSONObject object = new JSONObject(true);
+        while (true) {
+            skipBlank();
+            if (pos >= length) {
+                if (topLevel) {
+                    return object;
+                }
+                throw error("unterminated object");
+            }
+            if (text.charAt(pos) == '}') {
+                pos++;
+                return object;
+            }
+            int keyStart = pos;
+            String key = parseKey();
+            boolean identifier = Character.isJavaIdentifierStart(text.charAt(keyStart));
+            skipBlank();
+            if (pos < length && text.charAt(pos) == ':') {
+                pos++;
+                object.put(key, parseValue());
+            } else if (identifier && atValueEnd()) {
+                // 属性简写 { token } 等价于 { token: token }
+                object.put(key, key);
+            } else {
+                throw error("expected ':' after key " + key);
+            }
+            skipBlank();
+            if (pos < length) {
+                char c = text.charAt(pos);
+                if (c == ',') {
+                    pos++;
+                } else if (c != '}') {
+                    throw error("expected ',' or '}'");
+                }
+            }
+        }
+    }
+
+    private JSONArray parseArray() {
+        expect('[');
+        JSONArray array = new JSONArray();
+        while (true) {
+            skipBlank();
+            if (pos >= length) {
+                throw error("unterminated array");
+            }
+            if (text.charAt(pos) == ']') {
+                pos++;
+                return array;
+            }
+            array.add(parseValue());
+            skipBlank();
+            if (pos < length) {
+                char c = text.charAt(pos);
+                if (c == ',') {
+                    pos++;
+                } else if (c != ']') {
+                    throw error("expected ',' or ']'");
+                }
+            }
+        }
+    }
+
+    private String parseKey() {
+        char c = text.charAt(pos);
+        if (c == '\'' || c == '"') {
+            return parseString(c);
+        }
+        int start = pos;
+        while (pos < length && (Character.isJavaIdentifierPart(text.charAt(pos)))) {
+            pos++;
+        }
+        if (start == pos) {
+            throw error("unsupported property key");
+        }
+        return text.substring(start, pos);
+    }
+
+    /**
+     * 先尝试按字面量解析，之后若不是值的结束位置（如 'a' + b），回退并整体作为表达式
+     */
+    private Object parseValue() {
+        skipBlank();
+        int start = pos;
+        Object value = pos < length ? parseLiteral() : EXPRESSION;
+        skipBlank();
+        if (value != EXPRESSION && atValueEnd()) {
+            return value;
+        }
+        pos = start;
+        return scanExpression();
+    }
+
+    private Object parseLiteral() {
+        char c = text.charAt(pos);
+        switch (c) {
+            case '{':
+                return parseObject(false);
+            case '[':
+                return parseArray();
+            case '\'':
+            case '"':
+                return parseString(c);
+            case '`':
+                int end = skipTemplate(pos);
+                String raw = text.substring(pos + 1, end - 1);
+                pos = end;
+                return raw.contains("${") ? EXPRESSION : raw;
+            default:
+                break;
+        }
+        if (Character.isDigit(c) || ((c == '-' || c == '.') && pos + 1 < length && Character.isDigit(text.charAt(pos + 1)))) {
+            int start = pos++;
+            while (pos < length) {
+                char d = text.charAt(pos);
+                char prev = text.charAt(pos - 1);
+                if (Character.isDigit(d) || d == '.' || d == 'e' || d == 'E'
+                        || ((d == '+' || d == '-') && (prev == 'e' || prev == 'E'))) {
+                    pos++;
+                } else {
+                    break;
+                }
+            }
+            try {
+                BigDecimal number = new BigDecimal(text.substring(start, pos));
+                return number.scale() <= 0 ? number.toBigInteger() : number;
+            } catch (NumberFormatException e) {
+                return EXPRESSION;
+            }
+        }
+        if (Character.isJavaIdentifierStart(c)) {
+            int start = pos;
+            while (pos < length && Character.isJavaIdentifierPart(text.charAt(pos))) {
+                pos++;
+            }
+            switch (text.substring(start, pos)) {
+                case "true":
+                    return Boolean.TRUE;
+                case "false":
+                    return Boolean.FALSE;
+                case "null":
+                case "undefined":
+                    return null;
+                default:
+                    return EXPRESSION;
+            }
+        }
+        return EXPRESSION;
+    }
+
+    private String parseString(char quote) {
+        StringBuilder value = new StringBuilder();
+        pos++;
+        while (pos < length) {
+            char c = text.charAt(pos++);
+            if (c == quote) {
+                return value.toString();
+            }
+            if (c == '\n') {
+                break;
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (pos >= length) {
+                break;
+            }
+            char escaped = text.charAt(pos++);
+            switch (escaped) {
+                case 'n' -> value.append('\n');
+                case 't' -> value.append('\t');
+                case 'r' -> value.append('\r');
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case '0' -> value.append('\0');
+                case 'u' -> {
+                    if (pos + 4 > length) {
+                        throw error("invalid unicode escape");
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("invalid unicode escape");
+                    }
+                    pos += 4;
+                }
+                // 行尾的反斜杠表示续行
+                case '\n' -> { }
+                default -> value.append(escaped);
+            }
+        }
+        throw error("unterminated string");
+    }
+
+    /**
+     * 截取到同一层级的 , } ] 之前，注释替换为空白，连续空白合并为一个空格，字符串原样保留
+     */
+    private String scanExpression() {
+        StringBuilder expression = new StringBuilder();
+        int depth = 0;
+        while (pos < length) {
+            char c = text.charAt(pos);
+            if (c == '/' && pos + 1 < length && (text.charAt(pos + 1) == '/' || text.charAt(pos + 1) == '*')) {
+                skipComment();
+                appendSpace(expression);
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                appendSpace(expression);
+                pos++;
+                continue;
+            }
+            if (c == '\'' || c == '"' || c == '`') {
+                int end = c == '`' ? skipTemplate(pos) : skipString(pos, c);
+                expression.append(text, pos, end);
+                pos = end;
+                continue;
+            }
+            if (c == '(' || c == '[' || c == '{') {
+                depth++;
+            } else if (c == ')' || c == ']' || c == '}') {
+                if (depth == 0) {
+                    break;
+                }
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                break;
+            }
+            expression.append(c);
+            pos++;
+        }
+        if (depth > 0) {
+            throw error("unbalanced brackets in expression");
+        }
+        String result = expression.toString().strip();
+        if (result.isEmpty()) {
+            throw error("expected value");
+        }
+        return result;
+    }
+
+    private void appendSpace(StringBuilder expression) {
+        if (expression.length() > 0 && expression.charAt(expression.length() - 1) != ' ') {
+            expression.append(' ');
+        }
+    }
+
+    /**
+     * @return 字符串结束引号之后的位置
+     */
+    private int skipString(int start, char quote) {
+        for (int i = start + 1; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == quote) {
+                return i + 1;
+            } else if (c == '\n') {
+                break;
+            }
+        }
+        pos = start;
+        throw error("unterminated string");
+    }
+
+    /**
+     * 模板字符串可以跨行，${} 内可以嵌套括号与字符串
+     * @return 结束反引号之后的位置
+     */
+    private int skipTemplate(int start) {
+        int i = start + 1;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == '`') {
+                return i + 1;
+            } else if (c == '$' && i + 1 < length && text.charAt(i + 1) == '{') {
+                int depth = 1;
+                i += 2;
+                while (i < length && depth > 0) {
+                    char d = text.charAt(i);
+                    if (d == '\'' || d == '"') {
+                        i = skipString(i, d);
+                        continue;
+                    }
+                    if (d == '`') {
+                        i = skipTemplate(i);
+                        continue;
+                    }
+                    if (d == '{') {
+                        depth++;
+                    } else if (d == '}') {
+                        depth--;
+                    }
+                    i++;
+                }
+            } else {
+                i++;
+            }
+        }
+        pos = start;
+        throw error("unterminated template literal");
+    }
+
+    private void skipBlank() {
+        while (pos < length) {
+            char c = text.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                pos++;
+            } else if (c == '/' && pos + 1 < length && (text.charAt(pos + 1) == '/' || text.charAt(pos + 1) == '*')) {
+                skipComment();
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void skipComment() {
+        if (text.charAt(pos + 1) == '/') {
+            int end = text.indexOf('\n', pos + 2);
+            pos = end < 0 ? length : end + 1;
+        } else {
+            int end = text.indexOf("*/", pos + 2);
+            if (end < 0) {
+                throw error("unterminated comment");
+            }
+            pos = end + 2;
+        }
+    }
+
+    private boolean atValueEnd() {
+        if (pos >= length) {
+            return true;
+        }
+        char c = text.charAt(pos);
+        return c == ',' || c == '}' || c == ']';
+    }
+
+    private void expect(char c) {
+        if (pos >= length || text.charAt(pos) != c) {
+            throw error("expected '" + c + "'");
+        }
+        pos++;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at offset " + pos);
+    }
+}
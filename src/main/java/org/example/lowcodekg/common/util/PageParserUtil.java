@@ -2,33 +2,19 @@ package org.example.lowcodekg.common.util;
 
 import com.alibaba.fastjson.JSONObject;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class PageParserUtil {
+
+    private static final Pattern IMPORT_PATTERN =
+            Pattern.compile("import\\s*\\{?\\s*([\\w,\\s]+)\\s*\\}?\\s*from\\s*['\"]([^'\"]+)['\"]");
+
+    /**
+     * methods 块内容，content 为 script 标签内的内容
+     */
     public static String getScriptMethod(String content) {
-        String[] lines = content.split("\n");
-        List<String> lineList = new ArrayList<>(Arrays.asList(lines));
-        StringBuilder dataBlock = new StringBuilder();
-        for(int i = 0;i < lineList.size();i++) {
-            if(lineList.get(i).contains("methods: {")) {
-                int j = i + 1;
-                String intent = getScriptIndent(lineList.get(i));
-                while(j < lineList.size()) {
-                    dataBlock.append(lineList.get(j) + "\n");
-                    j++;
-                    if(j >= lineList.size()
-                            || lineList.get(j).equals(intent + "},")
-                            || lineList.get(j).equals(intent + "}"))
-                        break;
-                }
-                break;
-            }
-        }
-        return dataBlock.toString();
+        return VueSfcScanner.scanScript(content).methodsContent();
     }
 
     public static String getScriptIndent(String line) {
@@ -45,77 +31,28 @@ public class PageParserUtil {
         return indentation.toString();
     }
 
+    /**
+     * data() 返回的对象字面量，content 为 script 标签内的内容
+     */
     public static String getScriptData(String content) {
-        String[] lines = content.split("\n");
-        List<String> lineList = new ArrayList<>(Arrays.asList(lines));
-        StringBuilder dataBlock = new StringBuilder();
-        for(int i = 0;i < lineList.size();i++) {
-            if(lineList.get(i).contains("data")) {
-                if((lineList.get(i).contains("data()") || lineList.get(i).contains("function"))
-                        && i+1 < lineList.size() && lineList.get(i+1).contains("return {")) {
-                    int j = i + 2;
-                    String intent = getScriptIndent(lineList.get(i));
-                    while (j < lineList.size()) {
-                        String tmp = lineList.get(j);
-                        if(tmp.contains("//")) { // remove comment
-                            tmp = tmp.substring(0, tmp.indexOf("//"));
-                        }
-                        dataBlock.append(tmp);
-                        j++;
-                        if (j == lineList.size() || lineList.get(j).equals(intent + "},")
-                                || lineList.get(j).equals(intent + "}"))
-                            break;
-                    }
-                    break;
-                }
-            }
-        }
-        if(dataBlock.length() == 0) {
-            return null;
-        }
-        dataBlock.insert(0, " { ");
-        return dataBlock.toString();
+        return VueSfcScanner.scanScript(content).dataBlock();
     }
 
+    /**
+     * 以下两个方法各扫描一次完整文件，同时需要多个块时应直接使用 VueSfcScanner
+     */
     public static String getScriptContent(String fileContent) {
-        StringBuilder scriptContent = new StringBuilder();
-        List<String> lines = Arrays.asList(fileContent.split("\n"));
-        for(int i = 0;i < lines.size();i++) {
-            if(lines.get(i).contains("<script")) {
-                int j = i + 1;
-                while(j < lines.size() && !lines.get(j).contains("</script>")) {
-                    scriptContent.append(lines.get(j)).append("\n");
-                    j++;
-                }
-                break;
-            }
-        }
-        return scriptContent.toString();
+        return VueSfcScanner.scan(fileContent).scriptContent();
     }
 
     public static String getTemplateContent(String fileContent) {
-        StringBuilder templateContent = new StringBuilder("<template>\n");
-        List<String> lines = Arrays.asList(fileContent.split("\n"));
-        for(int i = 0;i < lines.size();i++) {
-            if(lines.get(i).startsWith("<template")) {
-                int j = i + 1;
-                while(j < lines.size() && !lines.get(j).startsWith("</template>")) {
-                    templateContent.append(lines.get(j)).append("\n");
-                    j++;
-                }
-                break;
-            }
-        }
-        templateContent.append("</template>");
-        return templateContent.toString();
+        return VueSfcScanner.scan(fileContent).templateContent();
     }
 
     public static JSONObject parseImportsComponent(String content) {
         try {
             JSONObject importsList = new JSONObject();
-            String importPattern = "import\\s*\\{?\\s*([\\w,\\s]+)\\s*\\}?\\s*from\\s*['\"]([^'\"]+)['\"]";
-            Pattern pattern = Pattern.compile(importPattern);
-            Matcher matcher = pattern.matcher(content);
+            Matcher matcher = IMPORT_PATTERN.matcher(content);
 
             while (matcher.find()) {
                 String names = matcher.group(1).trim();
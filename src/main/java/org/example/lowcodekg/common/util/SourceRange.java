@@ -0,0 +1,16 @@
+package org.example.lowcodekg.common.util;
+
+/**
+ * 源文件中的一段内容，toString 时才生成字符串
+ *
+ * @param source 所在源文件
+ * @param offset 起始字符偏移
+ * @param length 字符长度
+ */
+public record SourceRange(SourceText source, int offset, int length) {
+
+    @Override
+    public String toString() {
+        return source.substring(offset, length);
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.lowcodekg.common.util;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 源文件内容
+ * 文件通过内存映射读取并一次性解码为字符数组，类、方法等只以 SourceRange 记录其在文件中的位置，
+ * 同一文件的各个片段共享这份字符数组，字符串在需要持久化时才生成
+ */
+public class SourceText {
+
+    private final char[] chars;
+    private final int length;
+
+    private SourceText(char[] chars, int length) {
+        this.chars = chars;
+        this.length = length;
+    }
+
+    /**
+     * 以 UTF-8 读取源文件，非法字节替换为替换字符（与 FileUtils.readFileToString 一致）
+     */
+    public static SourceText read(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            CharBuffer decoded = decoder.decode(bytes);
+            return new SourceText(decoded.array(), decoded.limit());
+        }
+    }
+
+    public static SourceText of(String content) {
+        return new SourceText(content.toCharArray(), content.length());
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * 文件中的一段，JDT 节点的 startPosition / length 即为字符偏移
+     */
+    public SourceRange range(int offset, int length) {
+        if(offset < 0 || length < 0 || offset + length > this.length) {
+            throw new IndexOutOfBoundsException("range " + offset + "+" + length + " out of " + this.length);
+        }
+        return new SourceRange(this, offset, length);
+    }
+
+    public String substring(int offset, int length) {
+        return new String(chars, offset, length);
+    }
+
+    @Override
+    public String toString() {
+        return substring(0, length);
+    }
+}
@@ -0,0 +1,316 @@
+package org.example.lowcodekg.common.util;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Vue 单文件组件的分块扫描
+ * 一次遍历建立行偏移表，定位 template、script、data() 返回块、methods 块及其中各方法的行范围，
+ * 之后只记录偏移；各部分以原文本上的视图返回，需要字符串时才复制
+ * 分块规则与原先按行切分的实现一致：块的结束行为与起始行缩进相同的 } 或 },
+ */
+public class VueSfcScanner {
+
+    private static final Pattern METHOD_HEADER = Pattern.compile("(\\w+)\\(([\\w,:\\s=\\.]*)\\)\\s*\\{");
+
+    /**
+     * methods 块中的一个方法
+     * @param name 方法名
+     * @param params 参数列表原文
+     * @param bodyStart 方法体首行（不含声明行）
+     * @param bodyEnd 方法体结束行（不含）
+     */
+    public record MethodHeader(String name, String params, int bodyStart, int bodyEnd) {}
+
+    private final String text;
+    /**
+     * 第 i 行的起始偏移，lineStarts[lineCount] 为最后一行换行符之后的偏移
+     */
+    private final int[] lineStarts;
+    /**
+     * 第 i 行的结束偏移，不含换行符
+     */
+    private final int[] lineEnds;
+    private final int lineCount;
+
+    private int templateStart = -1;
+    private int templateEnd = -1;
+    private int scriptStart = -1;
+    private int scriptEnd = -1;
+    private int dataStart = -1;
+    private int dataEnd = -1;
+    private int methodsStart = -1;
+    private int methodsEnd = -1;
+    private List<MethodHeader> methods;
+
+    private VueSfcScanner(String text) {
+        this.text = text;
+        int length = text.length();
+        int[] starts = new int[64];
+        int[] ends = new int[64];
+        int count = 0;
+        int start = 0;
+        while (start < length) {
+            if (count + 1 >= starts.length) {
+                starts = Arrays.copyOf(starts, starts.length * 2);
+                ends = Arrays.copyOf(ends, ends.length * 2);
+            }
+            int newline = text.indexOf('\n', start);
+            starts[count] = start;
+            ends[count++] = newline < 0 ? length : newline;
+            start = newline < 0 ? length : newline + 1;
+        }
+        // 与 split("\n") 一致，忽略末尾的空行
+        while (count > 0 && ends[count - 1] == starts[count - 1]) {
+            count--;
+        }
+        starts[count] = count == 0 ? 0 : Math.min(length, ends[count - 1] + 1);
+        this.lineStarts = starts;
+        this.lineEnds = ends;
+        this.lineCount = count;
+    }
+
+    /**
+     * 扫描完整的 .vue 文件
+     */
+    public static VueSfcScanner scan(String fileContent) {
+        VueSfcScanner scanner = new VueSfcScanner(fileContent);
+        scanner.locateTemplate();
+        scanner.locateScript();
+        scanner.locateScriptBlocks();
+        return scanner;
+    }
+
+    /**
+     * 扫描 script 标签内的内容
+     */
+    public static VueSfcScanner scanScript(String scriptContent) {
+        VueSfcScanner scanner = new VueSfcScanner(scriptContent);
+        scanner.scriptStart = 0;
+        scanner.scriptEnd = scanner.lineCount;
+        scanner.locateScriptBlocks();
+        return scanner;
+    }
+
+    private void locateTemplate() {
+        for (int i = 0; i < lineCount; i++) {
+            if (text.startsWith("<template", lineStarts[i])) {
+                int j = i + 1;
+                while (j < lineCount && !text.startsWith("</template>", lineStarts[j])) {
+                    j++;
+                }
+                templateStart = i + 1;
+                templateEnd = j;
+                return;
+            }
+        }
+    }
+
+    private void locateScript() {
+        int open = text.indexOf("<script");
+        if (open < 0) {
+            return;
+        }
+        int line = lineOf(open);
+        scriptStart = line + 1;
+        scriptEnd = lineCount;
+        if (scriptStart < lineCount) {
+            int close = text.indexOf("</script>", lineStarts[scriptStart]);
+            if (close >= 0) {
+                scriptEnd = lineOf(close);
+            }
+        }
+    }
+
+    private void locateScriptBlocks() {
+        if (scriptStart < 0) {
+            return;
+        }
+        // data() { 的下一行为 return {，返回块从再下一行开始
+        for (int i = scriptStart; i < scriptEnd; i++) {
+            if (lineContains(i, "data") && (lineContains(i, "data()") || lineContains(i, "function"))
+                    && i + 1 < scriptEnd && lineContains(i + 1, "return {")) {
+                if (i + 2 < scriptEnd) {
+                    dataStart = i + 2;
+                    dataEnd = blockEnd(dataStart, scriptEnd, i);
+                }
+                break;
+            }
+        }
+        for (int i = scriptStart; i < scriptEnd; i++) {
+            if (lineContains(i, "methods: {")) {
+                if (i + 1 < scriptEnd) {
+                    methodsStart = i + 1;
+                    methodsEnd = blockEnd(methodsStart, scriptEnd, i);
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * 自 first 的下一行起，第一个与 indentLine 缩进相同的 } 或 }, 行；first 行本身总属于块内
+     */
+    private int blockEnd(int first, int limit, int indentLine) {
+        for (int j = first + 1; j < limit; j++) {
+            if (isClosingLine(j, indentLine)) {
+                return j;
+            }
+        }
+        return limit;
+    }
+
+    private boolean isClosingLine(int line, int indentLine) {
+        int indent = indentLength(indentLine);
+        int start = lineStarts[line];
+        int length = lineEnds[line] - start;
+        if (length != indent + 1 && length != indent + 2) {
+            return false;
+        }
+        return text.regionMatches(start, text, lineStarts[indentLine], indent)
+                && text.charAt(start + indent) == '}'
+                && (length == indent + 1 || text.charAt(start + indent + 1) == ',');
+    }
+
+    private int indentLength(int line) {
+        int start = lineStarts[line];
+        int i = start;
+        while (i < lineEnds[line] && (text.charAt(i) == ' ' || text.charAt(i) == '\t')) {
+            i++;
+        }
+        return i - start;
+    }
+
+    private boolean lineContains(int line, String needle) {
+        int last = lineEnds[line] - needle.length();
+        char first = needle.charAt(0);
+        for (int i = lineStarts[line]; i <= last; i++) {
+            if (text.charAt(i) == first && text.startsWith(needle, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int lineOf(int offset) {
+        int low = 0;
+        int high = lineCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (lineStarts[mid] <= offset) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 行范围 [from, to) 的原文视图，每行以换行结尾
+     */
+    private CharSequence lines(int from, int to) {
+        return CharBuffer.wrap(text, lineStarts[from], lineStarts[to]);
+    }
+
+    private String linesWithNewline(String prefix, int from, int to, String suffix) {
+        CharSequence lines = lines(from, to);
+        StringBuilder builder = new StringBuilder(prefix.length() + lines.length() + suffix.length() + 1);
+        builder.append(prefix).append(lines);
+        if (lines.length() > 0 && lines.charAt(lines.length() - 1) != '\n') {
+            builder.append('\n');
+        }
+        return builder.append(suffix).toString();
+    }
+
+    /**
+     * template 标签内的原文视图，不存在时为空
+     */
+    public CharSequence templateBody() {
+        return templateStart < 0 ? "" : lines(templateStart, templateEnd);
+    }
+
+    /**
+     * 包裹在 template 标签中的 template 内容，供 Jsoup 解析
+     */
+    public String templateContent() {
+        return templateStart < 0 ? "<template>\n</template>"
+                : linesWithNewline("<template>\n", templateStart, templateEnd, "</template>");
+    }
+
+    /**
+     * script 标签内的原文视图，不存在时为空
+     */
+    public CharSequence scriptBody() {
+        return scriptStart < 0 ? "" : lines(scriptStart, scriptEnd);
+    }
+
+    public String scriptContent() {
+        return scriptStart < 0 ? "" : linesWithNewline("", scriptStart, scriptEnd, "");
+    }
+
+    /**
+     * data() 返回的对象字面量，以 " { " 开头，可能不含最外层的右括号；不存在时为 null
+     */
+    public String dataBlock() {
+        return dataStart < 0 ? null : linesWithNewline(" { ", dataStart, dataEnd, "");
+    }
+
+    /**
+     * methods 块的原文视图，不含首尾的括号行；不存在时为空
+     */
+    public CharSequence methodsBody() {
+        return methodsStart < 0 ? "" : lines(methodsStart, methodsEnd);
+    }
+
+    /**
+     * methods 块内容，不含首尾的括号行；不存在时为空
+     */
+    public String methodsContent() {
+        return methodsStart < 0 ? "" : linesWithNewline("", methodsStart, methodsEnd, "");
+    }
+
+    /**
+     * methods 块中以 name(params) { 声明的方法，方法体到与声明行缩进相同的 } 或 }, 为止
+     */
+    public List<MethodHeader> methods() {
+        if (methods != null) {
+            return methods;
+        }
+        if (methodsStart < 0) {
+            return methods = Collections.emptyList();
+        }
+        List<MethodHeader> headers = new ArrayList<>();
+        Matcher matcher = METHOD_HEADER.matcher(text);
+        int i = methodsStart;
+        while (i < methodsEnd) {
+            matcher.region(lineStarts[i], lineEnds[i]);
+            if (matcher.find()) {
+                int j = i + 1;
+                while (j < methodsEnd && !isClosingLine(j, i)) {
+                    j++;
+                }
+                headers.add(new MethodHeader(matcher.group(1), matcher.group(2), i + 1, j));
+                i = j;
+            }
+            i++;
+        }
+        return methods = headers;
+    }
+
+    /**
+     * 方法体各行直接拼接（不保留换行），与原实现保存的方法内容一致
+     */
+    public String methodBody(MethodHeader method) {
+        StringBuilder body = new StringBuilder(lineStarts[method.bodyEnd()] - lineStarts[method.bodyStart()]);
+        for (int line = method.bodyStart(); line < method.bodyEnd(); line++) {
+            body.append(text, lineStarts[line], lineEnds[line]);
+        }
+        return body.toString();
+    }
+}
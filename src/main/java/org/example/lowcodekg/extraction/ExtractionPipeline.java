@@ -0,0 +1,85 @@
+package org.example.lowcodekg.extraction;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 两阶段抽取流水线
+ * 解析阶段在有界线程池中并发执行；写库阶段由单个写线程串行执行，避免 Neo4j 写事务相互竞争
+ * 已解析但尚未写入的结果数量受 maxPending 限制，防止解析过快导致内存堆积
+ *
+ * @param <T> 解析阶段产出的结果类型
+ */
+public class ExtractionPipeline<T> {
+
+    private final String name;
+    private final ExecutorService parsePool;
+    private final ExecutorService writer;
+    private final Semaphore pending;
+
+    public ExtractionPipeline(String name, int workers, int maxPending) {
+        this.name = name;
+        this.parsePool = Executors.newFixedThreadPool(Math.max(1, workers), namedThreadFactory(name + "-parse"));
+        this.writer = Executors.newSingleThreadExecutor(namedThreadFactory(name + "-writer"));
+        this.pending = new Semaphore(Math.max(1, maxPending));
+    }
+
+    /**
+     * 提交一个解析任务及其结果的写库任务
+     * 解析任务返回 null 时跳过写库
+     */
+    public void submit(Callable<T> parseTask, Consumer<T> writeTask) {
+        parsePool.execute(() -> {
+            T result;
+            try {
+                result = parseTask.call();
+            } catch (Exception e) {
+                e.printStackTrace();
+                System.err.println("Error in " + name + " parse stage: " + e.getMessage());
+                return;
+            }
+            if (result == null) {
+                return;
+            }
+            pending.acquireUninterruptibly();
+            writer.execute(() -> {
+                try {
+                    writeTask.accept(result);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    System.err.println("Error in " + name + " write stage: " + e.getMessage());
+                } finally {
+                    pending.release();
+                }
+            });
+        });
+    }
+
+    /**
+     * 等待所有已提交任务完成并关闭线程池
+     * 写任务只会由解析任务提交，因此解析线程池结束后再关闭写线程即可保证不遗漏
+     */
+    public void await() {
+        try {
+            parsePool.shutdown();
+            parsePool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            writer.shutdown();
+            writer.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            parsePool.shutdownNow();
+            writer.shutdownNow();
+            System.err.println(name + " pipeline interrupted");
+        }
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -2,6 +2,7 @@ package org.example.lowcodekg.extraction;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.example.lowcodekg.common.config.ExtractionConfig;
 import org.example.lowcodekg.model.dao.neo4j.repository.*;
 import org.example.lowcodekg.query.service.util.summarize.FuncGenerate;
 import org.example.lowcodekg.query.service.util.ElasticSearchService;
@@ -45,12 +46,21 @@ public abstract class KnowledgeExtractor {
     protected static Neo4jClient neo4jClient;
     @Setter
     protected static FuncGenerate funcGenerateService;
+    @Setter
+    protected static ExtractionConfig extractionConfig = new ExtractionConfig();
+    /**
+     * 增量抽取：只处理相对上次抽取有变化的源文件，并替换其派生的节点
+     */
+    @Setter
+    protected static boolean incremental = false;
 
     @Getter
     @Setter
     private List<String> dataDir;
 
     public static void execute(List<ExtractorConfig> extractorConfigList) {
+        // 同一批抽取器共享源码目录的扫描结果
+        SourceScanner.clear();
         for (ExtractorConfig config : extractorConfigList) {
             System.out.println(config.getClassName() + " start ...");
             KnowledgeExtractor extractor = null;
@@ -67,6 +77,14 @@ public abstract class KnowledgeExtractor {
             }
             System.out.println(config.getClassName() + " finished.");
         }
+        SourceScanner.clear();
+    }
+
+    /**
+     * 源码目录的扫描结果，同一批抽取中每个目录只遍历一次
+     */
+    protected static SourceScanner scanSources(String root) {
+        return SourceScanner.scan(root, extractionConfig.getScanIoThreads(), extractionConfig.getScanExcludeDirs());
     }
 
 
@@ -0,0 +1,207 @@
+package org.example.lowcodekg.extraction;
+
+import lombok.Getter;
+import org.example.lowcodekg.extraction.incremental.FileManifest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 源码目录扫描，供各抽取器共享
+ * 每个根目录在一次抽取中只遍历一次：子目录在有界的 ForkJoinPool 中并行列出，记录各文件的路径、大小与修改时间，
+ * 各抽取器通过 PathMatcher 按扩展名或 glob 从同一份清单中筛选文件
+ * 文件内容的读取与哈希受同一并发上限约束（网络挂载的代码目录上并发过高反而更慢），哈希按文件缓存
+ * 扫描结果在 KnowledgeExtractor.execute 开始与结束时清空，不同批次的抽取不会读到过期的清单
+ */
+public class SourceScanner {
+
+    /**
+     * 清单中的一个文件
+     * @param path 规范化的绝对路径
+     * @param relativePath 相对根目录、以 "/" 分隔的路径
+     * @param size 文件大小
+     * @param lastModified 修改时间（毫秒）
+     */
+    public record SourceFile(Path path, String relativePath, long size, long lastModified) {
+        public String fileName() {
+            return path.getFileName().toString();
+        }
+    }
+
+    private static final Map<Path, SourceScanner> SCANS = new ConcurrentHashMap<>();
+
+    @Getter
+    private final Path root;
+    private final Set<String> excludedDirs;
+    private final ForkJoinPool ioPool;
+    private final Semaphore ioPermits;
+    @Getter
+    private final List<SourceFile> files;
+    private final Map<Path, String> hashes = new ConcurrentHashMap<>();
+
+    private SourceScanner(Path root, int ioThreads, Set<String> excludedDirs) {
+        this.root = root;
+        this.excludedDirs = excludedDirs;
+        this.ioPool = new ForkJoinPool(Math.max(1, ioThreads));
+        this.ioPermits = new Semaphore(Math.max(1, ioThreads));
+        long start = System.nanoTime();
+        List<SourceFile> listed = Files.isDirectory(root) ? ioPool.invoke(new DirectoryTask(root)) : new ArrayList<>();
+        listed.sort(Comparator.comparing(SourceFile::relativePath));
+        this.files = Collections.unmodifiableList(listed);
+        System.out.printf("scanned %s: %d files in %.2fs%n", root, files.size(), (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * 根目录的扫描结果，本次抽取中首次访问时遍历
+     * @param ioThreads 并行列目录、读取与哈希文件的并发上限
+     * @param excludedDirs 不进入的目录名，如 .git、node_modules
+     */
+    public static SourceScanner scan(String root, int ioThreads, Collection<String> excludedDirs) {
+        Path path = Paths.get(root).toAbsolutePath().normalize();
+        return SCANS.computeIfAbsent(path, p -> new SourceScanner(p, ioThreads, Set.copyOf(excludedDirs)));
+    }
+
+    /**
+     * 丢弃全部扫描结果
+     */
+    public static void clear() {
+        SCANS.values().forEach(scanner -> scanner.ioPool.shutdown());
+        SCANS.clear();
+    }
+
+    /**
+     * 文件名带有指定扩展名（不含 "."）的文件
+     */
+    public List<SourceFile> files(String... extensions) {
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:*.{" + String.join(",", extensions) + "}");
+        return files.stream().filter(file -> matcher.matches(file.path().getFileName())).toList();
+    }
+
+    /**
+     * 相对根目录的路径匹配 glob 的文件，如各组件目录下的 index.zh-CN.md
+     */
+    public List<SourceFile> matching(String glob) {
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        return files.stream().filter(file -> matcher.matches(root.relativize(file.path()))).toList();
+    }
+
+    /**
+     * 读取文件内容，行结束符统一为 "\n" 且末行以 "\n" 结尾，与按行读取再拼接的结果一致
+     */
+    public String read(SourceFile file) throws IOException {
+        String content = new String(readBytes(file), StandardCharsets.UTF_8);
+        if (content.indexOf('\r') >= 0) {
+            content = content.replace("\r\n", "\n").replace('\r', '\n');
+        }
+        if (!content.isEmpty() && content.charAt(content.length() - 1) != '\n') {
+            content += "\n";
+        }
+        return content;
+    }
+
+    /**
+     * 文件内容的 SHA-256
+     */
+    public String hash(SourceFile file) throws IOException {
+        String hash = hashes.get(file.path());
+        if (hash == null) {
+            hash = FileManifest.sha256(readBytes(file));
+            hashes.put(file.path(), hash);
+        }
+        return hash;
+    }
+
+    /**
+     * 在 I/O 线程池中并行计算一组文件的哈希，读取失败的文件不出现在结果中
+     */
+    public Map<SourceFile, String> hashAll(Collection<SourceFile> targets) {
+        Map<SourceFile, String> result = new ConcurrentHashMap<>();
+        try {
+            ioPool.submit(() -> targets.parallelStream().forEach(file -> {
+                try {
+                    result.put(file, hash(file));
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    System.err.println("Error in hashing file: " + file.path());
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        }
+        return result;
+    }
+
+    private byte[] readBytes(SourceFile file) throws IOException {
+        ioPermits.acquireUninterruptibly();
+        try {
+            return Files.readAllBytes(file.path());
+        } finally {
+            ioPermits.release();
+        }
+    }
+
+    /**
+     * 列出一个目录，子目录作为子任务并行列出
+     * 指向目录的符号链接不进入，避免链接成环
+     */
+    private class DirectoryTask extends RecursiveTask<List<SourceFile>> {
+
+        private final Path dir;
+
+        DirectoryTask(Path dir) {
+            this.dir = dir;
+        }
+
+        @Override
+        protected List<SourceFile> compute() {
+            List<SourceFile> listed = new ArrayList<>();
+            List<DirectoryTask> subtasks = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path child : stream) {
+                    BasicFileAttributes attributes = attributesOf(child);
+                    if (attributes == null) {
+                        continue;
+                    }
+                    if (attributes.isDirectory()) {
+                        if (!excludedDirs.contains(child.getFileName().toString())) {
+                            subtasks.add(new DirectoryTask(child));
+                        }
+                    } else if (attributes.isRegularFile()) {
+                        String relativePath = root.relativize(child).toString().replace('\\', '/');
+                        listed.add(new SourceFile(child, relativePath, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error in listing directory " + dir + ": " + e.getMessage());
+            }
+            invokeAll(subtasks);
+            for (DirectoryTask subtask : subtasks) {
+                listed.addAll(subtask.join());
+            }
+            return listed;
+        }
+
+        /**
+         * 符号链接取其指向的普通文件的属性，指向目录或无法访问时为 null
+         */
+        private BasicFileAttributes attributesOf(Path child) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                if (attributes.isSymbolicLink()) {
+                    attributes = Files.readAttributes(child, BasicFileAttributes.class);
+                    return attributes.isRegularFile() ? attributes : null;
+                }
+                return attributes;
+            } catch (IOException e) {
+                System.err.println("Error in reading attributes of " + child + ": " + e.getMessage());
+                return null;
+            }
+        }
+    }
+}
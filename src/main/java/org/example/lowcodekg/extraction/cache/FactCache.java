@@ -0,0 +1,157 @@
+package org.example.lowcodekg.extraction.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单个源文件解析结果的磁盘缓存
+ * 以文件内容哈希为键（内容相同的文件共享同一条缓存），文件头记录抽取器版本，
+ * 版本不一致视为未命中，抽取逻辑变化时提升版本号即可使旧缓存失效
+ * 解析结果还依赖其它文件时（如 Java 的方法调用 binding key），写入时附带调用方给出的指纹，由调用方在读取后校验
+ * 缓存文件为紧凑的二进制格式，较大的文件通过内存映射读取
+ *
+ * @param <T> 单个文件的解析结果
+ */
+public class FactCache<T> {
+
+    /**
+     * 解析结果的编解码
+     */
+    public interface Codec<T> {
+
+        void write(FactOutput out, T facts) throws IOException;
+
+        T read(FactInput in);
+    }
+
+    /**
+     * 缓存的解析结果及写入时附带的指纹
+     */
+    public record Entry<T>(T facts, String fingerprint) {}
+
+    private static final int MAGIC = 0x4C4B4732;
+    private static final int HEADER_SIZE = 8;
+    private static final long MAPPING_THRESHOLD = 64 * 1024;
+
+    private final Path dir;
+    private final int version;
+    private final Codec<T> codec;
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * @param cacheDir 缓存根目录
+     * @param kind 抽取器类型，如 java、vue
+     * @param version 抽取器版本
+     */
+    public FactCache(String cacheDir, String kind, int version, Codec<T> codec) {
+        this.dir = Paths.get(cacheDir, kind);
+        this.version = version;
+        this.codec = codec;
+    }
+
+    /**
+     * 读取内容哈希对应的解析结果，未命中或缓存损坏时返回 null
+     */
+    public T load(String contentHash) {
+        Entry<T> entry = loadEntry(contentHash);
+        return entry == null ? null : entry.facts();
+    }
+
+    /**
+     * 读取内容哈希对应的解析结果及其指纹，未命中或缓存损坏时返回 null
+     */
+    public Entry<T> loadEntry(String contentHash) {
+        if(contentHash == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        Path file = pathOf(contentHash);
+        if(!Files.exists(file)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer buffer;
+            if(size >= MAPPING_THRESHOLD) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                buffer = ByteBuffer.allocate((int) size);
+                while(buffer.hasRemaining()) {
+                    if(channel.read(buffer) < 0) {
+                        break;
+                    }
+                }
+                buffer.flip();
+            }
+            if(buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != version) {
+                misses.incrementAndGet();
+                return null;
+            }
+            FactInput in = new FactInput(buffer);
+            String fingerprint = in.readString();
+            T facts = codec.read(in);
+            hits.incrementAndGet();
+            return new Entry<>(facts, fingerprint);
+        } catch (Exception e) {
+            System.err.println("Error in reading fact cache, re-parse: " + file + " " + e.getMessage());
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    public void store(String contentHash, T facts) {
+        store(contentHash, facts, "");
+    }
+
+    /**
+     * 写入解析结果，先写临时文件再原子替换，避免并发读到不完整的缓存
+     * @param fingerprint 解析结果所依赖的外部状态的指纹，随结果一起返回
+     */
+    public void store(String contentHash, T facts, String fingerprint) {
+        if(contentHash == null || facts == null) {
+            return;
+        }
+        Path file = pathOf(contentHash);
+        try {
+            FactOutput out = new FactOutput();
+            out.writeInt(MAGIC);
+            out.writeInt(version);
+            out.writeString(fingerprint);
+            codec.write(out, facts);
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), contentHash, ".tmp");
+            Files.write(tmp, out.toByteArray());
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.err.println("Error in writing fact cache: " + file);
+        }
+    }
+
+    public int getHits() {
+        return hits.get();
+    }
+
+    public int getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        return "fact cache " + dir.getFileName() + ": " + hits.get() + " hits, " + misses.get() + " misses";
+    }
+
+    private Path pathOf(String contentHash) {
+        return dir.resolve(contentHash.substring(0, Math.min(2, contentHash.length()))).resolve(contentHash + ".bin");
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.lowcodekg.extraction.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 读取 FactOutput 写出的二进制编码，直接基于（可能是内存映射的）ByteBuffer
+ */
+public class FactInput {
+
+    private final ByteBuffer buffer;
+
+    public FactInput(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public int readInt() {
+        return buffer.getInt();
+    }
+
+    public boolean readBoolean() {
+        return buffer.get() != 0;
+    }
+
+    public String readString() {
+        int length = buffer.getInt();
+        if(length < 0) {
+            return null;
+        }
+        if(buffer.hasArray()) {
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+        byte[] encoded = new byte[length];
+        buffer.get(encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+    public List<String> readStringList() {
+        int size = readSize();
+        if(size < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for(int i = 0; i < size; i++) {
+            values.add(readString());
+        }
+        return values;
+    }
+
+    public Set<String> readStringSet() {
+        List<String> values = readStringList();
+        return values == null ? null : new HashSet<>(values);
+    }
+
+    /**
+     * 读取集合的长度前缀，-1 表示 null
+     */
+    public int readSize() {
+        return buffer.getInt();
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.lowcodekg.extraction.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * 解析结果的二进制编码
+ * 整数为大端 4 字节，字符串与集合以长度前缀编码，长度 -1 表示 null
+ */
+public class FactOutput {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+    private final DataOutputStream out = new DataOutputStream(bytes);
+
+    public void writeInt(int value) throws IOException {
+        out.writeInt(value);
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        out.writeBoolean(value);
+    }
+
+    public void writeString(String value) throws IOException {
+        if(value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(encoded.length);
+        out.write(encoded);
+    }
+
+    public void writeStrings(Collection<String> values) throws IOException {
+        if(values == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(values.size());
+        for(String value: values) {
+            writeString(value);
+        }
+    }
+
+    /**
+     * 写入集合的长度前缀，元素由调用方依次写入
+     */
+    public void writeSize(Collection<?> values) throws IOException {
+        out.writeInt(values == null ? -1 : values.size());
+    }
+
+    public byte[] toByteArray() throws IOException {
+        out.flush();
+        return bytes.toByteArray();
+    }
+}
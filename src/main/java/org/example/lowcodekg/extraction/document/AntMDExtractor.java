@@ -4,13 +4,11 @@ import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 
 import java.util.*;
+import java.util.concurrent.Callable;
 
-import org.example.lowcodekg.model.dao.neo4j.entity.page.ComponentEntity;
-import org.example.lowcodekg.extraction.KnowledgeExtractor;
-import org.example.lowcodekg.model.schema.entity.page.Component;
+import org.example.lowcodekg.extraction.SourceScanner;
 import org.springframework.stereotype.Service;
 
 /**
@@ -35,183 +33,186 @@ import org.springframework.stereotype.Service;
  * 
  */
 @Service
-public class AntMDExtractor extends KnowledgeExtractor {
+public class AntMDExtractor extends ComponentDocExtractor {
 
     // extract results
     public ArrayList<RawData> dataList = new ArrayList<RawData>();
 
-    // private variables for extracting
-    private String WorkDir;     // temp sub-directory for current component
-    private int lineNum;        // temp counter for current line number
-
-
     @Override
     public void extraction() {
         parseData();
         // 转化为 Schema 对象
-        for(RawData data : dataList) {
-            Component component = data.convertToComponent();
-            ComponentEntity componentEntity = component.storeInNeo4j(componentRepo, configItemRepo);
-            componentRepo.setComponentDef(componentEntity.getId());
-        }
-        return;
+        storeComponentDefs(dataList);
     }
 
-    private void parseComponent(String fileName, RawData data) {
-        lineNum = 0;
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(fileName), StandardCharsets.UTF_8);
+    /**
+     * 单篇组件文档的解析状态，每篇文档一个实例，不同文档可以并发解析
+     */
+    private static class ComponentDoc {
+
+        private final String WorkDir;     // sub-directory of current component
+        private int lineNum;              // counter for current line number
+
+        private ComponentDoc(String WorkDir) {
+            this.WorkDir = WorkDir;
+        }
+
+        /**
+         * @return 组件总览等非组件文档返回 null
+         */
+        private RawData parse(Path fileName) throws IOException {
+            RawData data = new RawData();
+            List<String> lines = Files.readAllLines(fileName, StandardCharsets.UTF_8);
             while (lineNum < lines.size()) {
                 parseLine(lines, data);
                 data.setLanguage("React");
                 data.setSource("Ant-Design");
             }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return;
-    }
-    
-    private void parseLine(List<String> lines, RawData data) {
-        String line = lines.get(lineNum++);
-        if (line.startsWith("category: ")) {
-            // category / default = Components
-            data.setCategory(line.substring(10));
-            line.substring(10);
-            return;
-        }
-        if (line.startsWith("group: ")) {
-            // group / sceneLabel-functional
-            data.setSceneLabel(line.substring(7));
-        }
-        if (line.startsWith("title: ")) {
-            // title / name-EN
-            data.setName(line.substring(7));
-            return;
-        }
-        if (line.startsWith("subtitle")) {
-            // subtitle / name-CN
-            data.setName_CN(line.substring(10));
-            return;
-        }
-        if (line.startsWith("description: ")) {
-            // description / description-CN-concise
-            data.setDescription(line.substring(13));
-            return;
-        }
-        if (line.startsWith("## 何时使用")) {
-            // ## 何时使用 / usage
-            parseUsage(lines, data);
-            return;
-        }
-        if (line.startsWith("## 代码演示")) {
-            // ## 代码演示 / 代码样例
-            parseDemo(lines, data);
-            return;
-        }
-        if (line.startsWith("## API")) {
-            // ## API / 组件配置项
-            parseConfig(lines, data);
+            if ("组件总览".equals(data.getName()) || "Util".equals(data.getName())) {
+                return null;
+            }
+            return data;
         }
-    }
 
-    private void parseUsage(List<String> lines, RawData data) {
-        String line;
-        while (lineNum < lines.size()) {
-            line = lines.get(lineNum);
-            if (!line.startsWith("##")) {
-                data.setUsage(data.getUsage() + line);
-            } else {
-                parseLine(lines, data);
+        private void parseLine(List<String> lines, RawData data) {
+            String line = lines.get(lineNum++);
+            if (line.startsWith("category: ")) {
+                // category / default = Components
+                data.setCategory(line.substring(10));
+                line.substring(10);
                 return;
             }
-            lineNum++;
-        }
-        return;
-    }
-
-    private void parseDemo(List<String> lines, RawData data) {
-        String line;
-        while (lineNum < lines.size()) {
-            line = lines.get(lineNum);
-            if (line.startsWith("##")) {
-                parseLine(lines, data);
+            if (line.startsWith("group: ")) {
+                // group / sceneLabel-functional
+                data.setSceneLabel(line.substring(7));
+            }
+            if (line.startsWith("title: ")) {
+                // title / name-EN
+                data.setName(line.substring(7));
                 return;
             }
-            if (line.startsWith("<code src=") && line.indexOf(".tsx") >= 18) {
-                String demoName = line.substring(18, line.indexOf(".tsx"));
-                CodeDemo demo = new CodeDemo(demoName);
-                demo.setName_CN(line.substring(line.indexOf(">", line.indexOf(".tsx", 0)) + 1,
-                line.indexOf("</code>")));
-                // parse demo files (Code & Description)
-                demo.parseCode(WorkDir + "/demo/" + demoName + ".tsx");
-                demo.parseDescription(WorkDir + "/demo/" + demoName + ".md");
-                data.getCodeDemos().add(demo);
+            if (line.startsWith("subtitle")) {
+                // subtitle / name-CN
+                data.setName_CN(line.substring(10));
+                return;
             }
-            lineNum++;
-        }
-        return;
-    }
-
-    private void parseConfig(List<String> lines, RawData data) {
-        String line;
-        while (lineNum < lines.size()) {
-            // TODO: 有一些异种“配置项”，主要是不足5列的部分。暂未专门有效区分。
-            line = lines.get(lineNum);
-            if (line.startsWith("## ")) {
-                parseLine(lines, data);
+            if (line.startsWith("description: ")) {
+                // description / description-CN-concise
+                data.setDescription(line.substring(13));
                 return;
             }
-            if (line.startsWith("| ") && !line.startsWith("| 属性") && !line.startsWith("| 参数") && !line.startsWith("| 名称") && !line.startsWith("| Property") && !line.startsWith("| --- |")) {
-                line = line.substring(1, line.length() - 2);
-                String[] values = line.split(" \\|");
-
-                if (values.length < 2) {
-                    System.err.println("Error: Invalid configItem values: " + WorkDir + ": " + line);
-                    lineNum++;
-                    continue;
-                }
+            if (line.startsWith("## 何时使用")) {
+                // ## 何时使用 / usage
+                parseUsage(lines, data);
+                return;
+            }
+            if (line.startsWith("## 代码演示")) {
+                // ## 代码演示 / 代码样例
+                parseDemo(lines, data);
+                return;
+            }
+            if (line.startsWith("## API")) {
+                // ## API / 组件配置项
+                parseConfig(lines, data);
+            }
+        }
 
-                RawConfigItem config = new RawConfigItem();
-                config.setName(values[0].substring(1));
-                config.setDescription(values[1].substring(1));
+        private void parseUsage(List<String> lines, RawData data) {
+            String line;
+            while (lineNum < lines.size()) {
+                line = lines.get(lineNum);
+                if (!line.startsWith("##")) {
+                    data.setUsage(data.getUsage() + line);
+                } else {
+                    parseLine(lines, data);
+                    return;
+                }
+                lineNum++;
+            }
+            return;
+        }
 
-                if (values.length >= 3) {
-                    config.setType(values[2].substring(1));
+        private void parseDemo(List<String> lines, RawData data) {
+            String line;
+            while (lineNum < lines.size()) {
+                line = lines.get(lineNum);
+                if (line.startsWith("##")) {
+                    parseLine(lines, data);
+                    return;
+                }
+                if (line.startsWith("<code src=") && line.indexOf(".tsx") >= 18) {
+                    String demoName = line.substring(18, line.indexOf(".tsx"));
+                    CodeDemo demo = new CodeDemo(demoName);
+                    demo.setName_CN(line.substring(line.indexOf(">", line.indexOf(".tsx", 0)) + 1,
+                    line.indexOf("</code>")));
+                    // parse demo files (Code & Description)
+                    demo.parseCode(WorkDir + "/demo/" + demoName + ".tsx");
+                    demo.parseDescription(WorkDir + "/demo/" + demoName + ".md");
+                    data.getCodeDemos().add(demo);
                 }
-                if (values.length >= 5) {
-                    config.setDefaultValue(values[3].substring(1));
-                    config.setVersion(values[4].substring(1));
+                lineNum++;
+            }
+            return;
+        }
+
+        private void parseConfig(List<String> lines, RawData data) {
+            String line;
+            while (lineNum < lines.size()) {
+                // TODO: 有一些异种“配置项”，主要是不足5列的部分。暂未专门有效区分。
+                line = lines.get(lineNum);
+                if (line.startsWith("## ")) {
+                    parseLine(lines, data);
+                    return;
                 }
-                if (values.length >= 6) {
-                    // System.err.println("Error: Invalid configItem values: " + WorkDir + ": " + line);
+                if (line.startsWith("| ") && !line.startsWith("| 属性") && !line.startsWith("| 参数") && !line.startsWith("| 名称") && !line.startsWith("| Property") && !line.startsWith("| --- |")) {
+                    line = line.substring(1, line.length() - 2);
+                    String[] values = line.split(" \\|");
+
+                    if (values.length < 2) {
+                        System.err.println("Error: Invalid configItem values: " + WorkDir + ": " + line);
+                        lineNum++;
+                        continue;
+                    }
+
+                    RawConfigItem config = new RawConfigItem();
+                    config.setName(values[0].substring(1));
+                    config.setDescription(values[1].substring(1));
+
+                    if (values.length >= 3) {
+                        config.setType(values[2].substring(1));
+                    }
+                    if (values.length >= 5) {
+                        config.setDefaultValue(values[3].substring(1));
+                        config.setVersion(values[4].substring(1));
+                    }
+                    if (values.length >= 6) {
+                        // System.err.println("Error: Invalid configItem values: " + WorkDir + ": " + line);
+                    }
+                    data.getConfigItems().add(config);
                 }
-                data.getConfigItems().add(config);
+                lineNum++;
             }
-            lineNum++;
         }
     }
 
     public void parseData() {
+        parseData(extractionConfig.getDocWorkers());
+    }
+
+    /**
+     * @param workers 并发解析的文档数
+     */
+    public void parseData(int workers) {
+        List<Callable<RawData>> tasks = new ArrayList<>();
         for(String filePath: this.getDataDir()) {
             String path = filePath + "/components";
-            File[] folders = new File(path).listFiles(File::isDirectory);
-            for (int i = 0; i < folders.length; i++) {
-                Path p = Paths.get(path, folders[i].getName(), "index.zh-CN.md");
-                if (!Files.exists(p)) {
-                    System.err.println(".md File Not Found (May not component): " + p.toString());
-                    continue;
-                } else {
-                    RawData data = new RawData();
-                    WorkDir = path + "/" + folders[i].getName();
-                    parseComponent(WorkDir + "/index.zh-CN.md", data);
-                    if (data.getName().equals("组件总览") || data.getName().equals("Util")) {
-                        continue;
-                    }
-                    dataList.add(data);
-                }
+            // 各组件目录下的中文文档
+            for (SourceScanner.SourceFile componentFile : scanSources(path).matching("*/index.zh-CN.md")) {
+                ComponentDoc doc = new ComponentDoc(path + "/" + componentFile.path().getParent().getFileName());
+                tasks.add(() -> doc.parse(componentFile.path()));
             }
         }
+        dataList.addAll(parseAll(tasks, workers));
     }
 
-}
\ No newline at end of file
+}
@@ -33,10 +33,7 @@ public class CodeDemo {
 
     public void parseCode(String fileName) {
         try {
-            List<String> lines = Files.readAllLines(Paths.get(fileName), StandardCharsets.UTF_8);
-            for (int i = 0; i < lines.size(); i++) {
-                code += (lines.get(i) + "\n");
-            }
+            code += readLines(fileName);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -44,15 +41,24 @@ public class CodeDemo {
 
     public void parseDescription(String fileName) {
         try {
-            List<String> lines = Files.readAllLines(Paths.get(fileName), StandardCharsets.UTF_8);
-            for (int i = 0; i < lines.size(); i++) {
-                description += (lines.get(i) + "\n");
-            }
+            description += readLines(fileName);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * 逐行读取文件，每行以换行结尾；一次拼接，避免逐行 += 的平方级复制
+     */
+    static String readLines(String fileName) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(fileName), StandardCharsets.UTF_8);
+        StringBuilder content = new StringBuilder();
+        for (String line : lines) {
+            content.append(line).append('\n');
+        }
+        return content.toString();
+    }
+
     // Test function for CodeDemo
     public void Test() {
         System.out.println("name = " + name);
@@ -0,0 +1,84 @@
+package org.example.lowcodekg.extraction.document;
+
+import org.example.lowcodekg.extraction.KnowledgeExtractor;
+import org.example.lowcodekg.model.dao.neo4j.entity.page.ComponentEntity;
+import org.example.lowcodekg.model.dao.neo4j.entity.page.ConfigItemEntity;
+import org.example.lowcodekg.model.dao.neo4j.writer.NodeBatchWriter;
+import org.example.lowcodekg.model.dao.neo4j.writer.RelationBatchWriter;
+import org.example.lowcodekg.model.schema.entity.page.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+
+/**
+ * 组件库文档抽取的公共部分
+ * 每篇组件文档由独立的解析状态在线程池中并发解析，结果按文档顺序收集；
+ * 组件定义（Component:ComponentDef）与配置项各用批量语句创建，CONTAIN 关系批量写入
+ */
+public abstract class ComponentDocExtractor extends KnowledgeExtractor {
+
+    /**
+     * 并发执行各文档的解析任务，按提交顺序返回结果
+     * 单篇文档解析失败时跳过该文档
+     */
+    protected static List<RawData> parseAll(List<Callable<RawData>> tasks, int workers) {
+        List<RawData> result = new ArrayList<>(tasks.size());
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(workers, tasks.size())));
+        try {
+            for(Future<RawData> future: pool.invokeAll(tasks)) {
+                try {
+                    RawData data = future.get();
+                    if(!Objects.isNull(data)) {
+                        result.add(data);
+                    }
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                    System.err.println("Error in parsing component doc: " + e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdown();
+        }
+        return result;
+    }
+
+    /**
+     * 存储组件定义及其配置项
+     * extraction.neo4j.bulk-nodes=false 时逐个保存组件后设置 ComponentDef 标签
+     */
+    protected void storeComponentDefs(List<RawData> dataList) {
+        List<ComponentEntity> componentEntities = new ArrayList<>(dataList.size());
+        for(RawData data: dataList) {
+            Component component = data.convertToComponent();
+            if(!extractionConfig.isNeo4jBulkNodes()) {
+                ComponentEntity componentEntity = component.storeInNeo4j(componentRepo, configItemRepo);
+                if(!Objects.isNull(componentEntity)) {
+                    componentRepo.setComponentDef(componentEntity.getId());
+                }
+                continue;
+            }
+            componentEntities.add(component.toDefinitionEntity());
+        }
+        if(componentEntities.isEmpty()) {
+            return;
+        }
+        NodeBatchWriter nodeWriter = new NodeBatchWriter(neo4jClient, extractionConfig.getNeo4jBatchSize());
+        nodeWriter.create(componentEntities, entity -> "Component:ComponentDef",
+                ComponentEntity::toProperties, ComponentEntity::setId);
+        List<ConfigItemEntity> configItemEntities = new ArrayList<>();
+        componentEntities.forEach(entity -> configItemEntities.addAll(entity.getContainedConfigItemEntities()));
+        nodeWriter.create(configItemEntities, entity -> "ConfigItem",
+                ConfigItemEntity::toProperties, ConfigItemEntity::setId);
+        RelationBatchWriter relationWriter = new RelationBatchWriter(neo4jClient, extractionConfig.getNeo4jBatchSize());
+        for(ComponentEntity componentEntity: componentEntities) {
+            for(ConfigItemEntity configItemEntity: componentEntity.getContainedConfigItemEntities()) {
+                relationWriter.add("Component", "CONTAIN", "ConfigItem", componentEntity.getId(), configItemEntity.getId());
+            }
+        }
+        relationWriter.flush();
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.lowcodekg.extraction.fusion;
+
+import java.util.*;
+
+/**
+ * 后端接口路径的反向路径段字典树，用于前端请求与后端接口的匹配
+ * 路径按 "/" 切分为路径段后逆序插入，一次查询沿前端路径的逆序路径段向下查找：
+ * 途经节点上的接口路径是前端路径的后缀，查询结束节点子树中的接口路径以前端路径为后缀，两者都视为匹配
+ * 后端的 {id}、前端的 ${id} 与 :id 形式的路径变量可匹配任意一个路径段，但至少要有一个路径段按字面相同，
+ * 否则只由路径变量组成的后端接口（如类上没有前缀的 @GetMapping("/{id}")）会匹配所有前端请求
+ * 协议与主机名、查询参数不参与匹配；不含任何路径段的路径（如 "" 或 "/"）不参与匹配
+ */
+public class ApiPathTrie<T> {
+
+    private static final String VARIABLE = "{}";
+
+    private final Node<T> root = new Node<>();
+    private int size = 0;
+
+    private static class Node<T> {
+        private final Map<String, Node<T>> children = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+    }
+
+    /**
+     * @param path 后端接口路径
+     * @param value 路径对应的值，如工作流 id
+     */
+    public void add(String path, T value) {
+        List<String> segments = segments(path);
+        if (segments.isEmpty()) {
+            return;
+        }
+        Node<T> node = root;
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            node = node.children.computeIfAbsent(segments.get(i), k -> new Node<>());
+        }
+        node.values.add(value);
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 与前端请求路径互为路径段后缀的所有后端接口对应的值
+     * 以 "/" 结尾的前端路径（如 '/user/' + id 中截取到的 /user/）视为末尾还有一个路径变量
+     */
+    public Set<T> match(String path) {
+        List<String> segments = segments(path);
+        if (!segments.isEmpty() && path.strip().endsWith("/")) {
+            segments.add(VARIABLE);
+        }
+        Set<T> result = new LinkedHashSet<>();
+        if (!segments.isEmpty()) {
+            match(root, segments, segments.size() - 1, false, result);
+        }
+        return result;
+    }
+
+    /**
+     * @param literal 已比较过的路径段中是否有按字面相同的
+     */
+    private void match(Node<T> node, List<String> segments, int index, boolean literal, Set<T> result) {
+        if (index < 0) {
+            if (literal) {
+                collect(node, result);
+            }
+            return;
+        }
+        if (literal) {
+            result.addAll(node.values);
+        }
+        String segment = segments.get(index);
+        if (VARIABLE.equals(segment)) {
+            for (Node<T> child : node.children.values()) {
+                match(child, segments, index - 1, literal, result);
+            }
+            return;
+        }
+        Node<T> child = node.children.get(segment);
+        if (child != null) {
+            match(child, segments, index - 1, true, result);
+        }
+        Node<T> variable = node.children.get(VARIABLE);
+        if (variable != null) {
+            match(variable, segments, index - 1, literal, result);
+        }
+    }
+
+    private void collect(Node<T> node, Set<T> result) {
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            Node<T> current = stack.pop();
+            result.addAll(current.values);
+            current.children.values().forEach(stack::push);
+        }
+    }
+
+    /**
+     * 规范化后的路径段，路径变量统一表示为 {}
+     */
+    static List<String> segments(String path) {
+        if (path == null) {
+            return List.of();
+        }
+        String normalized = path.strip();
+        int scheme = normalized.indexOf("://");
+        if (scheme >= 0) {
+            int slash = normalized.indexOf('/', scheme + 3);
+            normalized = slash < 0 ? "" : normalized.substring(slash);
+        }
+        int end = normalized.length();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (c == '?' || c == '#') {
+                end = i;
+                break;
+            }
+        }
+        List<String> segments = new ArrayList<>();
+        for (String segment : normalized.substring(0, end).split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            boolean variable = segment.startsWith(":") || segment.contains("${")
+                    || (segment.startsWith("{") && segment.endsWith("}"));
+            segments.add(variable ? VARIABLE : segment);
+        }
+        return segments;
+    }
+}
@@ -1,19 +1,12 @@
 package org.example.lowcodekg.extraction.fusion;
 
 import org.example.lowcodekg.extraction.KnowledgeExtractor;
-import org.example.lowcodekg.model.dao.neo4j.entity.java.WorkflowEntity;
-import org.neo4j.driver.QueryRunner;
-import org.neo4j.driver.Result;
-import org.neo4j.driver.types.Node;
+import org.example.lowcodekg.extraction.SourceScanner;
+import org.example.lowcodekg.model.dao.neo4j.cypher.CypherQuery;
+import org.example.lowcodekg.model.dao.neo4j.writer.RelationBatchWriter;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.nio.file.Path;
-import java.text.MessageFormat;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -26,17 +19,33 @@ import java.util.regex.Pattern;
 @Service
 public class PageWorkflowLink extends KnowledgeExtractor {
 
+    private static final Pattern FRONTEND_PATTERN = Pattern.compile("(axios|this\\.axios|fetch)\\.(get|post|put|delete)\\s*\\(\\s*['\"`]([^'\"`]*)");
+    private static final Pattern MAPPING_PATTERN = Pattern.compile("@(Get|Post|Put|Delete|Request)Mapping\\([\"'](.*?)[\"']\\)");
+    // 只投影 id 与 mappingUrl，不加载工作流实体及其关联
+    private static final CypherQuery<Map<String, Object>> WORKFLOW_MAPPINGS = CypherQuery.define("workflow mapping urls", """
+            MATCH (w:Workflow)
+            WHERE w.mappingUrl IS NOT NULL
+            RETURN id(w) AS id, w.mappingUrl AS mappingUrl
+            """);
+    private static final CypherQuery<Map<String, Object>> PAGE_IDS = CypherQuery.define("page ids by file path", """
+            MATCH (p:PageTemplate) WHERE p.projectName IS NOT NULL AND p.filePath IS NOT NULL
+            RETURN p.projectName AS projectName, p.filePath AS filePath, id(p) AS id
+            """);
+
     private final Map<String, Map<String, Object>> patterns = new HashMap<>();
     List<Map<String, String>> frontEndRecord = new ArrayList<>();
     List<Map<String, String>> backEndRecord = new ArrayList<>();
+    /**
+     * 项目名 -> 页面 filePath -> 节点 id，每次抽取前一次性读取
+     * filePath 相对项目目录，不同前端项目中可以有相同的路径（如 src/views/Login.vue），须按项目区分
+     */
+    private final Map<String, Map<String, Long>> pageIdMap = new HashMap<>();
 
     @Override
     public void extraction() {
         try {
-            // 前端匹配模式
-            Map<String, Object> frontendPattern = new HashMap<>();
-            frontendPattern.put("regex", "(axios|this\\.axios|fetch)\\.(get|post|put|delete)\\s*\\(\\s*['\"`]([^'\"`]*)");
-            frontendPattern.put("extensions", Arrays.asList("*.vue", "*.js"));
+            // 页面 id 与工作流接口路径各用一次投影查询读取，之后的关联不再逐条查询数据库
+            loadPageIds();
 
             // 遍历前端目录，并使用正则表达式匹配接口请求，并关联到Neo4j实体
             for(String frontEndPath: this.getDataDir()) {
@@ -44,18 +53,12 @@ public class PageWorkflowLink extends KnowledgeExtractor {
                 frontEndRecord.clear();
                 backEndRecord.clear();
 
-                Path frontPath = Paths.get(frontEndPath);
-                List<String> frontendExtensions = (List<String>) frontendPattern.get("extensions");
-                for(String ext: frontendExtensions) {
-                    // 使用通配符查找文件
-                    List<String> files = findFiles(frontPath.toString(), ext);
-                    for (String filepath : files) {
-                        processFrontendFile(
-                                filepath,
-                                frontEndPath,
-                                (String) frontendPattern.get("regex")
-                        );
-                    }
+                // 前端的 vue 与 js 文件取自共享的目录扫描结果，项目名与 PageExtractor 写入的 projectName 一致
+                SourceScanner scanner = scanSources(frontEndPath);
+                String projectName = Paths.get(frontEndPath.replace("\\\\", "\\")).getFileName().toString();
+                Map<String, Long> projectPages = pageIdMap.getOrDefault(projectName, Collections.emptyMap());
+                for (SourceScanner.SourceFile file : scanner.files("vue", "js")) {
+                    processFrontendFile(scanner, file, projectPages);
                 }
                 // 从Neo4j数据库查询Workflow实体
                 processBackendFile();
@@ -69,24 +72,16 @@ public class PageWorkflowLink extends KnowledgeExtractor {
         }
     }
 
-    private void processFrontendFile(String filepath, String frontPath, String pattern) {
+    /**
+     * @param projectPages 当前前端项目的页面 filePath -> 节点 id
+     */
+    private void processFrontendFile(SourceScanner scanner, SourceScanner.SourceFile file, Map<String, Long> projectPages) {
         try {
-            // 读取文件内容
-            StringBuilder content = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(new FileReader(filepath, java.nio.charset.Charset.forName("UTF-8")))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    content.append(line).append("\n");
-                }
-            }
-
-            // 获取相对路径
-            Path relativePath = Paths.get(frontPath).relativize(Paths.get(filepath));
-            String nodeId = String.valueOf(findPageEntityByFilePath(relativePath.toString()));
+            String content = scanner.read(file);
+            String relativePath = file.relativePath();
+            String nodeId = String.valueOf(projectPages.get(relativePath));
 
-            // 创建正则表达式匹配器
-            Pattern regex = Pattern.compile(pattern);
-            Matcher matcher = regex.matcher(content.toString());
+            Matcher matcher = FRONTEND_PATTERN.matcher(content);
 
             // 查找所有匹配项，并匹配Neo4j数据库中节点
             while (matcher.find()) {
@@ -96,7 +91,7 @@ public class PageWorkflowLink extends KnowledgeExtractor {
 
                 Map<String, String> entry = Map.of(
                         "type", "Frontend API Call",
-                        "file", relativePath.toString(),
+                        "file", relativePath,
                         "method", method.toUpperCase(),
                         "url", url,
                         "snippet", truncateSnippet(matcher.group(0), 100),
@@ -106,42 +101,31 @@ public class PageWorkflowLink extends KnowledgeExtractor {
                 frontEndRecord.add(entry);
             }
         } catch (Exception e) {
-            System.err.printf("Error processing frontend file %s: %s", filepath, e.getMessage());
+            System.err.printf("Error processing frontend file %s: %s", file.path(), e.getMessage());
         }
     }
 
     private void processBackendFile() {
-        Pattern MAPPING_PATTERN = Pattern.compile("@(Get|Post|Put|Delete|Request)Mapping\\([\"'](.*?)[\"']\\)");
         try {
-            String cypher = """
-                    MATCH (w:Workflow)
-                    RETURN w
-                    """;
-            QueryRunner runner = neo4jClient.getQueryRunner();
-            Result result = runner.run(cypher);
-            while (result.hasNext()) {
-                Node node = result.next().get("w").asNode();
-                Optional<WorkflowEntity> optional = workflowRepo.findById(node.id());
-                optional.ifPresent(workflowEntity -> {
-                    String mappingUrl = workflowEntity.getMappingUrl();
-                    Matcher matcher = MAPPING_PATTERN.matcher(mappingUrl);
-                    if (matcher.find()) {
-                        String annotation = matcher.group(1);  // 获取注解类型（Get/Post/Put/Delete/Request）
-                        String url = matcher.group(2);        // 获取URL路径
-
-                        // 确定HTTP方法
-                        String method = annotation.toLowerCase().equals("request") ? "GET" : annotation.toUpperCase();
-
-                        Map<String, String> entry = Map.of(
-                                "type", "BackEnd API Call",
-                                "method", method,
-                                "url", url,
-                                "snippet", truncateSnippet(matcher.group(0), 100),
-                                "id", String.valueOf(node.id())
-                        );
-                        backEndRecord.add(entry);
-                    }
-                });
+            for (Map<String, Object> row : WORKFLOW_MAPPINGS.list(neo4jClient, Map.of())) {
+                String mappingUrl = (String) row.get("mappingUrl");
+                Matcher matcher = MAPPING_PATTERN.matcher(mappingUrl);
+                if (matcher.find()) {
+                    String annotation = matcher.group(1);  // 获取注解类型（Get/Post/Put/Delete/Request）
+                    String url = matcher.group(2);        // 获取URL路径
+
+                    // 确定HTTP方法
+                    String method = annotation.toLowerCase().equals("request") ? "GET" : annotation.toUpperCase();
+
+                    Map<String, String> entry = Map.of(
+                            "type", "BackEnd API Call",
+                            "method", method,
+                            "url", url,
+                            "snippet", truncateSnippet(matcher.group(0), 100),
+                            "id", String.valueOf(row.get("id"))
+                    );
+                    backEndRecord.add(entry);
+                }
             }
         } catch (Exception e) {
             System.err.printf("Error processing backend files: %s", e.getMessage());
@@ -150,24 +134,38 @@ public class PageWorkflowLink extends KnowledgeExtractor {
 
     /**
      * 基于report记录，将前端页面与后端工作流实体关联起来
+     * 后端接口路径建立反向路径段字典树，每个前端请求只查询一次，匹配规则见 ApiPathTrie
      */
     private void linkPageAndWorkflow() {
+        // 使用 MERGE，增量抽取重复执行时不会产生重复的关系
+        RelationBatchWriter relationWriter = new RelationBatchWriter(neo4jClient, extractionConfig.getNeo4jBatchSize(), true);
         try {
-            // 遍历前端记录的请求，匹配后端响应接口
+            ApiPathTrie<Long> trie = new ApiPathTrie<>();
+            for(Map<String, String> backendEntry: backEndRecord) {
+                trie.add(backendEntry.get("url"), Long.parseLong(backendEntry.get("id")));
+            }
+            // 同一页面对同一工作流的多次请求只建立一条关系
+            Map<Long, Set<Long>> bindings = new HashMap<>();
+            int links = 0;
             for(Map<String, String> frontendEntry: frontEndRecord) {
-                String frontendUrl = frontendEntry.get("url");
+                if("null".equals(frontendEntry.get("id"))) {
+                    continue;
+                }
                 Long fid = Long.parseLong(frontendEntry.get("id"));
-                for(Map<String, String> backendEntry: backEndRecord) {
-                    String backendUrl = backendEntry.get("url");
-                    Long bid = Long.parseLong(backendEntry.get("id"));
-                    // url 尾部匹配
-                    if(frontendUrl.equals(backendUrl) || backendUrl.endsWith(frontendUrl) || frontendUrl.endsWith(backendUrl)) {
-                        workflowRepo.createRelationBetweenPageAndWorkflow(fid, bid);
+                Set<Long> bound = bindings.computeIfAbsent(fid, k -> new HashSet<>());
+                for(Long bid: trie.match(frontendEntry.get("url"))) {
+                    if(bound.add(bid)) {
+                        relationWriter.add("PageTemplate", "BINDING", "Workflow", fid, bid);
+                        links++;
                     }
                 }
             }
+            System.out.println("page-workflow linking: " + frontEndRecord.size() + " requests, "
+                    + trie.size() + " endpoints, " + links + " bindings");
         } catch (Exception e) {
             System.err.printf("Error linking page and workflow: %s", e.getMessage());
+        } finally {
+            relationWriter.flush();
         }
     }
 
@@ -184,43 +182,19 @@ public class PageWorkflowLink extends KnowledgeExtractor {
     }
 
     /**
-     * 在指定目录中查找符合特定模式的文件
-     * 此方法使用递归方式遍历目录，并通过正则表达式匹配文件名
-     *
-     * @param directory 要查找的目录路径
-     * @param pattern 文件名的通配符模式，"."匹配任何单个字符，"*"匹配零个或多个字符
-     * @return 匹配指定模式的文件列表
-     */
-    private List<String> findFiles(String directory, String pattern) {
-        List<String> files = new ArrayList<>();
-        try {
-            // 将通配符模式转换为正则表达式
-            String regex = pattern.replace(".", "\\.")
-                    .replace("*", ".*");
-
-            // 递归遍历目录
-            Files.walk(Paths.get(directory))
-                    .filter(Files::isRegularFile)
-                    .map(Path::toString)
-                    .filter(path -> path.matches(".*" + regex))
-                    .forEach(files::add);
-        } catch (IOException e) {
-            System.err.println("Error finding files: " + e.getMessage());
-        }
-        return files;
-    }
-
-    /**
-     * 根据文件路径名查找PageTemplatae实体
+     * 读取全部PageTemplate实体的 projectName、filePath 与 id
+     * 页面的 filePath 属性为相对项目目录、以 "/" 分隔的路径，(projectName, filePath) 唯一
      */
-    private Long findPageEntityByFilePath(String filePath) {
-        String cypher = MessageFormat.format( "MATCH (p:PageTemplate) WHERE p.filePath = {0} RETURN p", filePath);
-        QueryRunner runner = neo4jClient.getQueryRunner();
-        Result result = runner.run(cypher);
-        if (result.hasNext()) {
-            Node node = result.next().get("p").asNode();
-            return node.id();
-        }
-        return null;
+    private void loadPageIds() {
+        pageIdMap.clear();
+        int[] pages = {0};
+        PAGE_IDS.list(neo4jClient, Map.of())
+                .forEach(row -> {
+                    Map<String, Long> projectPages = pageIdMap.computeIfAbsent((String) row.get("projectName"), k -> new HashMap<>());
+                    if(projectPages.putIfAbsent((String) row.get("filePath"), ((Number) row.get("id")).longValue()) == null) {
+                        pages[0]++;
+                    }
+                });
+        System.out.println("page-workflow linking: " + pages[0] + " pages in " + pageIdMap.size() + " projects");
     }
 }
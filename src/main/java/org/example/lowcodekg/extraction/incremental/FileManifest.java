@@ -0,0 +1,216 @@
+package org.example.lowcodekg.extraction.incremental;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import lombok.Getter;
+import org.example.lowcodekg.extraction.SourceScanner;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 单个项目源文件的内容哈希清单，用于增量抽取
+ * 记录 相对路径 -> SHA-256，保存在缓存目录下，每个 (抽取器类型, 项目目录) 对应一个清单文件
+ * 清单同时记录抽取器版本（即文件事实的 VERSION），版本变化后抽取结果的含义随之改变，全部文件按已修改处理
+ * 清单在抽取结果写入图数据库后保存：解析或写库失败的文件经 markFailed 标记后不记入清单，下次运行按新增文件重新处理；
+ * 无法归属到具体文件的写库失败（如整批关系写入失败）由调用方跳过保存，下次运行重新处理全部变化的文件
+ */
+public class FileManifest {
+
+    private final Path manifestFile;
+    private final Path projectDir;
+    private final int version;
+    @Getter
+    private final boolean present;
+    /**
+     * 清单由其他版本的抽取器写入
+     */
+    private boolean outdated;
+    private final Map<String, String> hashes;
+    private final Map<String, String> current = new TreeMap<>();
+    private final Set<String> failed = ConcurrentHashMap.newKeySet();
+
+    private FileManifest(Path manifestFile, Path projectDir, int version, boolean present, boolean outdated,
+                         Map<String, String> hashes) {
+        this.manifestFile = manifestFile;
+        this.projectDir = projectDir;
+        this.version = version;
+        this.present = present;
+        this.outdated = outdated;
+        this.hashes = hashes;
+    }
+
+    /**
+     * 读取项目对应的清单，不存在时返回空清单
+     * @param cacheDir 缓存目录
+     * @param kind 抽取器类型，如 java、vue
+     * @param version 抽取器版本，与清单中记录的不同时全部文件按已修改处理
+     * @param projectDir 项目目录
+     */
+    public static FileManifest load(String cacheDir, String kind, int version, String projectDir) {
+        Path project = Paths.get(projectDir).toAbsolutePath().normalize();
+        String fileName = kind + "-" + project.getFileName() + "-"
+                + sha256(project.toString().getBytes(StandardCharsets.UTF_8)).substring(0, 12) + ".json";
+        Path manifestFile = Paths.get(cacheDir, fileName);
+        Map<String, String> hashes = new TreeMap<>();
+        boolean present = Files.exists(manifestFile);
+        boolean outdated = false;
+        if(present) {
+            try {
+                JSONObject content = JSON.parseObject(Files.readString(manifestFile));
+                // 未记录版本的旧格式清单视为过期
+                outdated = content.getIntValue("version") != version;
+                JSONObject files = content.containsKey("files") ? content.getJSONObject("files") : content;
+                files.forEach((path, hash) -> hashes.put(path, String.valueOf(hash)));
+            } catch (Exception e) {
+                e.printStackTrace();
+                System.err.println("Error in reading manifest, treat all files as changed: " + manifestFile);
+                present = false;
+            }
+        }
+        if(outdated) {
+            System.out.println("manifest written by another extractor version, treat all files as changed: " + manifestFile);
+        }
+        return new FileManifest(manifestFile, project, version, present, outdated, hashes);
+    }
+
+    /**
+     * 计算当前源文件的哈希并与清单比较
+     * @param scanner 项目目录的扫描结果，哈希在其 I/O 线程池中并行计算
+     * @param files 项目下当前的全部源文件
+     */
+    public Diff diff(SourceScanner scanner, Collection<SourceScanner.SourceFile> files) {
+        Diff diff = new Diff();
+        current.clear();
+        Map<SourceScanner.SourceFile, String> fileHashes = scanner.hashAll(files);
+        for(SourceScanner.SourceFile file: files) {
+            String hash = fileHashes.get(file);
+            if(Objects.isNull(hash)) {
+                continue;
+            }
+            String relativePath = relativePath(file.path().toString());
+            current.put(relativePath, hash);
+            String previous = hashes.get(relativePath);
+            if(Objects.isNull(previous)) {
+                diff.added.add(relativePath);
+            } else if(outdated || !previous.equals(hash)) {
+                diff.changed.add(relativePath);
+            }
+        }
+        hashes.keySet().forEach(relativePath -> {
+            if(!current.containsKey(relativePath)) {
+                diff.removed.add(relativePath);
+            }
+        });
+        return diff;
+    }
+
+    /**
+     * 标记解析或写库失败的文件，保存时不记入清单
+     * 增量模式下这些文件的旧节点已被删除，记入清单会使其在之后的运行中被视为未变化而不再重建
+     */
+    public void markFailed(String relativePath) {
+        failed.add(relativePath);
+    }
+
+    /**
+     * 以最近一次 diff 计算出的哈希（不含失败的文件）覆盖清单并写入磁盘
+     */
+    public void save() {
+        Map<String, String> saved = new TreeMap<>(current);
+        saved.keySet().removeAll(failed);
+        if(!failed.isEmpty()) {
+            System.err.println(failed.size() + " files failed and will be extracted again: " + manifestFile);
+        }
+        try {
+            Files.createDirectories(manifestFile.getParent());
+            JSONObject content = new JSONObject(true);
+            content.put("version", version);
+            content.put("files", saved);
+            Files.writeString(manifestFile, content.toJSONString());
+            hashes.clear();
+            hashes.putAll(saved);
+            outdated = false;
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.err.println("Error in saving manifest: " + manifestFile);
+        }
+    }
+
+    /**
+     * 源文件相对项目目录的路径，统一使用 "/" 分隔，作为图中节点的 filePath 属性
+     */
+    public String relativePath(String absolutePath) {
+        return projectDir.relativize(Paths.get(absolutePath).toAbsolutePath().normalize())
+                .toString().replace('\\', '/');
+    }
+
+    /**
+     * 最近一次 diff 计算出的文件内容哈希
+     */
+    public String hashOf(String relativePath) {
+        return current.get(relativePath);
+    }
+
+    public String absolutePath(String relativePath) {
+        return projectDir.resolve(relativePath).toString();
+    }
+
+    public static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for(byte b: digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 清单比较结果，路径均为相对项目目录的路径
+     */
+    @Getter
+    public static class Diff {
+        private final Set<String> added = new TreeSet<>();
+        private final Set<String> changed = new TreeSet<>();
+        private final Set<String> removed = new TreeSet<>();
+
+        public boolean isEmpty() {
+            return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+        }
+
+        /**
+         * 需要重新解析的文件：新增与修改
+         */
+        public Set<String> toParse() {
+            Set<String> r = new TreeSet<>(added);
+            r.addAll(changed);
+            return r;
+        }
+
+        /**
+         * 需要删除派生节点的文件：所有有变化的文件
+         * 新增文件通常没有旧节点，但清单丢失时可借此清理上次遗留的节点
+         */
+        public Set<String> toDelete() {
+            Set<String> r = toParse();
+            r.addAll(removed);
+            return r;
+        }
+
+        @Override
+        public String toString() {
+            return "added " + added.size() + ", changed " + changed.size() + ", removed " + removed.size();
+        }
+    }
+}
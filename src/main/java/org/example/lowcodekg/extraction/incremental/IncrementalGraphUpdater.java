@@ -0,0 +1,248 @@
+package org.example.lowcodekg.extraction.incremental;
+
+import org.example.lowcodekg.extraction.workflow.CallGraph;
+import org.example.lowcodekg.model.dao.neo4j.cypher.CypherQuery;
+import org.example.lowcodekg.model.dao.neo4j.writer.RelationBatchWriter;
+import org.example.lowcodekg.model.schema.entity.workflow.JavaProject;
+import org.example.lowcodekg.query.service.util.ElasticSearchService;
+import org.springframework.data.neo4j.core.Neo4jClient;
+
+import java.util.*;
+import java.util.function.BiFunction;
+
+import static org.example.lowcodekg.query.utils.Constants.*;
+
+/**
+ * 增量抽取时清理由变更文件派生的节点、关系与 ES 文档
+ * 删除前记录未变更节点指向被删除节点的关系，重新抽取后按 fullName 恢复
+ */
+public class IncrementalGraphUpdater {
+
+    private static final CypherQuery<Long> CHANGED_METHODS = CypherQuery.define("incremental changed methods", """
+            MATCH (m:JavaMethod)
+            WHERE m.projectName = $projectName AND m.filePath IN $files
+            RETURN id(m) AS id
+            """, IncrementalGraphUpdater::toId);
+    private static final CypherQuery<Long> STALE_WORKFLOWS = CypherQuery.define("incremental stale workflows", """
+            MATCH (w:Workflow)-[:CONTAIN]->(m:JavaMethod)
+            WHERE NOT w:WorkflowModule AND id(m) IN $methods
+            RETURN DISTINCT id(w) AS id
+            UNION
+            MATCH (w:Workflow)-[:CONTAIN]->(c:JavaClass)
+            WHERE NOT w:WorkflowModule AND c.projectName = $projectName AND c.filePath IN $files
+            RETURN DISTINCT id(w) AS id
+            """, IncrementalGraphUpdater::toId);
+    private static final CypherQuery<Map<String, Object>> CLEAR_WORKFLOW_DESCRIPTIONS = CypherQuery.define(
+            "incremental clear workflow descriptions",
+            "MATCH (w:Workflow) WHERE id(w) IN $ids SET w.description = null, w.ir = null");
+    private static final CypherQuery<Long> DELETE_WORKFLOWS = CypherQuery.define("incremental delete workflows", """
+            MATCH (w:Workflow)-[:CONTAIN]->(m:JavaMethod)
+            WHERE NOT w:WorkflowModule AND m.projectName = $projectName AND m.filePath IN $files
+            WITH DISTINCT w, id(w) AS id
+            DETACH DELETE w
+            RETURN id
+            """, IncrementalGraphUpdater::toId);
+    private static final CypherQuery<Long> CHANGED_DATA_OBJECTS = CypherQuery.define("incremental changed data objects", """
+            MATCH (c:DataObject)
+            WHERE c.projectName = $projectName AND c.filePath IN $files
+            RETURN id(c) AS id
+            """, IncrementalGraphUpdater::toId);
+    private static final CypherQuery<Map<String, Object>> DELETE_JAVA_NODES = CypherQuery.define("incremental delete java nodes", """
+            MATCH (n) WHERE (n:JavaClass OR n:JavaMethod OR n:JavaField)
+            AND n.projectName = $projectName AND n.filePath IN $files
+            DETACH DELETE n
+            """);
+    private static final CypherQuery<Map<String, Object>> PROJECT_METHOD_CALLS = CypherQuery.define("incremental project method calls", """
+            MATCH (a:JavaMethod)-[:METHOD_CALL]->(b:JavaMethod)
+            WHERE a.projectName = $projectName
+            RETURN id(a) AS caller, id(b) AS callee
+            """);
+    private static final CypherQuery<Map<String, Object>> PROJECT_CLASSES = CypherQuery.define("incremental project classes",
+            "MATCH (n:JavaClass) WHERE n.projectName = $projectName RETURN id(n) AS id, n.fullName AS fullName");
+    private static final CypherQuery<Map<String, Object>> PROJECT_METHODS = CypherQuery.define("incremental project methods",
+            "MATCH (n:JavaMethod) WHERE n.projectName = $projectName " +
+                    "RETURN id(n) AS id, n.fullName AS fullName, n.bindingKey AS bindingKey");
+    private static final CypherQuery<Map<String, Object>> PROJECT_FIELDS = CypherQuery.define("incremental project fields",
+            "MATCH (n:JavaField) WHERE n.projectName = $projectName RETURN id(n) AS id, n.fullName AS fullName");
+    private static final CypherQuery<Map<String, Object>> PROJECT_PAGES = CypherQuery.define("incremental project pages",
+            "MATCH (p:PageTemplate) WHERE p.projectName = $projectName RETURN id(p) AS id, p.name AS name");
+    private static final CypherQuery<Long> CHANGED_PAGES = CypherQuery.define("incremental changed pages", """
+            MATCH (p:PageTemplate)
+            WHERE p.projectName = $projectName AND p.filePath IN $files
+            RETURN id(p) AS id
+            """, IncrementalGraphUpdater::toId);
+    private static final CypherQuery<Map<String, Object>> DELETE_PAGES = CypherQuery.define("incremental delete pages", """
+            MATCH (p:PageTemplate) WHERE id(p) IN $ids
+            OPTIONAL MATCH (p)-[:CONTAIN|PARENT_OF*]->(c)
+            WHERE c:Component OR c:ConfigItem OR c:Script OR c:ScriptMethod OR c:ScriptData
+            DETACH DELETE c, p
+            """);
+    /**
+     * 标签 -> 记录外部指向该标签变更节点的关系的语句
+     * 标签不能作为参数传入，每个标签各定义一条语句
+     */
+    private static final Map<String, CypherQuery<Map<String, Object>>> INCOMING_EDGES = new HashMap<>();
+
+    static {
+        for(String label: List.of("JavaClass", "JavaMethod", "JavaField", "PageTemplate")) {
+            INCOMING_EDGES.put(label, CypherQuery.define("incremental incoming edges of " + label,
+                    "MATCH (s)-[r]->(t:" + label + ") " +
+                            "WHERE t.projectName = $projectName AND t.filePath IN $files " +
+                            "AND NOT (coalesce(s.projectName, '') = $projectName AND coalesce(s.filePath, '') IN $files) " +
+                            "RETURN id(s) AS sid, labels(s)[0] AS srcLabel, type(r) AS type, t.fullName AS fullName"));
+        }
+    }
+
+    private final Neo4jClient neo4jClient;
+    private final ElasticSearchService elasticSearchService;
+
+    public IncrementalGraphUpdater(Neo4jClient neo4jClient, ElasticSearchService elasticSearchService) {
+        this.neo4jClient = neo4jClient;
+        this.elasticSearchService = elasticSearchService;
+    }
+
+    /**
+     * 未变更节点指向被删除节点的关系
+     * @param sid 起点 id
+     * @param srcLabel 起点标签
+     * @param type 关系类型
+     * @param tgtLabel 终点标签
+     * @param fullName 终点的 fullName，用于在重新抽取后定位新节点
+     */
+    public record IncomingEdge(Long sid, String srcLabel, String type, String tgtLabel, String fullName) {}
+
+    /**
+     * 删除变更文件派生的 Java 类、方法、字段节点
+     * 1. 调用链经过变更文件的工作流清空描述并删除 ES 文档，等待 WorkflowExtractor 重新生成
+     * 2. 入口方法位于变更文件的工作流直接删除，由重新抽取的方法重建
+     * 3. 记录外部指向变更节点的关系后删除节点，数据实体类同时删除 ES 文档
+     * @return 需要在重新抽取后恢复的关系
+     */
+    public List<IncomingEdge> removeJavaNodes(String projectName, Collection<String> files) {
+        List<String> fileList = new ArrayList<>(files);
+
+        List<Long> changedMethods = queryIds(CHANGED_METHODS, projectName, fileList);
+        List<Long> callers = new ArrayList<>(transitiveCallers(projectName, changedMethods));
+        List<Long> staleWorkflows = STALE_WORKFLOWS.list(neo4jClient,
+                Map.of("methods", callers, "projectName", projectName, "files", fileList));
+        CLEAR_WORKFLOW_DESCRIPTIONS.run(neo4jClient, Map.of("ids", staleWorkflows));
+        deleteDocuments(staleWorkflows, WORKFLOW_INDEX_NAME);
+
+        List<Long> removedWorkflows = queryIds(DELETE_WORKFLOWS, projectName, fileList);
+        deleteDocuments(removedWorkflows, WORKFLOW_INDEX_NAME);
+
+        List<IncomingEdge> incoming = new ArrayList<>();
+        for(String label: List.of("JavaClass", "JavaMethod", "JavaField")) {
+            incoming.addAll(captureIncomingEdges(label, projectName, fileList));
+        }
+
+        List<Long> dataObjects = queryIds(CHANGED_DATA_OBJECTS, projectName, fileList);
+        deleteDocuments(dataObjects, DATA_OBJECT_INDEX_NAME);
+
+        DELETE_JAVA_NODES.run(neo4jClient, Map.of("projectName", projectName, "files", fileList));
+        System.out.println("incremental: removed nodes of " + files.size() + " java files in " + projectName
+                + ", " + removedWorkflows.size() + " workflows removed, " + staleWorkflows.size() + " workflows to re-summarize");
+        return incoming;
+    }
+
+    /**
+     * 直接或间接调用给定方法的全部方法（包括给定方法自身）
+     * 在内存中对项目的反向调用图求闭包，与 WorkflowExtractor 的调用链一致，不受调用深度限制，
+     * 也避免了图数据库中不限长度的变长路径匹配
+     */
+    private Set<Long> transitiveCallers(String projectName, List<Long> methods) {
+        Set<Long> callers = new HashSet<>(methods);
+        if(methods.isEmpty()) {
+            return callers;
+        }
+        CallGraph.Builder builder = CallGraph.builder();
+        PROJECT_METHOD_CALLS.list(neo4jClient, Map.of("projectName", projectName))
+                .forEach(row -> builder.addEdge(
+                        ((Number) row.get("callee")).longValue(), ((Number) row.get("caller")).longValue()));
+        CallGraph reversed = builder.build();
+        for(Long method: methods) {
+            callers.addAll(reversed.reachableFrom(method));
+        }
+        return callers;
+    }
+
+    /**
+     * 将项目中保留下来的类、方法、字段登记到 javaProject，使重新解析的文件可以关联到它们
+     */
+    public void loadJavaEntities(String projectName, JavaProject javaProject) {
+        Map<String, Object> params = Map.of("projectName", projectName);
+        PROJECT_CLASSES.list(neo4jClient, params)
+                .forEach(row -> javaProject.addExistingClass((String) row.get("fullName"), ((Number) row.get("id")).longValue()));
+        PROJECT_METHODS.list(neo4jClient, params)
+                .forEach(row -> javaProject.addExistingMethod((String) row.get("fullName"),
+                        (String) row.get("bindingKey"), ((Number) row.get("id")).longValue()));
+        PROJECT_FIELDS.list(neo4jClient, params)
+                .forEach(row -> javaProject.addExistingField((String) row.get("fullName"), ((Number) row.get("id")).longValue()));
+    }
+
+    /**
+     * 项目中保留下来的页面，name -> id，用于关联页面依赖关系
+     */
+    public Map<String, Long> loadPageIds(String projectName) {
+        Map<String, Long> pageIds = new HashMap<>();
+        PROJECT_PAGES.list(neo4jClient, Map.of("projectName", projectName))
+                .forEach(row -> pageIds.put((String) row.get("name"), ((Number) row.get("id")).longValue()));
+        return pageIds;
+    }
+
+    /**
+     * 删除变更文件对应的页面及其包含的组件、配置项、脚本节点
+     * @return 需要在重新抽取后恢复的关系
+     */
+    public List<IncomingEdge> removePageNodes(String projectName, Collection<String> files) {
+        List<String> fileList = new ArrayList<>(files);
+        List<IncomingEdge> incoming = captureIncomingEdges("PageTemplate", projectName, fileList);
+
+        List<Long> pages = queryIds(CHANGED_PAGES, projectName, fileList);
+        deleteDocuments(pages, PAGE_INDEX_NAME);
+
+        DELETE_PAGES.run(neo4jClient, Map.of("ids", pages));
+        System.out.println("incremental: removed " + pages.size() + " pages of " + files.size() + " files in " + projectName);
+        return incoming;
+    }
+
+    /**
+     * 恢复删除前记录的关系，终点按 (标签, fullName) 查找重新创建的节点，找不到时丢弃
+     * @param lookup (标签, fullName) -> 新节点 id
+     */
+    public void reconnect(List<IncomingEdge> edges, BiFunction<String, String, Long> lookup, RelationBatchWriter relationWriter) {
+        int lost = 0;
+        for(IncomingEdge edge: edges) {
+            Long eid = Objects.isNull(edge.fullName()) ? null : lookup.apply(edge.tgtLabel(), edge.fullName());
+            if(Objects.isNull(eid)) {
+                lost++;
+                continue;
+            }
+            relationWriter.add(edge.srcLabel(), edge.type(), edge.tgtLabel(), edge.sid(), eid);
+        }
+        relationWriter.flush();
+        if(lost > 0) {
+            System.out.println("incremental: " + lost + " relations dropped, target no longer exists");
+        }
+    }
+
+    private List<IncomingEdge> captureIncomingEdges(String label, String projectName, List<String> files) {
+        List<IncomingEdge> edges = new ArrayList<>();
+        INCOMING_EDGES.get(label).list(neo4jClient, Map.of("projectName", projectName, "files", files))
+                .forEach(row -> edges.add(new IncomingEdge(((Number) row.get("sid")).longValue(),
+                        (String) row.get("srcLabel"), (String) row.get("type"), label, (String) row.get("fullName"))));
+        return edges;
+    }
+
+    private List<Long> queryIds(CypherQuery<Long> query, String projectName, List<String> files) {
+        return query.list(neo4jClient, Map.of("projectName", projectName, "files", files));
+    }
+
+    private static Long toId(Map<String, Object> row) {
+        return ((Number) row.get("id")).longValue();
+    }
+
+    private void deleteDocuments(List<Long> ids, String indexName) {
+        ids.forEach(id -> elasticSearchService.deleteDocument(String.valueOf(id), indexName));
+    }
+}
@@ -2,22 +2,33 @@ package org.example.lowcodekg.extraction.page;
 
 import com.alibaba.fastjson.JSONObject;
 import io.micrometer.common.util.StringUtils;
-import org.apache.commons.io.FileUtils;
+import org.example.lowcodekg.extraction.ExtractionPipeline;
 import org.example.lowcodekg.extraction.KnowledgeExtractor;
+import org.example.lowcodekg.extraction.SourceScanner;
+import org.example.lowcodekg.extraction.cache.FactCache;
+import org.example.lowcodekg.extraction.incremental.FileManifest;
+import org.example.lowcodekg.extraction.incremental.IncrementalGraphUpdater;
 import org.example.lowcodekg.model.dao.neo4j.entity.page.*;
+import org.example.lowcodekg.model.dao.neo4j.writer.NodeBatchWriter;
+import org.example.lowcodekg.model.dao.neo4j.writer.RelationBatchWriter;
 import org.example.lowcodekg.model.schema.entity.page.Component;
 import org.example.lowcodekg.model.schema.entity.page.ConfigItem;
 import org.example.lowcodekg.model.schema.entity.page.PageTemplate;
 import org.example.lowcodekg.model.schema.entity.page.Script;
-import org.example.lowcodekg.common.util.FileUtil;
+import org.example.lowcodekg.common.util.JsObjectLiteralParser;
+import org.example.lowcodekg.common.util.VueSfcScanner;
 
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -27,108 +38,243 @@ import static org.example.lowcodekg.common.util.PageParserUtil.*;
 /**
  * 前端页面抽取
  * 目前只实现对Vue框架的解析
+ * 增量模式下只重新解析内容哈希发生变化的页面文件
+ * 开启解析结果缓存后，内容未变化的页面直接从缓存读取组件树与脚本
+ * 页面文件在线程池中并发解析，解析结果由单个写线程依次写入 Neo4j
+ * 每个文件由 VueSfcScanner 扫描一次定位 template、script、data() 与 methods 等块
+ * 页面保存 template 源码，组件只记录其中的起止偏移，组件源码在生成摘要等需要时才截取
+ * 组件树按页面展开后批量写入，写入后只保留页面 id 等建立关系所需的信息
+ * script 的 data 块由 JsObjectLiteralParser 在本地转换为 JSON，仅本地解析失败时调用 LLM
  */
 @Service
 public class PageExtractor extends KnowledgeExtractor {
 
-    private Map<String, PageEntity> pageEntityMap = new HashMap<>();
-    private Map<String, PageTemplate> pageTemplateMap = new HashMap<>();
+    /**
+     * 以下状态只由写库阶段的单个线程访问，每个项目开始前清空：页面名称只在项目内唯一，
+     * 保留之前项目的页面会使依赖关系跨项目解析，并在之后的项目中重复写入已有的关系
+     * 页面写入后只保留后续建立关系所需的 id、全名与依赖的页面名称，不再持有组件树与脚本
+     */
+    private Map<String, Long> pageIdMap = new HashMap<>();
+    private Map<String, PageLinks> pageLinkMap = new HashMap<>();
+
+    private RelationBatchWriter relationWriter;
+    private NodeBatchWriter nodeWriter;
 
     /**
-     * single file record data structure
+     * 本次写入的页面
+     * @param fullName 页面全名
+     * @param dependedPages 通过 @ 路径导入的页面名称
      */
-    private Map<String, ScriptMethodEntity> scriptMethodMap = new HashMap<>();
-    private Map<String, ConfigItemEntity> configItemMap = new HashMap<>();
+    private record PageLinks(String fullName, List<String> dependedPages) {}
+
+    private static final Pattern METHOD_CALL = Pattern.compile("(\\w+)\\(([\\w,:\\s=\\.]*)\\)");
+
+    /**
+     * data 块的解析统计，解析阶段各线程共享
+     */
+    private static final AtomicLong localDataBlocks = new AtomicLong();
+    private static final AtomicLong llmFallbackDataBlocks = new AtomicLong();
 
     @Override
     public void extraction() {
+        relationWriter = new RelationBatchWriter(neo4jClient, extractionConfig.getNeo4jBatchSize());
+        nodeWriter = extractionConfig.isNeo4jBulkNodes()
+                ? new NodeBatchWriter(neo4jClient, extractionConfig.getNeo4jBatchSize()) : null;
+        IncrementalGraphUpdater updater = new IncrementalGraphUpdater(neo4jClient, elasticSearchService);
+        FactCache<VueFileFacts> factCache = extractionConfig.isFactCacheEnabled()
+                ? new FactCache<>(extractionConfig.getFactCacheDir(), "vue", VueFileFacts.VERSION, VueFileFacts.CODEC)
+                : null;
         for(String filePath: this.getDataDir()) {
             // 获取项目名称
             String projectName = filePath.substring(filePath.lastIndexOf("\\") + 1);
             filePath = filePath.replace("\\\\", "\\");
-            
-            Collection<File> vueFiles = FileUtils.listFiles(new File(filePath), new String[]{"vue"}, true);
-            for(File vueFile: vueFiles) {
-                System.out.println("---parse file: " + vueFile.getAbsolutePath());
-                // initialize
-                scriptMethodMap.clear();
-                configItemMap.clear();
-
-                PageTemplate pageTemplate = new PageTemplate();
-                String name = vueFile.getName().substring(0, vueFile.getName().length()-4);
-                String relativePath = vueFile.getAbsolutePath()
-                        .replace("\\\\", "\\")
-                        .replace(filePath.substring(0, filePath.indexOf(projectName)), "");
-                String fullName = relativePath
-                        .replace("\\", ".")
-                        .replaceAll("\\.vue$", "");
-                pageTemplate.setName(name);
-                pageTemplate.setFullName(fullName);
-                String fileContent = FileUtil.readFile(vueFile.getAbsolutePath());
-
-                // for test
-//                if(!name.equals("FriendList")) {
-//                    continue;
-//                }
-
-                // parse template
-                String templateContent = getTemplateContent(fileContent);
-                if(StringUtils.isNotEmpty(templateContent)) {
-                    Document document = Jsoup.parse(templateContent);
-                    Element divElement = document.selectFirst("Template");
-                    divElement.children().forEach(element -> {
-                        Component component = parseTemplate(element, null);
-                        pageTemplate.getComponentList().add(component);
-                    });
+            String manifestProject = Paths.get(filePath).getFileName().toString();
+            pageIdMap.clear();
+            pageLinkMap.clear();
+
+            SourceScanner scanner = scanSources(filePath);
+            List<SourceScanner.SourceFile> vueFiles = scanner.files("vue");
+            FileManifest manifest = FileManifest.load(extractionConfig.getIncrementalCacheDir(), "vue", VueFileFacts.VERSION, filePath);
+            FileManifest.Diff diff = manifest.diff(scanner, vueFiles);
+            List<IncrementalGraphUpdater.IncomingEdge> incoming = Collections.emptyList();
+            if(incremental) {
+                if(diff.isEmpty()) {
+                    System.out.println("no vue file changed in " + manifestProject);
+                    continue;
                 }
-                // parse script
-                String scriptContent = getScriptContent(fileContent);
-                if(scriptContent.length() != 0) {
-                    Script script = parseScript(scriptContent);
-                    script.setName(name);
-                    pageTemplate.setScript(script);
+                System.out.println("incremental page extraction of " + manifestProject + ": " + diff);
+                Set<String> toParse = diff.toParse();
+                vueFiles = vueFiles.stream()
+                        .filter(vueFile -> toParse.contains(manifest.relativePath(vueFile.path().toString())))
+                        .toList();
+                incoming = updater.removePageNodes(manifestProject, diff.toDelete());
+                // 未变化的页面只作为依赖关系的终点
+                pageIdMap.putAll(updater.loadPageIds(manifestProject));
+            }
+            // 各文件在线程池中并发解析，解析结果交给单个写线程依次写库
+            String rootPath = filePath;
+            long relationFailures = relationWriter.getFailedCount();
+            Set<String> storedFiles = ConcurrentHashMap.newKeySet();
+            ExtractionPipeline<PageTemplate> pipeline = new ExtractionPipeline<>("page",
+                    extractionConfig.getPageWorkers(), extractionConfig.getPageMaxPendingWrites());
+            for(SourceScanner.SourceFile vueFile: vueFiles) {
+                pipeline.submit(() -> parsePageTemplate(scanner, vueFile, rootPath, projectName, manifestProject, manifest, factCache),
+                        pageTemplate -> {
+                            long nodeFailures = Objects.isNull(nodeWriter) ? 0 : nodeWriter.getFailedCount();
+                            if(!Objects.isNull(storeNeo4j(pageTemplate))
+                                    && (Objects.isNull(nodeWriter) || nodeWriter.getFailedCount() == nodeFailures)) {
+                                storedFiles.add(pageTemplate.getFilePath());
+                            }
+                        });
+            }
+            pipeline.await();
+            // 解析或写库失败的页面不记入清单
+            for(SourceScanner.SourceFile vueFile: vueFiles) {
+                String relativePath = manifest.relativePath(vueFile.path().toString());
+                if(!storedFiles.contains(relativePath)) {
+                    manifest.markFailed(relativePath);
                 }
-                // create neo4j entities
-                storeNeo4j(pageTemplate);
-                // create relations
-                parseRelBetweenConfigItemAndScriptMethod();
             }
             // create relationships among page entities
             parseRelations();
+            if(incremental) {
+                updater.reconnect(incoming, (label, fullName) -> findPageId(fullName), relationWriter);
+            }
+            relationWriter.flush();
+            if(relationWriter.getFailedCount() > relationFailures) {
+                System.err.println("manifest of " + manifestProject + " not saved: "
+                        + (relationWriter.getFailedCount() - relationFailures) + " relations failed to write");
+                continue;
+            }
+            manifest.save();
+        }
+        if(!Objects.isNull(factCache)) {
+            System.out.println(factCache);
         }
+        System.out.println("script data blocks: " + getLocalDataBlockCount() + " parsed locally, "
+                + getLlmFallbackDataBlockCount() + " fell back to llm");
+    }
+
+    /**
+     * 解析阶段：由单个 vue 文件构建页面模板，只读取文件与缓存，不访问共享状态
+     * 返回的页面模板交给写库阶段后不再修改
+     */
+    private PageTemplate parsePageTemplate(SourceScanner scanner, SourceScanner.SourceFile vueFile, String filePath,
+                                           String projectName, String manifestProject,
+                                           FileManifest manifest, FactCache<VueFileFacts> factCache) throws IOException {
+        String absolutePath = vueFile.path().toString();
+        System.out.println("---parse file: " + absolutePath);
+        PageTemplate pageTemplate = new PageTemplate();
+        String name = vueFile.fileName().substring(0, vueFile.fileName().length()-4);
+        String relativePath = absolutePath
+                .replace("\\\\", "\\")
+                .replace(filePath.substring(0, filePath.indexOf(projectName)), "");
+        String fullName = relativePath
+                .replace("\\", ".")
+                .replaceAll("\\.vue$", "");
+        pageTemplate.setName(name);
+        pageTemplate.setFullName(fullName);
+        pageTemplate.setProjectName(manifestProject);
+        pageTemplate.setFilePath(manifest.relativePath(absolutePath));
+
+        String contentHash = manifest.hashOf(pageTemplate.getFilePath());
+        VueFileFacts facts = Objects.isNull(factCache) ? null : factCache.load(contentHash);
+        if(Objects.isNull(facts)) {
+            facts = parseVueFile(scanner.read(vueFile));
+            if(!Objects.isNull(factCache)) {
+                factCache.store(contentHash, facts);
+            }
+        }
+        pageTemplate.setContent(facts.getTemplateContent());
+        pageTemplate.getComponentList().addAll(facts.getComponentList());
+        if(!Objects.isNull(facts.getScript())) {
+            facts.getScript().setName(name);
+            pageTemplate.setScript(facts.getScript());
+        }
+        return pageTemplate;
+    }
+
+    /**
+     * 解析单个 vue 文件的 template 与 script 部分
+     */
+    public VueFileFacts parseVueFile(String fileContent) {
+        VueFileFacts facts = new VueFileFacts();
+        VueSfcScanner sfc = VueSfcScanner.scan(fileContent);
+        // parse template
+        String templateContent = sfc.templateContent();
+        if(StringUtils.isNotEmpty(templateContent)) {
+            facts.setTemplateContent(templateContent);
+            // 记录各元素在 template 源码中的位置，组件只保存偏移
+            Document document = Jsoup.parse(templateContent, "", Parser.htmlParser().setTrackPosition(true));
+            Element divElement = document.selectFirst("Template");
+            divElement.children().forEach(element -> {
+                Component component = parseTemplate(element, null);
+                facts.getComponentList().add(component);
+            });
+        }
+        // parse script
+        if(sfc.scriptBody().length() != 0) {
+            facts.setScript(parseScript(sfc));
+        }
+        return facts;
+    }
+
+    private Long findPageId(String fullName) {
+        return pageLinkMap.entrySet().stream()
+                .filter(entry -> fullName.equals(entry.getValue().fullName()))
+                .map(entry -> pageIdMap.get(entry.getKey()))
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
     }
 
     /**
      * store page-related entities and relationships in neo4j
+     * 写库阶段：脚本方法与配置项只在当前文件内关联，使用局部的映射表
      */
     public PageEntity storeNeo4j(PageTemplate pageTemplate) {
+        Map<String, ScriptMethodEntity> scriptMethodMap = new HashMap<>();
+        Map<String, ConfigItemEntity> configItemMap = new HashMap<>();
         try {
             PageEntity pageEntity = pageTemplate.createPageEntity(pageRepo);
-            pageEntityMap.put(pageEntity.getName(), pageEntity);
-            pageTemplateMap.put(pageEntity.getName(), pageTemplate);
+            pageIdMap.put(pageEntity.getName(), pageEntity.getId());
+            List<String> dependedPages = new ArrayList<>();
+            if(!Objects.isNull(pageTemplate.getScript())) {
+                pageTemplate.findDependedPage();
+                dependedPages.addAll(pageTemplate.getDependedPageList());
+            }
+            pageLinkMap.put(pageEntity.getName(), new PageLinks(pageEntity.getFullName(), dependedPages));
             // component entity
-            for(Component component: pageTemplate.getComponentList()) {
-                ComponentEntity componentEntity = createComponentEntity(component);
-                pageEntity.getComponentList().add(componentEntity);
-                pageRepo.createRelationOfContainedComponent(pageEntity.getId(), componentEntity.getId());
+            List<Long> rootIds = new ArrayList<>();
+            if(Objects.isNull(nodeWriter)) {
+                for(Component component: pageTemplate.getComponentList()) {
+                    rootIds.add(createComponentEntity(component, configItemMap).getId());
+                }
+            } else {
+                rootIds.addAll(createComponentTree(pageTemplate.getComponentList(), configItemMap));
+            }
+            for(Long rootId: rootIds) {
+                relationWriter.add("PageTemplate", "CONTAIN", "Component", pageEntity.getId(), rootId);
             }
             // script entity
             if(!Objects.isNull(pageTemplate.getScript())) {
                 Script script = pageTemplate.getScript();
                 ScriptEntity scriptEntity = script.createScriptEntity(scriptRepo);
-                pageRepo.createRelationOfContainedScript(pageEntity.getId(), scriptEntity.getId());
+                relationWriter.add("PageTemplate", "CONTAIN", "Script", pageEntity.getId(), scriptEntity.getId());
                 // script method
                 List<ScriptMethodEntity> scriptMethodEntityList = script.createScriptMethodEntityList(scriptMethodRepo);
                 for (ScriptMethodEntity scriptMethodEntity : scriptMethodEntityList) {
                     scriptMethodMap.put(scriptMethodEntity.getName(), scriptMethodEntity);
-                    scriptRepo.createRelationOfContainedMethod(scriptEntity.getId(), scriptMethodEntity.getId());
+                    relationWriter.add("Script", "CONTAIN", "ScriptMethod", scriptEntity.getId(), scriptMethodEntity.getId());
                 }
                 // script data
                 List<ScriptDataEntity> scriptDataEntityList = script.createScriptDataEntityList(scriptDataRepo);
                 for (ScriptDataEntity scriptDataEntity : scriptDataEntityList) {
-                    scriptRepo.createRelationOfContainedData(scriptEntity.getId(), scriptDataEntity.getId());
+                    relationWriter.add("Script", "CONTAIN", "ScriptData", scriptEntity.getId(), scriptDataEntity.getId());
                 }
             }
+            // create relations
+            parseRelBetweenConfigItemAndScriptMethod(configItemMap, scriptMethodMap);
             return pageEntity;
         } catch (Exception e) {
             e.printStackTrace();
@@ -143,16 +289,13 @@ public class PageExtractor extends KnowledgeExtractor {
     private void parseRelations() {
         // page-[dependency]->page
         try {
-            pageEntityMap.values().forEach(pageEntity -> {
-                PageTemplate pageTemplate = pageTemplateMap.get(pageEntity.getName());
-                if(!Objects.isNull(pageTemplate.getScript())) {
-                    pageTemplate.findDependedPage();
-                    pageTemplate.getDependedPageList().forEach(dependedPageName -> {
-                        if(pageEntityMap.containsKey(dependedPageName)) {
-                            pageRepo.createRelationOfDependedPage(pageEntity.getId(), pageEntityMap.get(dependedPageName).getId());
-                        }
-                    });
-                }
+            pageLinkMap.forEach((name, links) -> {
+                Long pageId = pageIdMap.get(name);
+                links.dependedPages().forEach(dependedPageName -> {
+                    if(pageIdMap.containsKey(dependedPageName)) {
+                        relationWriter.add("PageTemplate", "DEPENDENCY", "PageTemplate", pageId, pageIdMap.get(dependedPageName));
+                    }
+                });
             });
         } catch (Exception e) {
             e.printStackTrace();
@@ -160,43 +303,114 @@ public class PageExtractor extends KnowledgeExtractor {
         }
     }
 
-    private ComponentEntity createComponentEntity(Component component) {
+    /**
+     * 批量写入页面的组件树：先序展开后，组件（直接带上 ComponentExample 标签）与配置项各用一条批量语句创建，
+     * PARENT_OF 与 CONTAIN 关系交给 relationWriter 批量写入
+     * @return 顶层组件的 id，创建失败的组件为 null
+     */
+    private List<Long> createComponentTree(List<Component> roots, Map<String, ConfigItemEntity> configItemMap) {
+        List<ComponentEntity> componentEntities = new ArrayList<>();
+        List<Integer> parents = new ArrayList<>();
+        List<ConfigItemEntity> configItemEntities = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        List<String> configItemKeys = new ArrayList<>();
+        List<Integer> rootIndexes = new ArrayList<>();
+        // 以显式栈先序遍历，避免嵌套过深时递归溢出
+        record Pending(Component component, int parent) {}
+        Deque<Pending> stack = new ArrayDeque<>();
+        for(int i = roots.size() - 1; i >= 0; i--) {
+            stack.push(new Pending(roots.get(i), -1));
+        }
+        while(!stack.isEmpty()) {
+            Pending pending = stack.pop();
+            Component component = pending.component();
+            int index = componentEntities.size();
+            ComponentEntity componentEntity = new ComponentEntity();
+            componentEntity.setName(component.getName());
+            componentEntity.setText(component.getText());
+            componentEntity.setContent(component.getContent());
+            componentEntity.setStartOffset(component.getStartOffset());
+            componentEntity.setEndOffset(component.getEndOffset());
+            componentEntity.setDescription(component.getDescription());
+            componentEntities.add(componentEntity);
+            parents.add(pending.parent());
+            if(pending.parent() < 0) {
+                rootIndexes.add(index);
+            }
+            for(ConfigItem configItem: component.getConfigItemList()) {
+                ConfigItemEntity configItemEntity = new ConfigItemEntity();
+                configItemEntity.setName(configItem.getCode());
+                configItemEntity.setValue(configItem.getValue());
+                configItemEntities.add(configItemEntity);
+                owners.add(index);
+                // generate unique key for config item
+                configItemKeys.add(component.getName() + configItemEntity.getName() + configItemEntity.getValue());
+            }
+            if(!Objects.isNull(component.getChildren())) {
+                for(int i = component.getChildren().size() - 1; i >= 0; i--) {
+                    stack.push(new Pending(component.getChildren().get(i), index));
+                }
+            }
+        }
+        nodeWriter.create(componentEntities, entity -> "Component:ComponentExample",
+                ComponentEntity::toProperties, ComponentEntity::setId);
+        nodeWriter.create(configItemEntities, entity -> "ConfigItem",
+                ConfigItemEntity::toProperties, ConfigItemEntity::setId);
+        for(int i = 0; i < componentEntities.size(); i++) {
+            if(parents.get(i) >= 0) {
+                relationWriter.add("Component", "PARENT_OF", "Component",
+                        componentEntities.get(parents.get(i)).getId(), componentEntities.get(i).getId());
+            }
+        }
+        for(int i = 0; i < configItemEntities.size(); i++) {
+            ConfigItemEntity configItemEntity = configItemEntities.get(i);
+            relationWriter.add("Component", "CONTAIN", "ConfigItem",
+                    componentEntities.get(owners.get(i)).getId(), configItemEntity.getId());
+            if(!Objects.isNull(configItemEntity.getId())) {
+                configItemMap.put(configItemKeys.get(i), configItemEntity);
+            }
+        }
+        return rootIndexes.stream().map(i -> componentEntities.get(i).getId()).toList();
+    }
+
+    /**
+     * 逐个保存组件树（extraction.neo4j.bulk-nodes=false 时使用）
+     */
+    private ComponentEntity createComponentEntity(Component component, Map<String, ConfigItemEntity> configItemMap) {
         ComponentEntity componentEntity = component.createComponentEntity(componentRepo);
         componentRepo.setComponentExample(componentEntity.getId());
         for(ConfigItem configItem: component.getConfigItemList()) {
             ConfigItemEntity configItemEntity = configItem.createConfigItemEntity(configItemRepo);
-            componentEntity.getContainedConfigItemEntities().add(configItemEntity);
-            componentRepo.createRelationOfContainedConfigItem(componentEntity.getId(), configItemEntity.getId());
+            relationWriter.add("Component", "CONTAIN", "ConfigItem", componentEntity.getId(), configItemEntity.getId());
             // generate unique key for config item
             String configItemKey = component.getName() + configItemEntity.getName() + configItemEntity.getValue();
             configItemMap.put(configItemKey, configItemEntity);
         }
         if(!Objects.isNull(component.getChildren())) {
             for (Component child : component.getChildren()) {
-                ComponentEntity childComponentEntity = createComponentEntity(child);
+                ComponentEntity childComponentEntity = createComponentEntity(child, configItemMap);
                 componentRepo.setComponentExample(childComponentEntity.getId());
-                componentEntity.getChildComponentList().add(childComponentEntity);
-                componentRepo.createRelationOfChildComponent(componentEntity.getId(), childComponentEntity.getId());
+                relationWriter.add("Component", "PARENT_OF", "Component", componentEntity.getId(), childComponentEntity.getId());
             }
         }
         return componentEntity;
     }
 
-    private void parseRelBetweenConfigItemAndScriptMethod() {
+    private void parseRelBetweenConfigItemAndScriptMethod(Map<String, ConfigItemEntity> configItemMap,
+                                                          Map<String, ScriptMethodEntity> scriptMethodMap) {
         // configItem-[related_to]->scriptMethod
         configItemMap.values().forEach(configItemEntity -> {
             String value = configItemEntity.getValue();
-            Pattern p = Pattern.compile("(\\w+)\\(([\\w,:\\s=\\.]*)\\)");
-            Matcher match = p.matcher(value);
+            Matcher match = METHOD_CALL.matcher(value);
             if(match.find()) {
                 String name = match.group(1);
                 if (scriptMethodMap.containsKey(name)) {
                     ScriptMethodEntity methodEntity = scriptMethodMap.get(name);
-                    configItemRepo.createRelationOfRelatedMethod(configItemEntity.getId(), methodEntity.getId());
+                    relationWriter.add("ConfigItem", "RELATED_TO", "ScriptMethod", configItemEntity.getId(), methodEntity.getId());
                 }
             } else if(scriptMethodMap.containsKey(value)) {
                 ScriptMethodEntity methodEntity = scriptMethodMap.get(value);
-                configItemRepo.createRelationOfRelatedMethod(configItemEntity.getId(), methodEntity.getId());
+                relationWriter.add("ConfigItem", "RELATED_TO", "ScriptMethod", configItemEntity.getId(), methodEntity.getId());
             }
         });
     }
@@ -205,7 +419,8 @@ public class PageExtractor extends KnowledgeExtractor {
         Component component = new Component();
         component.setName(element.tagName());
         component.setText(element.text());
-        component.setContent(element.toString());
+        int end = element.endSourceRange().isTracked()
+                ? element.endSourceRange().end().pos() : element.sourceRange().end().pos();
 
         element.attributes().forEach(attr -> {
             ConfigItem config = new ConfigItem(attr.getKey(), attr.getValue());
@@ -215,11 +430,24 @@ public class PageExtractor extends KnowledgeExtractor {
         for (Element child : element.children()) {
             Component childComponent = parseTemplate(child, element);
             component.getChildren().add(childComponent);
+            // 结束标签被省略时，范围延伸到最后一个子元素的结束位置
+            if(!Objects.isNull(childComponent.getEndOffset())) {
+                end = Math.max(end, childComponent.getEndOffset());
+            }
+        }
+        if(element.sourceRange().isTracked()) {
+            component.setStartOffset(element.sourceRange().start().pos());
+            component.setEndOffset(end);
         }
         return component;
     }
 
     public Script parseScript(String content) {
+        return parseScript(VueSfcScanner.scanScript(content));
+    }
+
+    private Script parseScript(VueSfcScanner sfc) {
+        String content = sfc.scriptContent();
         Script script = new Script();
         script.setContent(content);
 
@@ -229,22 +457,50 @@ public class PageExtractor extends KnowledgeExtractor {
 
 
         // parse data
-        List<Script.ScriptData> dataList = parseScriptData(content);
+        List<Script.ScriptData> dataList = parseScriptData(sfc);
         script.setDataList(dataList);
 
         // parse methods
-        List<Script.ScriptMethod> methodList = parseScriptMethod(content);
+        List<Script.ScriptMethod> methodList = parseScriptMethod(sfc);
         script.setMethodList(methodList);
 
         return script;
     }
 
     public List<Script.ScriptData> parseScriptData(String content) {
+        return parseScriptData(VueSfcScanner.scanScript(content));
+    }
+
+    private List<Script.ScriptData> parseScriptData(VueSfcScanner sfc) {
         // get data block
-        String dataBlock = getScriptData(content);
+        String dataBlock = sfc.dataBlock();
         if(StringUtils.isEmpty(dataBlock)) {
             return null;
         }
+        List<Script.ScriptData> dataList = new ArrayList<>();
+        JSONObject jsonObject;
+        try {
+            jsonObject = JsObjectLiteralParser.parse(dataBlock);
+            localDataBlocks.incrementAndGet();
+        } catch (IllegalArgumentException e) {
+            // 本地无法解析的语法（如展开运算符）交给 LLM 转换
+            System.out.println("script data parsed by llm (" + e.getMessage() + ")");
+            llmFallbackDataBlocks.incrementAndGet();
+            jsonObject = parseScriptDataByLlm(dataBlock);
+        }
+        if(Objects.isNull(jsonObject)) {
+            return dataList;
+        }
+        jsonObject.forEach((k, v) -> {
+            Script.ScriptData data = new Script.ScriptData();
+            data.setName(k);
+            data.setValue(Objects.isNull(v) ? "null" : v.toString());
+            dataList.add(data);
+        });
+        return dataList;
+    }
+
+    private JSONObject parseScriptDataByLlm(String dataBlock) {
         // json format
         String prompt = """
                 给定下面的代码内容，你的任务是对其进行解析返回一个json对象，以 ```json 开始，以 ``` 结尾。注意，如果key对应的value包含了表达式或函数调用，将其转为字符串格式
@@ -260,63 +516,47 @@ public class PageExtractor extends KnowledgeExtractor {
                 下面是给出的代码片段:
                 {content}
                 """;
-        List<Script.ScriptData> dataList = new ArrayList<>();
         try {
             prompt = prompt.replace("{content}", dataBlock);
             String answer = llmGenerateService.generateAnswer(prompt);
             if(answer.contains("```json")) {
                 answer = answer.substring(answer.indexOf("```json") + 7, answer.lastIndexOf("```"));
             }
-            JSONObject jsonObject = JSONObject.parseObject(answer);
-            jsonObject.forEach((k, v) -> {
-                Script.ScriptData data = new Script.ScriptData();
-                data.setName(k);
-                data.setValue(Objects.isNull(v) ? "null" : v.toString());
-                dataList.add(data);
-            });
+            return JSONObject.parseObject(answer);
         } catch (Exception e) {
             e.printStackTrace();
             System.out.println("script data json format error:\n" + dataBlock);
+            return null;
         }
-        return dataList;
+    }
+
+    /**
+     * data 块由本地解析器完成转换的次数
+     */
+    public static long getLocalDataBlockCount() {
+        return localDataBlocks.get();
+    }
+
+    /**
+     * data 块本地解析失败、回退到 LLM 转换的次数
+     */
+    public static long getLlmFallbackDataBlockCount() {
+        return llmFallbackDataBlocks.get();
     }
 
     public List<Script.ScriptMethod> parseScriptMethod(String content) {
-        // get method content
-        String methodContent = getScriptMethod(content);
-        if(methodContent.length() == 0) {
+        return parseScriptMethod(VueSfcScanner.scanScript(content));
+    }
+
+    private List<Script.ScriptMethod> parseScriptMethod(VueSfcScanner sfc) {
+        if(sfc.methodsBody().length() == 0) {
             return null;
         }
-
         // extract methods
         List<Script.ScriptMethod> methodList = new ArrayList<>();
-        List<String> lines = Arrays.asList(methodContent.split("\n"));
-        String name = "";
-        List<String> params;
-        StringBuilder mContent = new StringBuilder();
-        int i = 0;
-        while(i < lines.size()) {
-            String line = lines.get(i);
-            Pattern p = Pattern.compile("(\\w+)\\(([\\w,:\\s=\\.]*)\\)\\s*\\{");
-            Matcher match = p.matcher(line);
-            if(match.find()) {
-                name = match.group(1);
-                params = Arrays.asList(match.group(2).split(", "));
-                String intent = getScriptIndent(line);
-                int j = i + 1;
-                while(j < lines.size()) {
-                    if(lines.get(j).equals(intent + "},")
-                            || lines.get(j).equals(intent + "}")) {
-                        break;
-                    }
-                    mContent.append(lines.get(j));
-                    j++;
-                }
-                i = j;
-                methodList.add(new Script.ScriptMethod(name, params, mContent.toString()));
-                mContent = new StringBuilder();
-            }
-            i++;
+        for(VueSfcScanner.MethodHeader method: sfc.methods()) {
+            List<String> params = Arrays.asList(method.params().split(", "));
+            methodList.add(new Script.ScriptMethod(method.name(), params, sfc.methodBody(method)));
         }
         return methodList;
     }
@@ -2,33 +2,32 @@ package org.example.lowcodekg.extraction.page;
 
 import org.example.lowcodekg.model.dao.neo4j.entity.page.PageEntity;
 import org.example.lowcodekg.extraction.KnowledgeExtractor;
-import org.neo4j.driver.QueryRunner;
-import org.neo4j.driver.Result;
-import org.neo4j.driver.types.Node;
-
-import java.util.Optional;
 
 /**
  * 生成页面实体功能描述
+ * 只读取生成描述所需的 id、name、fullName，提交给摘要流水线异步生成，不再逐个加载整棵页面实体
+ * 增量模式下只处理尚无描述的页面（新增或重新抽取的页面）
  */
 public class PageFuncGenerator extends KnowledgeExtractor {
 
     @Override
     public void extraction() {
         try {
-            String nodeCypher = """
+            String nodeCypher = incremental ? """
+                MATCH (n:PageTemplate)
+                WHERE n.description IS NULL
+                RETURN id(n) AS id, n.name AS name, n.fullName AS fullName
+                """ : """
                 MATCH (n:PageTemplate)
-                RETURN n
+                RETURN id(n) AS id, n.name AS name, n.fullName AS fullName
                 """;
-            QueryRunner runner = neo4jClient.getQueryRunner();
-            Result result = runner.run(nodeCypher);
-            while(result.hasNext()) {
-                Node node = result.next().get("n").asNode();
-                Optional<PageEntity> pageEntityOptional = pageRepo.findById(node.id());
-                pageEntityOptional.ifPresent(pageEntity -> {
-                    funcGenerateService.genPageFunc(pageEntity);
-                });
-            }
+            neo4jClient.query(nodeCypher).fetch().all().forEach(row -> {
+                PageEntity pageEntity = new PageEntity();
+                pageEntity.setId(((Number) row.get("id")).longValue());
+                pageEntity.setName((String) row.get("name"));
+                pageEntity.setFullName((String) row.get("fullName"));
+                funcGenerateService.genPageFunc(pageEntity);
+            });
         } catch (Exception e) {
             e.printStackTrace();
         }
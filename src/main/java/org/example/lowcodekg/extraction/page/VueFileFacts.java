@@ -0,0 +1,149 @@
+package org.example.lowcodekg.extraction.page;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.example.lowcodekg.extraction.cache.FactCache;
+import org.example.lowcodekg.extraction.cache.FactInput;
+import org.example.lowcodekg.extraction.cache.FactOutput;
+import org.example.lowcodekg.model.schema.entity.page.Component;
+import org.example.lowcodekg.model.schema.entity.page.ConfigItem;
+import org.example.lowcodekg.model.schema.entity.page.Script;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PageExtractor 从单个 vue 文件中解析出的组件树与脚本
+ * 脚本中的 data 块本地解析失败时由 LLM 转换为 json，命中缓存时同时省去这次调用
+ */
+@Getter
+@Setter
+public class VueFileFacts {
+
+    /**
+     * 抽取器版本，parseTemplate / parseScript 的抽取逻辑或此处的编码格式变化时需要提升
+     */
+    public static final int VERSION = 2;
+
+    public static final FactCache.Codec<VueFileFacts> CODEC = new FactCache.Codec<>() {
+        @Override
+        public void write(FactOutput out, VueFileFacts facts) throws IOException {
+            out.writeString(facts.templateContent);
+            out.writeSize(facts.componentList);
+            for(Component component: facts.componentList) {
+                writeComponent(out, component);
+            }
+            out.writeBoolean(facts.script != null);
+            if(facts.script != null) {
+                writeScript(out, facts.script);
+            }
+        }
+
+        @Override
+        public VueFileFacts read(FactInput in) {
+            VueFileFacts facts = new VueFileFacts();
+            facts.templateContent = in.readString();
+            int componentCount = in.readSize();
+            for(int i = 0; i < componentCount; i++) {
+                facts.componentList.add(readComponent(in));
+            }
+            if(in.readBoolean()) {
+                facts.script = readScript(in);
+            }
+            return facts;
+        }
+    };
+
+    /**
+     * template 源码，组件只记录其中的起止偏移
+     */
+    private String templateContent;
+
+    private List<Component> componentList = new ArrayList<>();
+
+    private Script script;
+
+    private static void writeComponent(FactOutput out, Component component) throws IOException {
+        out.writeString(component.getName());
+        out.writeString(component.getText());
+        out.writeInt(component.getStartOffset() == null ? -1 : component.getStartOffset());
+        out.writeInt(component.getEndOffset() == null ? -1 : component.getEndOffset());
+        out.writeSize(component.getConfigItemList());
+        if(component.getConfigItemList() != null) {
+            for(ConfigItem configItem: component.getConfigItemList()) {
+                out.writeString(configItem.getCode());
+                out.writeString(configItem.getValue());
+            }
+        }
+        out.writeSize(component.getChildren());
+        if(component.getChildren() != null) {
+            for(Component child: component.getChildren()) {
+                writeComponent(out, child);
+            }
+        }
+    }
+
+    private static Component readComponent(FactInput in) {
+        Component component = new Component();
+        component.setName(in.readString());
+        component.setText(in.readString());
+        int startOffset = in.readInt();
+        int endOffset = in.readInt();
+        component.setStartOffset(startOffset < 0 ? null : startOffset);
+        component.setEndOffset(endOffset < 0 ? null : endOffset);
+        int configCount = in.readSize();
+        for(int i = 0; i < configCount; i++) {
+            component.getConfigItemList().add(new ConfigItem(in.readString(), in.readString()));
+        }
+        int childCount = in.readSize();
+        for(int i = 0; i < childCount; i++) {
+            component.getChildren().add(readComponent(in));
+        }
+        return component;
+    }
+
+    private static void writeScript(FactOutput out, Script script) throws IOException {
+        out.writeString(script.getContent());
+        out.writeString(script.getImportsComponentList());
+        out.writeSize(script.getDataList());
+        if(script.getDataList() != null) {
+            for(Script.ScriptData data: script.getDataList()) {
+                out.writeString(data.getName());
+                out.writeString(data.getValue());
+            }
+        }
+        out.writeSize(script.getMethodList());
+        if(script.getMethodList() != null) {
+            for(Script.ScriptMethod method: script.getMethodList()) {
+                out.writeString(method.getName());
+                out.writeStrings(method.getParams());
+                out.writeString(method.getContent());
+            }
+        }
+    }
+
+    private static Script readScript(FactInput in) {
+        Script script = new Script();
+        script.setContent(in.readString());
+        script.setImportsComponentList(in.readString());
+        int dataCount = in.readSize();
+        if(dataCount < 0) {
+            script.setDataList(null);
+        }
+        for(int i = 0; i < dataCount; i++) {
+            Script.ScriptData data = new Script.ScriptData();
+            data.setName(in.readString());
+            data.setValue(in.readString());
+            script.getDataList().add(data);
+        }
+        int methodCount = in.readSize();
+        if(methodCount < 0) {
+            script.setMethodList(null);
+        }
+        for(int i = 0; i < methodCount; i++) {
+            script.getMethodList().add(new Script.ScriptMethod(in.readString(), in.readStringList(), in.readString()));
+        }
+        return script;
+    }
+}
@@ -0,0 +1,322 @@
+package org.example.lowcodekg.extraction.workflow;
+
+import java.util.*;
+
+/**
+ * 方法调用图，用于在内存中计算工作流入口方法可达的全部方法
+ * 先用 Tarjan 算法求强连通分量并缩点，再在缩点后的 DAG 上按需计算各分量的可达集合（BitSet）并缓存，
+ * 多个入口共享的调用子图只计算一次，调用环也不会被重复展开
+ * 节点按分量的输出顺序（逆拓扑序）重新编号，每个分量的可达集合只会用到不大于自身编号的位
+ * 只有一个前驱的分量，其可达集合由前驱直接接管而不复制，长调用链上的内存开销保持线性
+ */
+public class CallGraph {
+
+    /**
+     * 编号 -> 方法节点 id，同一分量的方法编号连续
+     */
+    private final long[] nodeIds;
+    private final Map<Long, Integer> positions;
+    /**
+     * 分量 c 的方法编号范围为 [componentStart[c], componentStart[c + 1])
+     */
+    private final int[] componentStart;
+    private final int[] componentOf;
+    private final int[][] componentSuccessors;
+    private final int[] componentInDegree;
+    private final BitSet[] reachable;
+    /**
+     * 按新编号存储的原始调用边（CSR），用于计算调用深度
+     */
+    private final int[] edgeOffsets;
+    private final int[] edgeTargets;
+
+    private CallGraph(long[] nodeIds, Map<Long, Integer> positions, int[] edgeOffsets, int[] edgeTargets,
+                      int[] componentStart, int[] componentOf, int[][] componentSuccessors, int[] componentInDegree) {
+        this.nodeIds = nodeIds;
+        this.positions = positions;
+        this.edgeOffsets = edgeOffsets;
+        this.edgeTargets = edgeTargets;
+        this.componentStart = componentStart;
+        this.componentOf = componentOf;
+        this.componentSuccessors = componentSuccessors;
+        this.componentInDegree = componentInDegree;
+        this.reachable = new BitSet[componentSuccessors.length];
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return nodeIds.length;
+    }
+
+    public int componentCount() {
+        return componentSuccessors.length;
+    }
+
+    /**
+     * 入口方法可达的全部方法（包括入口自身），入口排在最前，其余按调用方在前、被调用方在后的拓扑序排列
+     */
+    public List<Long> reachableFrom(long entry) {
+        Integer position = positions.get(entry);
+        if (position == null) {
+            return List.of(entry);
+        }
+        BitSet bits = reach(componentOf[position]);
+        List<Long> methods = new ArrayList<>(bits.cardinality());
+        methods.add(entry);
+        for (int i = bits.length() - 1; i >= 0; i = bits.previousSetBit(i - 1)) {
+            if (i != position) {
+                methods.add(nodeIds[i]);
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * 入口方法 maxDepth 层以内可达方法的最短调用深度（入口为 0），只做有限层数的广度优先遍历
+     */
+    public Map<Long, Integer> depthsFrom(long entry, int maxDepth) {
+        Map<Long, Integer> depths = new HashMap<>();
+        depths.put(entry, 0);
+        Integer start = positions.get(entry);
+        if (start == null) {
+            return depths;
+        }
+        Set<Integer> visited = new HashSet<>();
+        visited.add(start);
+        List<Integer> frontier = List.of(start);
+        for (int depth = 1; depth <= maxDepth && !frontier.isEmpty(); depth++) {
+            List<Integer> next = new ArrayList<>();
+            for (int v : frontier) {
+                for (int e = edgeOffsets[v]; e < edgeOffsets[v + 1]; e++) {
+                    int w = edgeTargets[e];
+                    if (visited.add(w)) {
+                        depths.put(nodeIds[w], depth);
+                        next.add(w);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return depths;
+    }
+
+    /**
+     * 分量的可达集合，后继分量的编号总是小于自身，按需以显式栈后序计算
+     * 被接管的后继不再保留缓存，之后若被单独查询会重新计算
+     */
+    private BitSet reach(int component) {
+        if (reachable[component] != null) {
+            return reachable[component];
+        }
+        Deque<int[]> stack = new ArrayDeque<>();
+        stack.push(new int[]{component, 0});
+        while (!stack.isEmpty()) {
+            int[] frame = stack.peek();
+            int c = frame[0];
+            int[] successors = componentSuccessors[c];
+            if (frame[1] < successors.length) {
+                int next = successors[frame[1]++];
+                if (reachable[next] == null) {
+                    stack.push(new int[]{next, 0});
+                }
+                continue;
+            }
+            stack.pop();
+            if (reachable[c] != null) {
+                continue;
+            }
+            BitSet bits = null;
+            for (int successor : successors) {
+                if (bits == null && componentInDegree[successor] == 1) {
+                    bits = reachable[successor];
+                    reachable[successor] = null;
+                }
+            }
+            if (bits == null) {
+                bits = new BitSet(componentStart[c + 1]);
+            }
+            bits.set(componentStart[c], componentStart[c + 1]);
+            for (int successor : successors) {
+                if (reachable[successor] != null) {
+                    bits.or(reachable[successor]);
+                }
+            }
+            reachable[c] = bits;
+        }
+        return reachable[component];
+    }
+
+    /**
+     * 逐条添加调用边后构建调用图
+     */
+    public static class Builder {
+
+        private final Map<Long, Integer> index = new HashMap<>();
+        private final List<Long> ids = new ArrayList<>();
+        private int[] sources = new int[16];
+        private int[] targets = new int[16];
+        private int edgeCount = 0;
+
+        public Builder addEdge(long caller, long callee) {
+            if (edgeCount == sources.length) {
+                sources = Arrays.copyOf(sources, edgeCount * 2);
+                targets = Arrays.copyOf(targets, edgeCount * 2);
+            }
+            sources[edgeCount] = indexOf(caller);
+            targets[edgeCount] = indexOf(callee);
+            edgeCount++;
+            return this;
+        }
+
+        private int indexOf(long id) {
+            return index.computeIfAbsent(id, k -> {
+                ids.add(k);
+                return ids.size() - 1;
+            });
+        }
+
+        public CallGraph build() {
+            int n = ids.size();
+            // 邻接表（CSR）
+            int[] offsets = new int[n + 1];
+            for (int e = 0; e < edgeCount; e++) {
+                offsets[sources[e] + 1]++;
+            }
+            for (int v = 0; v < n; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+            int[] adjacency = new int[edgeCount];
+            int[] fill = Arrays.copyOf(offsets, n);
+            for (int e = 0; e < edgeCount; e++) {
+                adjacency[fill[sources[e]]++] = targets[e];
+            }
+
+            int[] component = tarjan(n, offsets, adjacency);
+            int componentCount = 0;
+            for (int c : component) {
+                componentCount = Math.max(componentCount, c + 1);
+            }
+
+            // 按分量编号重新排列节点
+            int[] componentStart = new int[componentCount + 1];
+            for (int v = 0; v < n; v++) {
+                componentStart[component[v] + 1]++;
+            }
+            for (int c = 0; c < componentCount; c++) {
+                componentStart[c + 1] += componentStart[c];
+            }
+            int[] next = Arrays.copyOf(componentStart, componentCount);
+            long[] nodeIds = new long[n];
+            int[] componentOf = new int[n];
+            int[] positionOf = new int[n];
+            Map<Long, Integer> positions = new HashMap<>(n * 2);
+            for (int v = 0; v < n; v++) {
+                int position = next[component[v]]++;
+                positionOf[v] = position;
+                nodeIds[position] = ids.get(v);
+                componentOf[position] = component[v];
+                positions.put(ids.get(v), position);
+            }
+            int[] edgeOffsets = new int[n + 1];
+            for (int v = 0; v < n; v++) {
+                edgeOffsets[positionOf[v] + 1] = offsets[v + 1] - offsets[v];
+            }
+            for (int v = 0; v < n; v++) {
+                edgeOffsets[v + 1] += edgeOffsets[v];
+            }
+            int[] edgeTargets = new int[edgeCount];
+            for (int v = 0; v < n; v++) {
+                int to = edgeOffsets[positionOf[v]];
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    edgeTargets[to++] = positionOf[adjacency[e]];
+                }
+            }
+
+            // 缩点后的后继分量（去重、去自环）
+            List<Set<Integer>> successorSets = new ArrayList<>(componentCount);
+            for (int c = 0; c < componentCount; c++) {
+                successorSets.add(new LinkedHashSet<>());
+            }
+            for (int e = 0; e < edgeCount; e++) {
+                int from = component[sources[e]];
+                int to = component[targets[e]];
+                if (from != to) {
+                    successorSets.get(from).add(to);
+                }
+            }
+            int[][] componentSuccessors = new int[componentCount][];
+            int[] componentInDegree = new int[componentCount];
+            for (int c = 0; c < componentCount; c++) {
+                componentSuccessors[c] = successorSets.get(c).stream().mapToInt(Integer::intValue).toArray();
+                for (int successor : componentSuccessors[c]) {
+                    componentInDegree[successor]++;
+                }
+            }
+            return new CallGraph(nodeIds, positions, edgeOffsets, edgeTargets,
+                    componentStart, componentOf, componentSuccessors, componentInDegree);
+        }
+
+        /**
+         * 迭代版 Tarjan 算法，分量按完成顺序编号（被调用的分量先完成，编号更小）
+         */
+        private static int[] tarjan(int n, int[] offsets, int[] adjacency) {
+            int[] order = new int[n];
+            int[] low = new int[n];
+            int[] component = new int[n];
+            Arrays.fill(order, -1);
+            boolean[] onStack = new boolean[n];
+            int[] stack = new int[n];
+            int stackSize = 0;
+            int[] callStack = new int[n];
+            int[] edgeCursor = new int[n];
+            int counter = 0;
+            int componentCount = 0;
+
+            for (int root = 0; root < n; root++) {
+                if (order[root] >= 0) {
+                    continue;
+                }
+                int depth = 0;
+                callStack[depth] = root;
+                order[root] = low[root] = counter++;
+                edgeCursor[root] = offsets[root];
+                stack[stackSize++] = root;
+                onStack[root] = true;
+                while (depth >= 0) {
+                    int v = callStack[depth];
+                    if (edgeCursor[v] < offsets[v + 1]) {
+                        int w = adjacency[edgeCursor[v]++];
+                        if (order[w] < 0) {
+                            order[w] = low[w] = counter++;
+                            edgeCursor[w] = offsets[w];
+                            stack[stackSize++] = w;
+                            onStack[w] = true;
+                            callStack[++depth] = w;
+                        } else if (onStack[w]) {
+                            low[v] = Math.min(low[v], order[w]);
+                        }
+                        continue;
+                    }
+                    if (low[v] == order[v]) {
+                        int w;
+                        do {
+                            w = stack[--stackSize];
+                            onStack[w] = false;
+                            component[w] = componentCount;
+                        } while (w != v);
+                        componentCount++;
+                    }
+                    depth--;
+                    if (depth >= 0) {
+                        int parent = callStack[depth];
+                        low[parent] = Math.min(low[parent], low[v]);
+                    }
+                }
+            }
+            return component;
+        }
+    }
+}
@@ -2,7 +2,10 @@ package org.example.lowcodekg.extraction.workflow;
 
 import io.micrometer.common.util.StringUtils;
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 import org.eclipse.jdt.core.dom.*;
+import org.example.lowcodekg.common.util.SourceRange;
+import org.example.lowcodekg.common.util.SourceText;
 import org.example.lowcodekg.model.schema.entity.workflow.JavaClass;
 import org.example.lowcodekg.model.schema.entity.workflow.JavaField;
 import org.example.lowcodekg.model.schema.entity.workflow.JavaMethod;
@@ -16,18 +19,51 @@ public class JavaASTVisitor extends ASTVisitor {
 
     private JavaProject javaProject;
 
-    private String sourceContent;
+    /**
+     * 源文件内容，类、方法、字段只记录其中的位置，不复制字符串
+     */
+    private SourceText source;
+
+    /**
+     * 源文件相对项目目录的路径
+     */
+    private String filePath;
+
+    /**
+     * 本文件的抽取结果，用于写入解析结果缓存
+     */
+    @Getter
+    private final JavaFileFacts facts = new JavaFileFacts();
+
+    /**
+     * 本文件内共享的类型名解析缓存
+     */
+    private final NameResolver nameResolver = new NameResolver();
+
+    public JavaASTVisitor(JavaProject javaProject, String sourceContent) {
+        this(javaProject, SourceText.of(sourceContent), null);
+    }
 
     @Override
     public boolean visit(TypeDeclaration node) {
         JavaClass javaClassInfo = createJavaClassInfo(node);
         javaProject.addClass(javaClassInfo);
+        facts.getClassList().add(javaClassInfo);
+
+        // 类上 @RequestMapping 声明的路由前缀
+        String classMapping = null;
+        for (Object modifier : node.modifiers()) {
+            if (modifier instanceof Annotation annotation && annotation.getTypeName().toString().equals("RequestMapping")) {
+                classMapping = mappingPath(annotation);
+            }
+        }
 
         MethodDeclaration[] methodDeclarations = node.getMethods();
         for (MethodDeclaration methodDeclaration : methodDeclarations) {
-            JavaMethod javaMethodInfo = createJavaMethodInfo(methodDeclaration, javaClassInfo.getFullName());
+            JavaMethod javaMethodInfo = createJavaMethodInfo(methodDeclaration, javaClassInfo.getFullName(), classMapping);
             if (javaMethodInfo != null) {
                 javaProject.addMethod(javaMethodInfo);
+                facts.getMethodList().add(javaMethodInfo);
             }
         }
 
@@ -36,6 +72,7 @@ public class JavaASTVisitor extends ASTVisitor {
             List<JavaField> javaFieldInfos = createJavaFieldInfos(fieldDeclaration, javaClassInfo.getFullName());
             for (JavaField javaFieldInfo : javaFieldInfos) {
                 javaProject.addField(javaFieldInfo);
+                facts.getFieldList().add(javaFieldInfo);
             }
         }
 
@@ -48,11 +85,12 @@ public class JavaASTVisitor extends ASTVisitor {
         boolean isInterface = node.isInterface();
         boolean isAbstract = Modifier.isAbstract(node.getModifiers());
         boolean isFinal = Modifier.isFinal(node.getModifiers());
-        String comment = node.getJavadoc() == null ? "" : sourceContent.substring(node.getJavadoc().getStartPosition(), node.getJavadoc().getStartPosition() + node.getJavadoc().getLength());
-        String content = sourceContent.substring(node.getStartPosition(), node.getStartPosition() + node.getLength());
-        String superClassType = node.getSuperclassType() == null ? "java.lang.Object" : NameResolver.getFullName(node.getSuperclassType());
-        String superInterfaceTypes = String.join(", ", (List<String>) node.superInterfaceTypes().stream().map(n -> NameResolver.getFullName((Type) n)).collect(Collectors.toList()));
-        JavaClass classInfo = new JavaClass(name, fullName, comment, content, superClassType, superInterfaceTypes);
+        String superClassType = node.getSuperclassType() == null ? "java.lang.Object" : nameResolver.resolve(node.getSuperclassType());
+        String superInterfaceTypes = String.join(", ", (List<String>) node.superInterfaceTypes().stream().map(n -> nameResolver.resolve((Type) n)).collect(Collectors.toList()));
+        JavaClass classInfo = new JavaClass(name, fullName, null, null, superClassType, superInterfaceTypes);
+        classInfo.setCommentRange(commentOf(node));
+        classInfo.setContentRange(rangeOf(node));
+        classInfo.setFilePath(filePath);
         // 是否是数据实体类
         // 两层判断逻辑：1.判断是否是@Data注解修饰的类；2.判断路径名是否包含entity
         List<IExtendedModifier> annotations = node.modifiers();
@@ -73,21 +111,22 @@ public class JavaASTVisitor extends ASTVisitor {
 
     }
 
-    private JavaMethod createJavaMethodInfo(MethodDeclaration node, String belongTo) {
+    /**
+     * @param classMapping 类上 @RequestMapping 声明的路由前缀，没有时为 null
+     */
+    private JavaMethod createJavaMethodInfo(MethodDeclaration node, String belongTo, String classMapping) {
         IMethodBinding methodBinding = node.resolveBinding();
         if (methodBinding == null)
             return null;
         String name = node.getName().getFullyQualifiedName();
         Type type = node.getReturnType2();
         String returnType = type == null ? "void" : type.toString();
-        String fullReturnType = NameResolver.getFullName(type);
+        String fullReturnType = nameResolver.resolve(type);
         boolean isConstruct = node.isConstructor();
         boolean isAbstract = Modifier.isAbstract(node.getModifiers());
         boolean isFinal = Modifier.isFinal(node.getModifiers());
         boolean isStatic = Modifier.isStatic(node.getModifiers());
         boolean isSynchronized = Modifier.isSynchronized(node.getModifiers());
-        String content = sourceContent.substring(node.getStartPosition(), node.getStartPosition() + node.getLength());
-        String comment = node.getJavadoc() == null ? "" : sourceContent.substring(node.getJavadoc().getStartPosition(), node.getJavadoc().getStartPosition() + node.getJavadoc().getLength());
         String params = String.join(", ", (List<String>) node.parameters().stream().map(n -> {
             SingleVariableDeclaration param = (SingleVariableDeclaration) n;
             return (Modifier.isFinal(param.getModifiers()) ? "final " : "") + param.getType().toString() + " " + param.getName().getFullyQualifiedName();
@@ -95,15 +134,17 @@ public class JavaASTVisitor extends ASTVisitor {
         String fullName = belongTo + "." + name;
         String fullParams = String.join(", ", (List<String>) node.parameters().stream().map(n -> {
             SingleVariableDeclaration param = (SingleVariableDeclaration) n;
-            return NameResolver.getFullName(param.getType());
+            return nameResolver.resolve(param.getType());
         }).collect(Collectors.toList()));
-        String throwTypes = String.join(", ", (List<String>) node.thrownExceptionTypes().stream().map(n -> NameResolver.getFullName((Type) n)).collect(Collectors.toList()));
-        Set<IMethodBinding> methodCalls = new HashSet<>();
-        StringBuilder fullVariables = new StringBuilder();
-        StringBuilder fieldAccesses = new StringBuilder();
-        parseMethodBody(methodCalls, fullVariables, fieldAccesses, node.getBody());
-        JavaMethod info = new JavaMethod(name, fullName, returnType, content, comment, params, methodBinding,
-                fullReturnType, belongTo, fullParams, fullVariables.toString(), methodCalls, fieldAccesses.toString(), throwTypes);
+        String throwTypes = String.join(", ", (List<String>) node.thrownExceptionTypes().stream().map(n -> nameResolver.resolve((Type) n)).collect(Collectors.toList()));
+        MethodBodyCollector collector = new MethodBodyCollector(nameResolver);
+        collector.collect(node.getBody());
+        JavaMethod info = new JavaMethod(name, fullName, returnType, null, null, params, getBindingKey(methodBinding),
+                fullReturnType, belongTo, fullParams, collector.getFullVariables(), collector.getMethodCalls(),
+                collector.getFieldAccesses(), throwTypes);
+        info.setContentRange(rangeOf(node));
+        info.setCommentRange(commentOf(node));
+        info.setFilePath(filePath);
         // check annotation
         List<IExtendedModifier> annotations = node.modifiers();
         for(IExtendedModifier modifier : annotations) {
@@ -112,26 +153,11 @@ public class JavaASTVisitor extends ASTVisitor {
                 if (annotationName.equals("GetMapping") || annotationName.equals("PostMapping")
                         || annotationName.equals("PutMapping") || annotationName.equals("DeleteMapping")
                         || annotationName.equals("RequestMapping")) {
-                    // 提取路由路径
+                    // 提取路由路径，拼接类上的路由前缀
                     String mappingUrl = null;
-                    if (annotation instanceof NormalAnnotation normalAnnotation) {
-                        for (Object obj : normalAnnotation.values()) { // 修改这里
-                            if (obj instanceof MemberValuePair) { // 添加类型检查
-                                MemberValuePair pair = (MemberValuePair) obj;
-                                if (pair.getName().toString().equals("value")) {
-                                    Expression expression = pair.getValue();
-                                    if (expression instanceof StringLiteral literal) {
-                                        mappingUrl = "@" + annotationName + "(\"" + literal.getLiteralValue() + "\")";
-                                    }
-                                }
-                            }
-                        }
-                    } else if (annotation instanceof SingleMemberAnnotation singleMemberAnnotation) {
-                        Expression expression = singleMemberAnnotation.getValue();
-                        if (expression instanceof StringLiteral) {
-                            StringLiteral literal = (StringLiteral) expression;
-                            mappingUrl = "@" + annotationName + "(\"" + literal.getLiteralValue() + "\")";
-                        }
+                    String path = mappingPath(annotation);
+                    if (path != null) {
+                        mappingUrl = "@" + annotationName + "(\"" + joinMapping(classMapping, path) + "\")";
                     }
                     if(StringUtils.isNotEmpty(mappingUrl)) {
 //                        mappingUrl = mappingUrl.substring(1).replaceAll("/", "_");
@@ -143,207 +169,93 @@ public class JavaASTVisitor extends ASTVisitor {
         return info;
     }
 
+    /**
+     * 映射注解的路由路径：单值注解的值，或 value / path 属性的值；数组取第一个元素，非字符串字面量时为 null
+     * 没有声明路径（如 @GetMapping、@PostMapping(produces = ...)）时为空字符串，即映射到类上的路由前缀
+     */
+    private static String mappingPath(Annotation annotation) {
+        if (annotation instanceof MarkerAnnotation) {
+            return "";
+        }
+        Expression expression = null;
+        if (annotation instanceof SingleMemberAnnotation singleMemberAnnotation) {
+            expression = singleMemberAnnotation.getValue();
+        } else if (annotation instanceof NormalAnnotation normalAnnotation) {
+            for (Object obj : normalAnnotation.values()) {
+                MemberValuePair pair = (MemberValuePair) obj;
+                String key = pair.getName().toString();
+                if (key.equals("value") || key.equals("path")) {
+                    expression = pair.getValue();
+                }
+            }
+            if (expression == null) {
+                return "";
+            }
+        }
+        if (expression instanceof ArrayInitializer array) {
+            if (array.expressions().isEmpty()) {
+                return "";
+            }
+            expression = (Expression) array.expressions().get(0);
+        }
+        return expression instanceof StringLiteral literal ? literal.getLiteralValue() : null;
+    }
+
+    /**
+     * 拼接类与方法的路由路径，类上没有前缀时方法路径保持原样
+     */
+    static String joinMapping(String classMapping, String methodMapping) {
+        if (StringUtils.isEmpty(classMapping)) {
+            return methodMapping;
+        }
+        String prefix = classMapping.endsWith("/") ? classMapping.substring(0, classMapping.length() - 1) : classMapping;
+        if (methodMapping.isEmpty()) {
+            return prefix.isEmpty() ? classMapping : prefix;
+        }
+        return prefix + (methodMapping.startsWith("/") ? "" : "/") + methodMapping;
+    }
+
     private List<JavaField> createJavaFieldInfos(FieldDeclaration node, String belongTo) {
         List<JavaField> r = new ArrayList<>();
         String type = node.getType().toString();
-        String fullType = NameResolver.getFullName(node.getType());
+        String fullType = nameResolver.resolve(node.getType());
         boolean isStatic = Modifier.isStatic(node.getModifiers());
         boolean isFinal = Modifier.isFinal(node.getModifiers());
-        String comment = node.getJavadoc() == null ? "" : sourceContent.substring(node.getJavadoc().getStartPosition(), node.getJavadoc().getStartPosition() + node.getJavadoc().getLength());
+        SourceRange comment = commentOf(node);
         node.fragments().forEach(n -> {
             VariableDeclarationFragment fragment = (VariableDeclarationFragment) n;
             String name = fragment.getName().getFullyQualifiedName();
             String fullName = belongTo + "." + name;
-            r.add(new JavaField(name, fullName, type, comment, belongTo, fullType));
+            JavaField field = new JavaField(name, fullName, type, null, belongTo, fullType);
+            field.setCommentRange(comment);
+            field.setFilePath(filePath);
+            r.add(field);
         });
         return r;
     }
 
-    private void parseMethodBody(Set<IMethodBinding> methodCalls, StringBuilder fullVariables, StringBuilder fieldAccesses, Block methodBody) {
-        if (methodBody == null)
-            return;
-        List<Statement> statementList = methodBody.statements();
-        List<Statement> statements = new ArrayList<>();
-        for (int i = 0; i < statementList.size(); i++) {
-            statements.add(statementList.get(i));
-        }
-        for (int i = 0; i < statements.size(); i++) {
+    private SourceRange rangeOf(ASTNode node) {
+        return source.range(node.getStartPosition(), node.getLength());
+    }
 
-            if (statements.get(i).getNodeType() == ASTNode.BLOCK) {
-                List<Statement> blockStatements = ((Block) statements.get(i)).statements();
-                for (int j = 0; j < blockStatements.size(); j++) {
-                    statements.add(i + j + 1, blockStatements.get(j));
-                }
-            }
-            else if (statements.get(i).getNodeType() == ASTNode.ASSERT_STATEMENT) {
-                Expression expression = ((AssertStatement) statements.get(i)).getExpression();
-                if (expression != null) {
-                    parseExpression(methodCalls, fieldAccesses, expression);
-                }
-                expression = ((AssertStatement) statements.get(i)).getMessage();
-                if (expression != null) {
-                    parseExpression(methodCalls, fieldAccesses, expression);
-                }
-            }
-            else if (statements.get(i).getNodeType() == ASTNode.DO_STATEMENT) {
-                Expression expression = ((DoStatement) statements.get(i)).getExpression();
-                if (expression != null) {
-                    parseExpression(methodCalls, fieldAccesses, expression);
-                }
-                Statement doBody = ((DoStatement) statements.get(i)).getBody();
-                if (doBody != null) {
-                    statements.add(i + 1, doBody);
-                }
-            }
-            else if (statements.get(i).getNodeType() == ASTNode.ENHANCED_FOR_STATEMENT) {
-                Expression expression = ((EnhancedForStatement) statements.get(i)).getExpression();
-                Type type = ((EnhancedForStatement) statements.get(i)).getParameter().getType();
-                fullVariables.append(NameResolver.getFullName(type) + ", ");
-                if (expression != null) {
-                    parseExpression(methodCalls, fieldAccesses, expression);
-                }
-                Statement forBody = ((EnhancedForStatement) statements.get(i)).getBody();
-                if (forBody != null) {
-                    statements.add(i + 1, forBody);
-                }
-            }
-            else if (statements.get(i).getNodeType() == ASTNode.EXPRESSION_STATEMENT) {
-                Expression expression = ((ExpressionStatement) statements.get(i)).getExpression();
-                if (expression != null) {
-                    parseExpression(methodCalls, fieldAccesses, expression);
-                }
-            }
-            else if (statements.get(i).getNodeType() == ASTNode.FOR_STATEMENT) {
-                List<Expression> list = ((ForStatement) statements.get(i)).initializers();
-                for (int j = 0; j < list.size(); j++) {
-                    parseExpression(methodCalls, fieldAccesses, list.get(j));
-                }
-                Expression expression = ((ForStatement) statements.get(i)).getExpression();
-                if (expression != null) {
-                    parseExpression(methodCalls, fieldAccesses, expression);
-                }
-                Statement forBody = ((ForStatement) statements.get(i)).getBody();
-                if (forBody != null) {
-                    statements.add(i + 1, forBody);
-                }
-            }
-            else if (statements.get(i).getNodeType() == ASTNode.IF_STATEMENT) {
-                Expression expression = ((IfStatement) statements.get(i)).getExpression();
-                if (expression != null) {
-                    parseExpression(methodCalls, fieldAccesses, expression);
-                }
-                Statement thenStatement = ((IfStatement) statements.get(i)).getThenStatement();
-                Statement elseStatement = ((IfStatement) statements.get(i)).getElseStatement();
-                if (elseStatement != null) {
-                    statements.add(i + 1, elseStatement);
-                }
-                if (thenStatement != null) {
-                    statements.add(i + 1, thenStatement);
-                }
-            }
-            else if (statements.get(i).getNodeType() == ASTNode.RETURN_STATEMENT) {
-                Expression expression = ((ReturnStatement) statements.get(i)).getExpression();
-                if (expression != null) {
-                    parseExpression(methodCalls, fieldAccesses, expression);
-                }
-            }
-            else if (statements.get(i).getNodeType() == ASTNode.SWITCH_STATEMENT) {
-                Expression expression = ((SwitchStatement) statements.get(i)).getExpression();
-                if (expression != null) {
-                    parseExpression(methodCalls, fieldAccesses, expression);
-                }
-                List<Statement> switchStatements = ((SwitchStatement) statements.get(i)).statements();
-                for (int j = 0; j < switchStatements.size(); j++) {
-                    statements.add(i + j + 1, switchStatements.get(j));
-                }
-            }
-            else if (statements.get(i).getNodeType() == ASTNode.THROW_STATEMENT) {
-                Expression expression = ((ThrowStatement) statements.get(i)).getExpression();
-                if (expression != null) {
-                    parseExpression(methodCalls, fieldAccesses, expression);
-                }
-            }
-            else if (statements.get(i).getNodeType() == ASTNode.TRY_STATEMENT) {
-                Statement tryStatement = ((TryStatement) statements.get(i)).getBody();
-                if (tryStatement != null) {
-                    statements.add(i + 1, tryStatement);
-                }
-                continue;
-            }
-            else if (statements.get(i).getNodeType() == ASTNode.VARIABLE_DECLARATION_STATEMENT) {
-                Type type = ((VariableDeclarationStatement) statements.get(i)).getType();
-                fullVariables.append(NameResolver.getFullName(type) + ", ");
-                ((VariableDeclarationStatement) statements.get(i)).fragments().forEach(n -> parseExpression(methodCalls, fieldAccesses, ((VariableDeclaration) n).getInitializer()));
-            }
-            else if (statements.get(i).getNodeType() == ASTNode.WHILE_STATEMENT) {
-                Expression expression = ((WhileStatement) statements.get(i)).getExpression();
-                if (expression != null) {
-                    parseExpression(methodCalls, fieldAccesses, expression);
-                }
-                Statement whileBody = ((WhileStatement) statements.get(i)).getBody();
-                if (whileBody != null) {
-                    statements.add(i + 1, whileBody);
-                }
-            }
-        }
+    /**
+     * 没有 Javadoc 时返回空的范围，对应空字符串
+     */
+    private SourceRange commentOf(BodyDeclaration node) {
+        Javadoc javadoc = node.getJavadoc();
+        return javadoc == null ? source.range(0, 0) : rangeOf(javadoc);
     }
 
-    private void parseExpression(Set<IMethodBinding> methodCalls, StringBuilder fieldAccesses, Expression expression) {
-        if (expression == null) {
-            return;
-        }
-        else if (expression.getNodeType() == ASTNode.ARRAY_INITIALIZER) {
-            List<Expression> expressions = ((ArrayInitializer) expression).expressions();
-            for (Expression expression2 : expressions) {
-                parseExpression(methodCalls, fieldAccesses, expression2);
-            }
-        }
-        else if (expression.getNodeType() == ASTNode.CAST_EXPRESSION) {
-            parseExpression(methodCalls, fieldAccesses, ((CastExpression) expression).getExpression());
-        }
-        else if (expression.getNodeType() == ASTNode.CONDITIONAL_EXPRESSION) {
-            parseExpression(methodCalls, fieldAccesses, ((ConditionalExpression) expression).getExpression());
-            parseExpression(methodCalls, fieldAccesses, ((ConditionalExpression) expression).getElseExpression());
-            parseExpression(methodCalls, fieldAccesses, ((ConditionalExpression) expression).getThenExpression());
-        }
-        else if (expression.getNodeType() == ASTNode.INFIX_EXPRESSION) {
-            parseExpression(methodCalls, fieldAccesses, ((InfixExpression) expression).getLeftOperand());
-            parseExpression(methodCalls, fieldAccesses, ((InfixExpression) expression).getRightOperand());
-        }
-        else if (expression.getNodeType() == ASTNode.INSTANCEOF_EXPRESSION) {
-            parseExpression(methodCalls, fieldAccesses, ((InstanceofExpression) expression).getLeftOperand());
-        }
-        else if (expression.getNodeType() == ASTNode.PARENTHESIZED_EXPRESSION) {
-            parseExpression(methodCalls, fieldAccesses, ((ParenthesizedExpression) expression).getExpression());
-        }
-        else if (expression.getNodeType() == ASTNode.POSTFIX_EXPRESSION) {
-            parseExpression(methodCalls, fieldAccesses, ((PostfixExpression) expression).getOperand());
-        }
-        else if (expression.getNodeType() == ASTNode.PREFIX_EXPRESSION) {
-            parseExpression(methodCalls, fieldAccesses, ((PrefixExpression) expression).getOperand());
-        }
-        else if (expression.getNodeType() == ASTNode.THIS_EXPRESSION) {
-            parseExpression(methodCalls, fieldAccesses, ((ThisExpression) expression).getQualifier());
-        }
-        else if (expression.getNodeType() == ASTNode.METHOD_INVOCATION) {
-            List<Expression> arguments = ((MethodInvocation) expression).arguments();
-            IMethodBinding methodBinding = ((MethodInvocation) expression).resolveMethodBinding();
-            if (methodBinding != null)
-                methodCalls.add(methodBinding);
-            for (Expression exp : arguments)
-                parseExpression(methodCalls, fieldAccesses, exp);
-            parseExpression(methodCalls, fieldAccesses, ((MethodInvocation) expression).getExpression());
-        }
-        else if (expression.getNodeType() == ASTNode.ASSIGNMENT) {
-            parseExpression(methodCalls, fieldAccesses, ((Assignment) expression).getLeftHandSide());
-            parseExpression(methodCalls, fieldAccesses, ((Assignment) expression).getRightHandSide());
-        }
-        else if (expression.getNodeType() == ASTNode.QUALIFIED_NAME) {
-            if (((QualifiedName) expression).getQualifier().resolveTypeBinding() != null) {
-                String name = ((QualifiedName) expression).getQualifier().resolveTypeBinding().getQualifiedName() + "." + ((QualifiedName) expression).getName().getIdentifier();
-                fieldAccesses.append(name + ", ");
-            }
-            parseExpression(methodCalls, fieldAccesses, ((QualifiedName) expression).getQualifier());
+    /**
+     * 取方法声明的 binding key
+     * 只保留字符串而不持有 IMethodBinding，避免整棵 AST 及其 binding 环境在 acceptAST 返回后仍被引用；
+     * 泛型方法的调用点统一归并到其原始声明
+     */
+    static String getBindingKey(IMethodBinding binding) {
+        if (binding == null) {
+            return null;
         }
+        IMethodBinding declaration = binding.getMethodDeclaration();
+        return declaration == null ? binding.getKey() : declaration.getKey();
     }
 }
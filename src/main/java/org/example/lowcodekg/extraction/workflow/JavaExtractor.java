@@ -1,79 +1,316 @@
 package org.example.lowcodekg.extraction.workflow;
 
 import com.alibaba.fastjson.JSONObject;
-import org.apache.commons.io.FileUtils;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.FileASTRequestor;
+import org.example.lowcodekg.extraction.ExtractionPipeline;
 import org.example.lowcodekg.extraction.KnowledgeExtractor;
+import org.example.lowcodekg.extraction.SourceScanner;
+import org.example.lowcodekg.extraction.cache.FactCache;
+import org.example.lowcodekg.extraction.incremental.FileManifest;
+import org.example.lowcodekg.extraction.incremental.IncrementalGraphUpdater;
+import org.example.lowcodekg.model.dao.neo4j.writer.RelationBatchWriter;
 import org.example.lowcodekg.model.schema.entity.workflow.JavaProject;
 import org.example.lowcodekg.common.util.JsonUtil;
+import org.example.lowcodekg.common.util.SourceText;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Java 项目解析类
+ * 多个项目之间相互独立，在有界线程池中并发解析；解析结果统一交给单个写线程存储到 Neo4j
+ * 开启 partitioned 模式后，单个项目的源文件按包划分为多个批次，由独立的 ASTParser 并行解析
+ * 增量模式下只解析内容哈希发生变化的源文件，并替换图中由这些文件派生的节点
+ * 开启解析结果缓存后，全量抽取时内容未变化的文件直接从缓存读取抽取结果，不再经过 JDT 解析；
+ * 项目的声明（类、方法、字段）有变化时缓存结果中的调用与类型引用可能失效，此时重新解析全部文件
  */
 @Service
 public class JavaExtractor extends KnowledgeExtractor {
 
+    private static final String[] SOURCE_ROOT_MARKERS = {"/src/main/java", "/src/test/java"};
+
     @Override
     public void extraction() {
+        Map<String, String> options = JavaCore.getOptions();
+        options.put("org.eclipse.jdt.core.compiler.source", "1.17");
+
+        IncrementalGraphUpdater updater = new IncrementalGraphUpdater(neo4jClient, elasticSearchService);
+        ExtractionPipeline<ParsedProject> pipeline = new ExtractionPipeline<>("java",
+                extractionConfig.getJavaProjectWorkers(), extractionConfig.getJavaMaxPendingWrites());
         for(String filePath: this.getDataDir()) {
-            JavaProject javaProject = new JavaProject(funcGenerateService);
-            javaProject.init();
-            javaProject.setElasticSearchService(elasticSearchService);
-
-            String projectName = filePath.split("/")[filePath.split("/").length - 1];
-            javaProject.setProjectName(projectName);
-            Collection<File> javaFiles = FileUtils.listFiles(new File(filePath), new String[]{"java"}, true);
-            Set<String> srcPathSet = new HashSet<>();
-            Set<String> srcFolderSet = new HashSet<>();
-            for (File javaFile : javaFiles) {
-                String srcPath = javaFile.getAbsolutePath();
-                String srcFolderPath = javaFile.getParentFile().getAbsolutePath();
-                srcPathSet.add(srcPath);
-                srcFolderSet.add(srcFolderPath);
+            pipeline.submit(() -> parseProject(filePath, new HashMap<>(options)),
+                    parsed -> storeProject(parsed, updater));
+        }
+        pipeline.await();
+    }
+
+    /**
+     * 解析结果及对应的文件清单，清单在写库完成后保存
+     */
+    private record ParsedProject(JavaProject javaProject, FileManifest manifest, FileManifest.Diff diff) {}
+
+    /**
+     * 调用 dao 接口存储到 neo4j
+     * 增量模式下先删除变更文件派生的节点，再关联保留下来的节点，最后恢复外部指向变更节点的关系
+     * 只有全部写入成功时才保存清单，否则下次运行重新处理本次变化的文件
+     */
+    private void storeProject(ParsedProject parsed, IncrementalGraphUpdater updater) {
+        JavaProject javaProject = parsed.javaProject();
+        List<IncrementalGraphUpdater.IncomingEdge> incoming = Collections.emptyList();
+        if(incremental) {
+            incoming = updater.removeJavaNodes(javaProject.getProjectName(), parsed.diff().toDelete());
+            updater.loadJavaEntities(javaProject.getProjectName(), javaProject);
+        }
+        javaProject.parse(workflowRepo, javaClassRepo, javaMethodRepo, javaFieldRepo);
+        long failures = javaProject.getWriteFailures();
+        if(incremental) {
+            // 恢复的关系写入失败时同样不能保存清单，否则下次运行视文件未变化，这些关系不会再恢复
+            RelationBatchWriter reconnectWriter = new RelationBatchWriter(neo4jClient, extractionConfig.getNeo4jBatchSize());
+            updater.reconnect(incoming, javaProject::findEntityId, reconnectWriter);
+            failures += reconnectWriter.getFailedCount();
+        }
+        if(failures > 0) {
+            System.err.println("manifest of " + javaProject.getProjectName() + " not saved: "
+                    + failures + " nodes or relations failed to write");
+            return;
+        }
+        parsed.manifest().save();
+    }
+
+    /**
+     * 解析单个项目目录下的 Java 源文件（增量模式下只解析有变化的文件），返回尚未持久化的项目模型
+     * 增量模式下没有任何文件变化时返回 null，跳过写库
+     */
+    private ParsedProject parseProject(String filePath, Map<String, String> options) {
+        JavaProject javaProject = new JavaProject(funcGenerateService);
+        javaProject.init();
+        javaProject.setElasticSearchService(elasticSearchService);
+        javaProject.setNeo4jClient(neo4jClient);
+        javaProject.setNeo4jBatchSize(extractionConfig.getNeo4jBatchSize());
+        javaProject.setBulkNodes(extractionConfig.isNeo4jBulkNodes());
+        javaProject.setTypeBloomFilter(extractionConfig.isJavaTypeBloomFilter());
+
+        String projectName = filePath.split("/")[filePath.split("/").length - 1];
+        javaProject.setProjectName(projectName);
+        SourceScanner scanner = scanSources(filePath);
+        List<SourceScanner.SourceFile> javaFiles = scanner.files("java");
+        FileManifest manifest = FileManifest.load(extractionConfig.getIncrementalCacheDir(), "java", JavaFileFacts.VERSION, filePath);
+        FileManifest.Diff diff = manifest.diff(scanner, javaFiles);
+        // 源码根目录按项目的全部文件推断：只解析部分文件（增量、命中缓存）时，其余文件中的类型仍需经源码路径解析
+        List<String> projectFiles = javaFiles.stream().map(javaFile -> javaFile.path().toString()).toList();
+        String[] sourceRoots = findSourceRoots(filePath, projectFiles);
+        Set<String> srcPathSet = new HashSet<>();
+        if(incremental) {
+            if(diff.isEmpty()) {
+                System.out.println("no java file changed in " + projectName);
+                return null;
             }
+            System.out.println("incremental java extraction of " + projectName + ": " + diff);
+            diff.toParse().forEach(relativePath -> srcPathSet.add(manifest.absolutePath(relativePath)));
+        } else {
+            srcPathSet.addAll(projectFiles);
+        }
+
+        // 缓存结果的有效性按项目全部文件的声明指纹校验，增量模式下未变化的文件不参与解析，无法计算指纹
+        FactCache<JavaFileFacts> factCache = null;
+        Map<String, FactCache.Entry<JavaFileFacts>> cached = new HashMap<>();
+        if(extractionConfig.isFactCacheEnabled() && !incremental) {
+            factCache = new FactCache<>(extractionConfig.getFactCacheDir(), "java", JavaFileFacts.VERSION, JavaFileFacts.CODEC);
+            cached = loadCachedFacts(srcPathSet, manifest, factCache);
+        }
+
+        // 解析完成的文件（相对路径）及其抽取结果，未能完成解析的文件不记入清单
+        Map<String, JavaFileFacts> parsedFacts = new ConcurrentHashMap<>();
+        parseSources(sourceRoots, srcPathSet, options, javaProject, manifest, parsedFacts);
+        if(factCache != null) {
+            List<JavaFileFacts> projectFacts = new ArrayList<>(parsedFacts.values());
+            cached.values().forEach(entry -> projectFacts.add(entry.facts()));
+            String fingerprint = JavaFileFacts.fingerprint(projectFacts);
+            boolean stale = cached.values().stream().anyMatch(entry -> !fingerprint.equals(entry.fingerprint()));
+            if(stale) {
+                // 声明有变化（方法签名、类型增删等），缓存中记录的调用 key 与类型名可能指向已不存在的声明
+                System.out.println("declarations of " + projectName + " changed, re-parse " + cached.size() + " cached files");
+                Set<String> reparse = new HashSet<>();
+                cached.keySet().forEach(relativePath -> reparse.add(manifest.absolutePath(relativePath)));
+                srcPathSet.addAll(reparse);
+                parseSources(sourceRoots, reparse, options, javaProject, manifest, parsedFacts);
+            } else {
+                cached.forEach((relativePath, entry) -> entry.facts().addTo(javaProject, relativePath));
+            }
+            String storedFingerprint = stale ? JavaFileFacts.fingerprint(parsedFacts.values()) : fingerprint;
+            for(Map.Entry<String, JavaFileFacts> entry: parsedFacts.entrySet()) {
+                factCache.store(manifest.hashOf(entry.getKey()), entry.getValue(), storedFingerprint);
+            }
+            System.out.println(factCache);
+        }
+        for(String srcPath: srcPathSet) {
+            String relativePath = manifest.relativePath(srcPath);
+            if(!parsedFacts.containsKey(relativePath)) {
+                manifest.markFailed(relativePath);
+            }
+        }
+        return new ParsedProject(javaProject, manifest, diff);
+    }
+
+    /**
+     * 从缓存读取内容未变化文件的抽取结果，命中的文件从 srcPathSet 中移除
+     * 结果在校验声明指纹之后才登记到 javaProject
+     * @return 相对路径 -> 缓存结果
+     */
+    private Map<String, FactCache.Entry<JavaFileFacts>> loadCachedFacts(Set<String> srcPathSet, FileManifest manifest,
+                                                                        FactCache<JavaFileFacts> factCache) {
+        Map<String, FactCache.Entry<JavaFileFacts>> cached = new HashMap<>();
+        Iterator<String> iterator = srcPathSet.iterator();
+        while(iterator.hasNext()) {
+            String relativePath = manifest.relativePath(iterator.next());
+            FactCache.Entry<JavaFileFacts> entry = factCache.loadEntry(manifest.hashOf(relativePath));
+            if(entry != null) {
+                cached.put(relativePath, entry);
+                iterator.remove();
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * 解析一组源文件，按配置整体解析或按包分批并行解析；只有文件被删除或全部命中缓存时无需解析
+     */
+    private void parseSources(String[] sourceRoots, Set<String> srcPathSet, Map<String, String> options,
+                              JavaProject javaProject, FileManifest manifest, Map<String, JavaFileFacts> parsedFacts) {
+        if(srcPathSet.isEmpty()) {
+            return;
+        }
+        if(extractionConfig.isJavaPartitioned()) {
+            parsePartitioned(sourceRoots, srcPathSet, options, javaProject, manifest, parsedFacts);
+        } else {
             String[] srcPaths = new String[srcPathSet.size()];
             srcPathSet.toArray(srcPaths);
+            parseBatch(sourceRoots, srcPaths, options, javaProject, manifest, parsedFacts);
+        }
+    }
+
+    /**
+     * 按包划分源文件并以有限的并发批次解析
+     * 每个批次使用独立的 ASTParser，批次之间的类型与方法通过源码路径解析，
+     * 跨批次的方法调用依赖稳定的 binding key 在 JavaProject 中关联
+     */
+    private void parsePartitioned(String[] sourceRoots, Collection<String> srcPaths, Map<String, String> options,
+                                  JavaProject javaProject, FileManifest manifest, Map<String, JavaFileFacts> parsedFacts) {
+        List<String[]> batches = partition(srcPaths, extractionConfig.getJavaBatchSize());
+        System.out.println("partitioned parsing " + javaProject.getProjectName() + ": "
+                + srcPaths.size() + " files in " + batches.size() + " batches");
+
+        ExecutorService batchPool = Executors.newFixedThreadPool(Math.max(1, extractionConfig.getJavaMaxInFlightBatches()));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (String[] batch : batches) {
+                futures.add(batchPool.submit(() -> parseBatch(sourceRoots, batch, options, javaProject, manifest, parsedFacts)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.err.println("Error in partitioned parsing: " + javaProject.getProjectName());
+        } finally {
+            batchPool.shutdown();
+        }
+    }
+
+    /**
+     * 使用一个 ASTParser 解析一组源文件，并将抽取结果写入 javaProject
+     * 解析完成的文件（相对路径）及其抽取结果加入 parsedFacts
+     */
+    private void parseBatch(String[] sourceRoots, String[] srcPaths, Map<String, String> options,
+                            JavaProject javaProject, FileManifest manifest, Map<String, JavaFileFacts> parsedFacts) {
+        ASTParser parser = ASTParser.newParser(AST.JLS10);
+        parser.setResolveBindings(true);
+        parser.setKind(ASTParser.K_COMPILATION_UNIT);
+        parser.setBindingsRecovery(true);
+        String[] rootEncodings = new String[sourceRoots.length];
+        Arrays.fill(rootEncodings, "utf-8");
+        parser.setEnvironment(null, sourceRoots, rootEncodings, true);
+        parser.setCompilerOptions(options);
+        String[] encodings = new String[srcPaths.length];
+        for (int i = 0; i < srcPaths.length; i++) {
+            encodings[i] = "utf-8";
+        }
+        parser.createASTs(srcPaths, encodings, new String[]{}, new FileASTRequestor() {
+            @Override
+            public void acceptAST(String sourceFilePath, CompilationUnit javaUnit) {
+                try {
+                    System.out.println("AST parsing: " + sourceFilePath);
+                    String relativePath = manifest.relativePath(sourceFilePath);
+                    JavaASTVisitor visitor = new JavaASTVisitor(javaProject, SourceText.read(sourceFilePath), relativePath);
+                    javaUnit.accept(visitor);
+                    parsedFacts.put(relativePath, visitor.getFacts());
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }, null);
+    }
 
-            String[] srcFolderPaths = new String[srcFolderSet.size()];
-            srcFolderSet.toArray(srcFolderPaths);
-
-            ASTParser parser = ASTParser.newParser(AST.JLS10);
-            parser.setResolveBindings(true);
-            parser.setKind(ASTParser.K_COMPILATION_UNIT);
-            parser.setBindingsRecovery(true);
-            parser.setEnvironment(null, new String[]{filePath}, new String[]{"utf-8"}, true);
-            Map<String, String> options = JavaCore.getOptions();
-            options.put("org.eclipse.jdt.core.compiler.source", "1.17");
-            parser.setCompilerOptions(options);
-            String[] encodings = new String[srcPaths.length];
-            for (int i = 0; i < srcPaths.length; i++) {
-                encodings[i] = "utf-8";
+    /**
+     * 将源文件按所在目录（即包）分组后装箱为批次，同一个包尽量落在同一批次中；
+     * 单个包的文件数超过 batchSize 时拆分到多个批次
+     */
+    static List<String[]> partition(Collection<String> srcPaths, int batchSize) {
+        int limit = Math.max(1, batchSize);
+        Map<String, List<String>> packages = new TreeMap<>();
+        for (String srcPath : srcPaths) {
+            String dir = new File(srcPath).getParent();
+            packages.computeIfAbsent(dir == null ? "" : dir, k -> new ArrayList<>()).add(srcPath);
+        }
+        List<String[]> batches = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        for (List<String> files : packages.values()) {
+            Collections.sort(files);
+            if (!current.isEmpty() && current.size() + files.size() > limit) {
+                batches.add(current.toArray(new String[0]));
+                current = new ArrayList<>();
+            }
+            for (String file : files) {
+                current.add(file);
+                if (current.size() >= limit) {
+                    batches.add(current.toArray(new String[0]));
+                    current = new ArrayList<>();
+                }
             }
-            parser.createASTs(srcPaths, encodings, new String[]{}, new FileASTRequestor() {
-                @Override
-                public void acceptAST(String sourceFilePath, CompilationUnit javaUnit) {
-                    try {
-                        System.out.println("AST parsing: " + sourceFilePath);
-                        javaUnit.accept(new JavaASTVisitor(javaProject, FileUtils.readFileToString(new File(sourceFilePath), "utf-8")));
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
+        }
+        if (!current.isEmpty()) {
+            batches.add(current.toArray(new String[0]));
+        }
+        return batches;
+    }
+
+    /**
+     * 推断源码根目录（Maven/Gradle 目录结构），使 ASTParser 能按包路径找到本次未解析的文件（其它批次、未变化或命中缓存的文件）中的类型
+     * 未识别出标准结构时退化为项目根目录
+     */
+    private static String[] findSourceRoots(String projectDir, Collection<String> srcPaths) {
+        Set<String> roots = new TreeSet<>();
+        roots.add(projectDir);
+        for (String srcPath : srcPaths) {
+            String normalized = srcPath.replace('\\', '/');
+            for (String marker : SOURCE_ROOT_MARKERS) {
+                int index = normalized.indexOf(marker + "/");
+                if (index >= 0) {
+                    roots.add(srcPath.substring(0, index + marker.length()));
+                    break;
                 }
-            }, null);
-            // 调用 dao 接口存储到 neo4j
-            javaProject.parse(workflowRepo, javaClassRepo, javaMethodRepo, javaFieldRepo);
+            }
         }
+        return roots.toArray(new String[0]);
     }
 }
@@ -0,0 +1,164 @@
+package org.example.lowcodekg.extraction.workflow;
+
+import lombok.Getter;
+import org.example.lowcodekg.extraction.cache.FactCache;
+import org.example.lowcodekg.extraction.cache.FactInput;
+import org.example.lowcodekg.extraction.cache.FactOutput;
+import org.example.lowcodekg.model.schema.entity.workflow.JavaClass;
+import org.example.lowcodekg.model.schema.entity.workflow.JavaField;
+import org.example.lowcodekg.model.schema.entity.workflow.JavaMethod;
+import org.example.lowcodekg.model.schema.entity.workflow.JavaProject;
+
+import org.example.lowcodekg.extraction.incremental.FileManifest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * JavaASTVisitor 从单个源文件中抽取出的类、方法、字段
+ * 只包含 AST 上直接得到的属性，实体间关系在 JavaProject.parse 中统一解析，因此可以脱离 AST 缓存复用
+ * 类型全限定名、方法调用与方法自身的 binding key 依赖其它文件的声明（如 B.foo(int) 改为 B.foo(long) 后，
+ * 未修改的调用方 A 中记录的调用 key 随之失效），因此缓存结果只有在项目的声明指纹与写入时一致时才能复用
+ */
+@Getter
+public class JavaFileFacts {
+
+    /**
+     * 抽取器版本，JavaASTVisitor 的抽取逻辑或此处的编码格式变化时需要提升
+     */
+    public static final int VERSION = 3;
+
+    public static final FactCache.Codec<JavaFileFacts> CODEC = new FactCache.Codec<>() {
+        @Override
+        public void write(FactOutput out, JavaFileFacts facts) throws IOException {
+            facts.write(out);
+        }
+
+        @Override
+        public JavaFileFacts read(FactInput in) {
+            return JavaFileFacts.read(in);
+        }
+    };
+
+    private final List<JavaClass> classList = new ArrayList<>();
+    private final List<JavaMethod> methodList = new ArrayList<>();
+    private final List<JavaField> fieldList = new ArrayList<>();
+
+    /**
+     * 将解析结果登记到项目中
+     * @param filePath 源文件相对项目目录的路径（缓存按内容共享，路径在登记时设置）
+     */
+    public void addTo(JavaProject javaProject, String filePath) {
+        classList.forEach(javaClass -> {
+            javaClass.setFilePath(filePath);
+            javaProject.addClass(javaClass);
+        });
+        methodList.forEach(javaMethod -> {
+            javaMethod.setFilePath(filePath);
+            javaProject.addMethod(javaMethod);
+        });
+        fieldList.forEach(javaField -> {
+            javaField.setFilePath(filePath);
+            javaProject.addField(javaField);
+        });
+    }
+
+    /**
+     * 项目声明的指纹：全部类、字段的全限定名与方法的全限定名、binding key
+     * 其它文件中的类型与方法调用只能解析到这些声明，指纹不变时缓存中的解析结果仍然有效
+     */
+    public static String fingerprint(Collection<JavaFileFacts> project) {
+        TreeSet<String> declarations = new TreeSet<>();
+        for(JavaFileFacts facts: project) {
+            facts.classList.forEach(javaClass -> declarations.add("C " + javaClass.getFullName()));
+            facts.methodList.forEach(javaMethod -> declarations.add("M " + javaMethod.getFullName() + " " + javaMethod.getBindingKey()));
+            facts.fieldList.forEach(javaField -> declarations.add("F " + javaField.getFullName()));
+        }
+        return FileManifest.sha256(String.join("\n", declarations).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void write(FactOutput out) throws IOException {
+        out.writeSize(classList);
+        for(JavaClass javaClass: classList) {
+            out.writeString(javaClass.getName());
+            out.writeString(javaClass.getFullName());
+            out.writeString(javaClass.getComment());
+            out.writeString(javaClass.getContent());
+            out.writeString(javaClass.getSuperClassType());
+            out.writeString(javaClass.getSuperInterfaceType());
+            out.writeBoolean(Boolean.TRUE.equals(javaClass.getIsData()));
+        }
+        out.writeSize(methodList);
+        for(JavaMethod javaMethod: methodList) {
+            out.writeString(javaMethod.getName());
+            out.writeString(javaMethod.getFullName());
+            out.writeString(javaMethod.getReturnType());
+            out.writeString(javaMethod.getFullReturnType());
+            out.writeString(javaMethod.getVisibility());
+            out.writeString(javaMethod.getModifier());
+            out.writeString(javaMethod.getMappingUrl());
+            out.writeString(javaMethod.getContent());
+            out.writeString(javaMethod.getComment());
+            out.writeString(javaMethod.getParams());
+            out.writeString(javaMethod.getFullParams());
+            out.writeString(javaMethod.getBindingKey());
+            out.writeString(javaMethod.getBelongTo());
+            out.writeString(javaMethod.getFieldAccesses());
+            out.writeString(javaMethod.getFullVariables());
+            out.writeStrings(javaMethod.getMethodCalls());
+            out.writeString(javaMethod.getThrowType());
+        }
+        out.writeSize(fieldList);
+        for(JavaField javaField: fieldList) {
+            out.writeString(javaField.getName());
+            out.writeString(javaField.getFullName());
+            out.writeString(javaField.getType());
+            out.writeString(javaField.getComment());
+            out.writeString(javaField.getBelongTo());
+            out.writeString(javaField.getFullType());
+        }
+    }
+
+    private static JavaFileFacts read(FactInput in) {
+        JavaFileFacts facts = new JavaFileFacts();
+        int classCount = in.readSize();
+        for(int i = 0; i < classCount; i++) {
+            JavaClass javaClass = new JavaClass(in.readString(), in.readString(), in.readString(),
+                    in.readString(), in.readString(), in.readString());
+            javaClass.setIsData(in.readBoolean());
+            facts.classList.add(javaClass);
+        }
+        int methodCount = in.readSize();
+        for(int i = 0; i < methodCount; i++) {
+            JavaMethod javaMethod = new JavaMethod();
+            javaMethod.setName(in.readString());
+            javaMethod.setFullName(in.readString());
+            javaMethod.setReturnType(in.readString());
+            javaMethod.setFullReturnType(in.readString());
+            javaMethod.setVisibility(in.readString());
+            javaMethod.setModifier(in.readString());
+            javaMethod.setMappingUrl(in.readString());
+            javaMethod.setContent(in.readString());
+            javaMethod.setComment(in.readString());
+            javaMethod.setParams(in.readString());
+            javaMethod.setFullParams(in.readString());
+            javaMethod.setBindingKey(in.readString());
+            javaMethod.setBelongTo(in.readString());
+            javaMethod.setFieldAccesses(in.readString());
+            javaMethod.setFullVariables(in.readString());
+            javaMethod.setMethodCalls(in.readStringSet());
+            javaMethod.setThrowType(in.readString());
+            facts.methodList.add(javaMethod);
+        }
+        int fieldCount = in.readSize();
+        for(int i = 0; i < fieldCount; i++) {
+            facts.fieldList.add(new JavaField(in.readString(), in.readString(), in.readString(),
+                    in.readString(), in.readString(), in.readString()));
+        }
+        return facts;
+    }
+}
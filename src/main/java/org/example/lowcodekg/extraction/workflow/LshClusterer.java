@@ -0,0 +1,144 @@
+package org.example.lowcodekg.extraction.workflow;
+
+import java.util.*;
+
+/**
+ * 基于随机超平面局部敏感哈希（SimHash）的向量聚类，用于合并多项目中近似重复的工作流
+ * 每张哈希表取 bitsPerTable 个随机超平面，向量在各超平面一侧的符号组成桶编号；
+ * 只有至少在一张表中落入同一个桶的向量才计算余弦相似度，相似度不低于阈值的向量以并查集合并
+ * 桶过大时每个向量只与桶内随后的 maxBucketComparisons 个向量比较，避免退化为两两比较
+ */
+public class LshClusterer {
+
+    private final int tables;
+    private final int bitsPerTable;
+    private final double threshold;
+    private final int maxBucketComparisons;
+    private final long seed;
+
+    public LshClusterer(int tables, int bitsPerTable, double threshold, int maxBucketComparisons, long seed) {
+        if (bitsPerTable < 1 || bitsPerTable > 63) {
+            throw new IllegalArgumentException("bitsPerTable must be in [1, 63]: " + bitsPerTable);
+        }
+        this.tables = Math.max(1, tables);
+        this.bitsPerTable = bitsPerTable;
+        this.threshold = threshold;
+        this.maxBucketComparisons = Math.max(1, maxBucketComparisons);
+        this.seed = seed;
+    }
+
+    /**
+     * @param vectors 维度相同的向量
+     * @return 每个向量所属簇的编号，同一簇的编号相同，取值为簇内最小的下标
+     */
+    public int[] cluster(List<float[]> vectors) {
+        int n = vectors.size();
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
+        if (n == 0) {
+            return parent;
+        }
+        int dimension = vectors.get(0).length;
+        float[][] normalized = new float[n][];
+        for (int i = 0; i < n; i++) {
+            normalized[i] = normalize(vectors.get(i));
+        }
+
+        Random random = new Random(seed);
+        float[][] hyperplanes = new float[bitsPerTable][dimension];
+        for (int table = 0; table < tables; table++) {
+            for (float[] hyperplane : hyperplanes) {
+                for (int d = 0; d < dimension; d++) {
+                    hyperplane[d] = (float) random.nextGaussian();
+                }
+            }
+            Map<Long, List<Integer>> buckets = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                buckets.computeIfAbsent(signature(normalized[i], hyperplanes), k -> new ArrayList<>()).add(i);
+            }
+            for (List<Integer> bucket : buckets.values()) {
+                for (int a = 0; a < bucket.size(); a++) {
+                    int limit = Math.min(bucket.size(), a + 1 + maxBucketComparisons);
+                    for (int b = a + 1; b < limit; b++) {
+                        int x = bucket.get(a);
+                        int y = bucket.get(b);
+                        int rootX = find(parent, x);
+                        int rootY = find(parent, y);
+                        if (rootX != rootY && dot(normalized[x], normalized[y]) >= threshold) {
+                            parent[Math.max(rootX, rootY)] = Math.min(rootX, rootY);
+                        }
+                    }
+                }
+            }
+        }
+        int[] labels = new int[n];
+        for (int i = 0; i < n; i++) {
+            labels[i] = find(parent, i);
+        }
+        return labels;
+    }
+
+    /**
+     * 簇中与簇中心最接近的向量作为代表
+     * @param members 簇内向量的下标
+     */
+    public static int representative(List<float[]> vectors, List<Integer> members) {
+        int dimension = vectors.get(members.get(0)).length;
+        float[] centroid = new float[dimension];
+        for (int member : members) {
+            float[] vector = normalize(vectors.get(member));
+            for (int d = 0; d < dimension; d++) {
+                centroid[d] += vector[d];
+            }
+        }
+        int best = members.get(0);
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int member : members) {
+            double score = dot(normalize(vectors.get(member)), centroid);
+            if (score > bestScore) {
+                bestScore = score;
+                best = member;
+            }
+        }
+        return best;
+    }
+
+    private long signature(float[] vector, float[][] hyperplanes) {
+        long signature = 0L;
+        for (int bit = 0; bit < hyperplanes.length; bit++) {
+            if (dot(vector, hyperplanes[bit]) >= 0) {
+                signature |= 1L << bit;
+            }
+        }
+        return signature;
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int d = 0; d < a.length; d++) {
+            sum += a[d] * b[d];
+        }
+        return sum;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = Math.sqrt(dot(vector, vector));
+        float[] normalized = new float[vector.length];
+        if (norm > 0) {
+            for (int d = 0; d < vector.length; d++) {
+                normalized[d] = (float) (vector[d] / norm);
+            }
+        }
+        return normalized;
+    }
+}
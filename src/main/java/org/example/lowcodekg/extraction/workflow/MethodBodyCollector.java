@@ -0,0 +1,179 @@
+package org.example.lowcodekg.extraction.workflow;
+
+import lombok.Getter;
+import org.eclipse.jdt.core.dom.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 一次遍历方法体，收集方法调用、局部变量类型与字段访问
+ * 按语句结构递归下降（先序），按节点类型分派，不再复制、展开语句列表；
+ * 覆盖的语句与表达式种类与原 JavaASTVisitor.parseMethodBody 保持一致
+ */
+public class MethodBodyCollector {
+
+    private final NameResolver nameResolver;
+
+    /**
+     * 方法体中调用的方法的 binding key
+     */
+    @Getter
+    private final Set<String> methodCalls = new HashSet<>();
+
+    private final StringBuilder fullVariables = new StringBuilder();
+    private final StringBuilder fieldAccesses = new StringBuilder();
+
+    public MethodBodyCollector(NameResolver nameResolver) {
+        this.nameResolver = nameResolver;
+    }
+
+    public void collect(Block methodBody) {
+        if (methodBody != null) {
+            statement(methodBody);
+        }
+    }
+
+    /**
+     * 局部变量类型，以 ", " 分隔
+     */
+    public String getFullVariables() {
+        return fullVariables.toString();
+    }
+
+    /**
+     * 访问的字段，以 ", " 分隔
+     */
+    public String getFieldAccesses() {
+        return fieldAccesses.toString();
+    }
+
+    private void statement(Statement statement) {
+        if (statement == null) {
+            return;
+        }
+        switch (statement.getNodeType()) {
+            case ASTNode.BLOCK -> statements(((Block) statement).statements());
+            case ASTNode.ASSERT_STATEMENT -> {
+                AssertStatement assertStatement = (AssertStatement) statement;
+                expression(assertStatement.getExpression());
+                expression(assertStatement.getMessage());
+            }
+            case ASTNode.DO_STATEMENT -> {
+                DoStatement doStatement = (DoStatement) statement;
+                expression(doStatement.getExpression());
+                statement(doStatement.getBody());
+            }
+            case ASTNode.ENHANCED_FOR_STATEMENT -> {
+                EnhancedForStatement forStatement = (EnhancedForStatement) statement;
+                variableType(forStatement.getParameter().getType());
+                expression(forStatement.getExpression());
+                statement(forStatement.getBody());
+            }
+            case ASTNode.EXPRESSION_STATEMENT -> expression(((ExpressionStatement) statement).getExpression());
+            case ASTNode.FOR_STATEMENT -> {
+                ForStatement forStatement = (ForStatement) statement;
+                expressions(forStatement.initializers());
+                expression(forStatement.getExpression());
+                statement(forStatement.getBody());
+            }
+            case ASTNode.IF_STATEMENT -> {
+                IfStatement ifStatement = (IfStatement) statement;
+                expression(ifStatement.getExpression());
+                statement(ifStatement.getThenStatement());
+                statement(ifStatement.getElseStatement());
+            }
+            case ASTNode.RETURN_STATEMENT -> expression(((ReturnStatement) statement).getExpression());
+            case ASTNode.SWITCH_STATEMENT -> {
+                SwitchStatement switchStatement = (SwitchStatement) statement;
+                expression(switchStatement.getExpression());
+                statements(switchStatement.statements());
+            }
+            case ASTNode.THROW_STATEMENT -> expression(((ThrowStatement) statement).getExpression());
+            // 与原实现一致，只处理 try 块，不处理 catch / finally
+            case ASTNode.TRY_STATEMENT -> statement(((TryStatement) statement).getBody());
+            case ASTNode.VARIABLE_DECLARATION_STATEMENT -> {
+                VariableDeclarationStatement declaration = (VariableDeclarationStatement) statement;
+                variableType(declaration.getType());
+                for (Object fragment : declaration.fragments()) {
+                    expression(((VariableDeclaration) fragment).getInitializer());
+                }
+            }
+            case ASTNode.WHILE_STATEMENT -> {
+                WhileStatement whileStatement = (WhileStatement) statement;
+                expression(whileStatement.getExpression());
+                statement(whileStatement.getBody());
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void statements(List<?> statements) {
+        for (Object statement : statements) {
+            statement((Statement) statement);
+        }
+    }
+
+    private void expression(Expression expression) {
+        if (expression == null) {
+            return;
+        }
+        switch (expression.getNodeType()) {
+            case ASTNode.ARRAY_INITIALIZER -> expressions(((ArrayInitializer) expression).expressions());
+            case ASTNode.CAST_EXPRESSION -> expression(((CastExpression) expression).getExpression());
+            case ASTNode.CONDITIONAL_EXPRESSION -> {
+                ConditionalExpression conditional = (ConditionalExpression) expression;
+                expression(conditional.getExpression());
+                expression(conditional.getElseExpression());
+                expression(conditional.getThenExpression());
+            }
+            case ASTNode.INFIX_EXPRESSION -> {
+                InfixExpression infix = (InfixExpression) expression;
+                expression(infix.getLeftOperand());
+                expression(infix.getRightOperand());
+            }
+            case ASTNode.INSTANCEOF_EXPRESSION -> expression(((InstanceofExpression) expression).getLeftOperand());
+            case ASTNode.PARENTHESIZED_EXPRESSION -> expression(((ParenthesizedExpression) expression).getExpression());
+            case ASTNode.POSTFIX_EXPRESSION -> expression(((PostfixExpression) expression).getOperand());
+            case ASTNode.PREFIX_EXPRESSION -> expression(((PrefixExpression) expression).getOperand());
+            case ASTNode.THIS_EXPRESSION -> expression(((ThisExpression) expression).getQualifier());
+            case ASTNode.METHOD_INVOCATION -> {
+                MethodInvocation invocation = (MethodInvocation) expression;
+                String bindingKey = JavaASTVisitor.getBindingKey(invocation.resolveMethodBinding());
+                if (bindingKey != null) {
+                    methodCalls.add(bindingKey);
+                }
+                expressions(invocation.arguments());
+                expression(invocation.getExpression());
+            }
+            case ASTNode.ASSIGNMENT -> {
+                Assignment assignment = (Assignment) expression;
+                expression(assignment.getLeftHandSide());
+                expression(assignment.getRightHandSide());
+            }
+            case ASTNode.QUALIFIED_NAME -> {
+                QualifiedName name = (QualifiedName) expression;
+                ITypeBinding qualifierType = name.getQualifier().resolveTypeBinding();
+                if (qualifierType != null) {
+                    fieldAccesses.append(nameResolver.qualifiedName(qualifierType))
+                            .append('.').append(name.getName().getIdentifier()).append(", ");
+                }
+                expression(name.getQualifier());
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void expressions(List<?> expressions) {
+        for (Object expression : expressions) {
+            expression((Expression) expression);
+        }
+    }
+
+    private void variableType(Type type) {
+        fullVariables.append(nameResolver.resolve(type)).append(", ");
+    }
+}
@@ -2,11 +2,19 @@ package org.example.lowcodekg.extraction.workflow;
 
 import org.eclipse.jdt.core.dom.*;
 
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Evaluates fully qualified name of TypeDeclaration, Type and Name objects.
+ * An instance caches qualified names per type binding; bindings are canonical within one
+ * parser environment, so an instance should live no longer than the compilation unit it serves.
  */
 public class NameResolver {
 
+    private final Map<ITypeBinding, String> bindingNames = new IdentityHashMap<>();
+
     /**
      * Evaluates fully qualified name of the TypeDeclaration object.
      */
@@ -33,54 +41,75 @@ public class NameResolver {
      * Evaluates fully qualified name of the Type object.
      */
     public static String getFullName(Type t) {
+        StringBuilder name = new StringBuilder();
+        appendFullName(name, t, null);
+        return name.toString();
+    }
+
+    /**
+     * Evaluates fully qualified name of the Type object, reusing names of already seen bindings.
+     */
+    public String resolve(Type t) {
+        StringBuilder name = new StringBuilder();
+        appendFullName(name, t, this);
+        return name.toString();
+    }
+
+    /**
+     * Qualified name of the binding, cached per binding.
+     */
+    public String qualifiedName(ITypeBinding binding) {
+        return bindingNames.computeIfAbsent(binding, ITypeBinding::getQualifiedName);
+    }
+
+    private static void appendFullName(StringBuilder name, Type t, NameResolver resolver) {
         if (t == null)
-            return "";
+            return;
         ITypeBinding binding = t.resolveBinding();
-        if (binding != null){
-            return binding.getQualifiedName();
+        if (binding != null) {
+            name.append(resolver == null ? binding.getQualifiedName() : resolver.qualifiedName(binding));
+            return;
         }
         if (t.isNameQualifiedType()) {
-            return ((NameQualifiedType) t).getQualifier().getFullyQualifiedName();
-        }
-        if (t.isPrimitiveType()) {
-            return t.toString();
-        }
-        if (t.isQualifiedType()) {
+            name.append(((NameQualifiedType) t).getQualifier().getFullyQualifiedName());
+        } else if (t.isPrimitiveType()) {
+            name.append(t);
+        } else if (t.isQualifiedType()) {
             QualifiedType t0 = (QualifiedType) t;
-            return getFullName(t0.getQualifier()) + "." + t0.getName().getIdentifier();
-        }
-        if (t.isSimpleType()) {
-            return ((SimpleType) t).getName().getFullyQualifiedName();
-        }
-        if (t.isWildcardType()) {
-            return "? (extends|super) " + getFullName(((WildcardType) t).getBound());
+            appendFullName(name, t0.getQualifier(), resolver);
+            name.append('.').append(t0.getName().getIdentifier());
+        } else if (t.isSimpleType()) {
+            name.append(((SimpleType) t).getName().getFullyQualifiedName());
+        } else if (t.isWildcardType()) {
+            name.append("? (extends|super) ");
+            appendFullName(name, ((WildcardType) t).getBound(), resolver);
+        } else if (t.isParameterizedType()) {
+            ParameterizedType t0 = (ParameterizedType) t;
+            appendFullName(name, t0.getType(), resolver);
+            name.append('<');
+            appendJoined(name, t0.typeArguments(), ',', resolver);
+            name.append('>');
+        } else if (t.isUnionType()) {
+            appendJoined(name, ((UnionType) t).types(), '|', resolver);
+        } else if (t.isIntersectionType()) {
+            appendJoined(name, ((IntersectionType) t).types(), '&', resolver);
+        } else if (t.isArrayType()) {
+            appendFullName(name, ((ArrayType) t).getElementType(), resolver);
+            name.append("[]");
         }
+    }
 
-        if (t.isParameterizedType()) {
-            ParameterizedType t0 = ((ParameterizedType) t);
-            String s = getFullName(t0.getType()) + "<";
-            for (Object type : t0.typeArguments())
-                s += getFullName((Type) type) + ",";
-            return s.substring(0, s.length() - 1) + ">";
-        }
-        if (t.isUnionType()) {
-            UnionType t0 = (UnionType) t;
-            String s = "";
-            for (Object type : t0.types())
-                s += getFullName((Type) type) + "|";
-            return s.substring(0, s.length() - 1);
-        }
-        if (t.isIntersectionType()) {
-            IntersectionType t0 = (IntersectionType) t;
-            String s = "";
-            for (Object type : t0.types())
-                s += getFullName((Type) type) + "&";
-            return s.substring(0, s.length() - 1);
+    /**
+     * Appends each type followed by the separator, then drops the last character
+     * (the trailing separator, or the opening bracket when there are no types).
+     */
+    private static void appendJoined(StringBuilder name, List<?> types, char separator, NameResolver resolver) {
+        for (Object type : types) {
+            appendFullName(name, (Type) type, resolver);
+            name.append(separator);
         }
-        if (t.isArrayType()) {
-            return getFullName(((ArrayType) t).getElementType()) + "[]";
+        if (name.length() > 0) {
+            name.setLength(name.length() - 1);
         }
-        return "";
     }
-
 }
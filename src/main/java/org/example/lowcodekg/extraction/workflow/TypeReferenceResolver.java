@@ -0,0 +1,130 @@
+package org.example.lowcodekg.extraction.workflow;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 将类型字符串（参数列表、返回值、泛型签名等）解析为项目中已知的实体
+ * 与逐次执行 split("[^\\w\\.]+") 再逐个查表的做法结果一致，区别在于：
+ * 1. 手写扫描分词，不再为每个字符串编译执行正则、创建 token 数组
+ * 2. 相同的类型字符串只解析一次，结果缓存复用（泛型签名在项目中大量重复）
+ * 3. 可选的 Bloom filter 在查表前过滤掉必然不存在的 token（如 String、List 等 JDK 类型）
+ * 解析器在实体表构建完成后创建，实体表之后不应再修改
+ *
+ * @param <T> 实体类型
+ */
+public class TypeReferenceResolver<T> {
+
+    private final Map<String, T> index;
+    private final Map<String, Set<T>> memo = new ConcurrentHashMap<>();
+    private final BloomFilter bloomFilter;
+
+    public TypeReferenceResolver(Map<String, T> index) {
+        this(index, false);
+    }
+
+    /**
+     * @param index 全限定名到实体的索引
+     * @param useBloomFilter 是否在查表前使用 Bloom filter 预过滤
+     */
+    public TypeReferenceResolver(Map<String, T> index, boolean useBloomFilter) {
+        this.index = index;
+        if(useBloomFilter) {
+            this.bloomFilter = new BloomFilter(index.size());
+            index.keySet().forEach(bloomFilter::add);
+        } else {
+            this.bloomFilter = null;
+        }
+    }
+
+    /**
+     * 解析类型字符串中引用到的实体，返回的集合不可修改
+     */
+    public Set<T> resolve(String str) {
+        if(Objects.isNull(str) || str.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return memo.computeIfAbsent(str, this::doResolve);
+    }
+
+    private Set<T> doResolve(String str) {
+        Set<T> r = null;
+        int length = str.length();
+        int start = -1;
+        for(int i = 0; i <= length; i++) {
+            if(i < length && isTokenChar(str.charAt(i))) {
+                if(start < 0) {
+                    start = i;
+                }
+            } else if(start >= 0) {
+                T entity = lookup(str.substring(start, i));
+                if(entity != null) {
+                    if(r == null) {
+                        r = new HashSet<>();
+                    }
+                    r.add(entity);
+                }
+                start = -1;
+            }
+        }
+        return r == null ? Collections.emptySet() : Collections.unmodifiableSet(r);
+    }
+
+    private T lookup(String token) {
+        if(bloomFilter != null && !bloomFilter.mightContain(token)) {
+            return null;
+        }
+        return index.get(token);
+    }
+
+    /**
+     * 与正则中的 [\w\.] 一致：ASCII 字母、数字、下划线和点
+     */
+    private static boolean isTokenChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '.';
+    }
+
+    /**
+     * 简单的 Bloom filter，约每个元素 10 bit、3 个哈希函数（误判率约 1.7%）
+     */
+    static class BloomFilter {
+
+        private static final int HASHES = 3;
+
+        private final long[] bits;
+        private final int size;
+
+        BloomFilter(int expected) {
+            this.size = Math.max(64, expected * 10);
+            this.bits = new long[(size + 63) / 64];
+        }
+
+        void add(String value) {
+            int h1 = value.hashCode();
+            int h2 = mix(h1);
+            for(int i = 0; i < HASHES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, size);
+                bits[bit >>> 6] |= 1L << bit;
+            }
+        }
+
+        boolean mightContain(String value) {
+            int h1 = value.hashCode();
+            int h2 = mix(h1);
+            for(int i = 0; i < HASHES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, size);
+                if((bits[bit >>> 6] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int mix(int h) {
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            return h | 1;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.lowcodekg.extraction.workflow;
+
+import org.example.lowcodekg.extraction.KnowledgeExtractor;
+import org.example.lowcodekg.model.dao.neo4j.writer.NodeBatchWriter;
+import org.example.lowcodekg.model.dao.neo4j.writer.RelationBatchWriter;
+
+import java.util.*;
+
+import static org.example.lowcodekg.query.utils.Constants.WORKFLOW_INDEX_NAME;
+
+/**
+ * 多项目工作流聚类
+ * 读取 ES 中工作流功能描述的向量，以 LshClusterer 合并近似重复的工作流；每个包含多个工作流的簇
+ * 生成一个 WorkflowCluster 节点（名称与描述取自最接近簇中心的工作流），通过 CONTAIN 关联其成员，
+ * 并将簇节点 id 写入成员的 cluster_id（WorkflowEntity.cid）；未与其他工作流合并的工作流不设置 cluster_id
+ * 每次执行都会重新聚类全部工作流，需在 WorkflowExtractor 之后执行
+ */
+public class WorkflowClusterExtractor extends KnowledgeExtractor {
+
+    @Override
+    public void extraction() {
+        try {
+            // 向量由摘要流水线写入 ES，先等待其完成
+            funcGenerateService.awaitCompletion();
+
+            Map<Long, String[]> workflows = new HashMap<>();
+            neo4jClient.query("""
+                            MATCH (w:Workflow)
+                            WHERE NOT w:WorkflowModule AND w.description IS NOT NULL
+                            RETURN id(w) AS id, w.name AS name, w.description AS description
+                            """)
+                    .fetch().all()
+                    .forEach(row -> workflows.put(((Number) row.get("id")).longValue(),
+                            new String[]{(String) row.get("name"), (String) row.get("description")}));
+
+            List<Long> ids = new ArrayList<>();
+            List<float[]> vectors = new ArrayList<>();
+            elasticSearchService.scanDocuments(WORKFLOW_INDEX_NAME, List.of("embedding"),
+                    extractionConfig.getNeo4jBatchSize(), document -> {
+                        Long id = Long.valueOf(document.getId());
+                        if(workflows.containsKey(id) && document.getEmbedding() != null && document.getEmbedding().length > 0) {
+                            ids.add(id);
+                            vectors.add(document.getEmbedding());
+                        }
+                    });
+
+            long start = System.nanoTime();
+            LshClusterer clusterer = new LshClusterer(extractionConfig.getClusterTables(), extractionConfig.getClusterBits(),
+                    extractionConfig.getClusterSimilarity(), extractionConfig.getClusterMaxBucketComparisons(), 42L);
+            int[] labels = clusterer.cluster(vectors);
+            Map<Integer, List<Integer>> clusters = new LinkedHashMap<>();
+            for(int i = 0; i < labels.length; i++) {
+                clusters.computeIfAbsent(labels[i], k -> new ArrayList<>()).add(i);
+            }
+            clusters.values().removeIf(members -> members.size() < 2);
+            System.out.printf("workflow clustering: %d workflows, %d clusters in %.2fs%n",
+                    vectors.size(), clusters.size(), (System.nanoTime() - start) / 1e9);
+
+            // 清除上一次的聚类结果
+            neo4jClient.query("MATCH (c:WorkflowCluster) DETACH DELETE c").run();
+            neo4jClient.query("MATCH (w:Workflow) WHERE w.cluster_id IS NOT NULL REMOVE w.cluster_id").run();
+
+            List<Map<String, Object>> clusterNodes = new ArrayList<>();
+            for(List<Integer> members: clusters.values()) {
+                Long representative = ids.get(LshClusterer.representative(vectors, members));
+                String[] info = workflows.get(representative);
+                Map<String, Object> properties = new HashMap<>();
+                properties.put("name", info[0]);
+                properties.put("description", info[1]);
+                properties.put("size", members.size());
+                properties.put("representative", representative);
+                clusterNodes.add(properties);
+            }
+            Map<Map<String, Object>, Long> clusterIds = new IdentityHashMap<>();
+            new NodeBatchWriter(neo4jClient, extractionConfig.getNeo4jBatchSize())
+                    .create(clusterNodes, properties -> "WorkflowCluster", properties -> properties, clusterIds::put);
+
+            RelationBatchWriter relationWriter = new RelationBatchWriter(neo4jClient, extractionConfig.getNeo4jBatchSize());
+            List<Map<String, Object>> rows = new ArrayList<>();
+            int index = 0;
+            for(List<Integer> members: clusters.values()) {
+                Long clusterId = clusterIds.get(clusterNodes.get(index++));
+                if(clusterId == null) {
+                    continue;
+                }
+                for(int member: members) {
+                    relationWriter.add("WorkflowCluster", "CONTAIN", "Workflow", clusterId, ids.get(member));
+                    rows.add(Map.of("id", ids.get(member), "cid", clusterId));
+                }
+            }
+            relationWriter.flush();
+            int batchSize = Math.max(1, extractionConfig.getNeo4jBatchSize());
+            for(int from = 0; from < rows.size(); from += batchSize) {
+                neo4jClient.query("""
+                                UNWIND $rows AS row
+                                MATCH (w:Workflow) WHERE id(w) = row.id
+                                SET w.cluster_id = row.cid
+                                """)
+                        .bind(rows.subList(from, Math.min(from + batchSize, rows.size()))).to("rows")
+                        .run();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.err.println("Error in workflow clustering");
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package org.example.lowcodekg.extraction.workflow;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * 组装工作流的 content 属性（即功能描述提示中的 {code}）
+ * 方法与数据对象按 id 去重，方法按调用深度排列；在 token 预算内按以下优先级展开：
+ * 1. 入口方法始终保留完整代码
+ * 2. 其余方法先只保留签名，再按深度依次将浅层（不超过 fullBodyDepth）且非工具类的方法展开为完整代码
+ * 3. 数据对象先只保留类结构（字段与方法签名），预算有余时再展开为完整代码
+ * 仅签名也超出预算时，从最深的方法开始省略，并在末尾注明省略数量
+ * tokenBudget 不大于 0 时不限制，全部使用完整代码
+ */
+public class WorkflowContentBuilder {
+
+    private static final Pattern UTILITY_CLASS = Pattern.compile(".*(Util|Utils|Helper|Helpers|Constant|Constants|Tool|Tools)$");
+    private static final Pattern ACCESSOR = Pattern.compile("(get|set|is)[A-Z].*");
+    private static final int ACCESSOR_MAX_LINES = 5;
+    private static final int OMITTED_NOTE_TOKENS = 10;
+
+    /**
+     * 方法或数据对象
+     * @param id 节点 id
+     * @param fullName 方法为 类全名.方法名，数据对象为类全名
+     * @param content 源代码
+     */
+    public record Part(long id, String fullName, String content) {}
+
+    private final int tokenBudget;
+    private final int fullBodyDepth;
+
+    public WorkflowContentBuilder(int tokenBudget, int fullBodyDepth) {
+        this.tokenBudget = tokenBudget;
+        this.fullBodyDepth = fullBodyDepth;
+    }
+
+    /**
+     * @param methods 调用链上的方法，第一个为入口方法
+     * @param depths 方法 id -> 调用深度，缺失的方法视为比已知深度都深
+     * @param dataObjects 相关的数据对象
+     */
+    public String build(List<Part> methods, Map<Long, Integer> depths, List<Part> dataObjects) {
+        List<Item> methodItems = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (Part method : methods) {
+            if (seen.add(method.id())) {
+                int depth = depths.getOrDefault(method.id(), Integer.MAX_VALUE);
+                methodItems.add(new Item(method, methodItems.isEmpty() ? 0 : Math.max(1, depth), outline(method.content(), 0)));
+            }
+        }
+        // 按深度稳定排序，同一深度保持调用链中调用方在前的顺序
+        if (methodItems.size() > 1) {
+            methodItems.subList(1, methodItems.size()).sort(Comparator.comparingInt(item -> item.depth));
+        }
+        List<Item> dataItems = new ArrayList<>();
+        Set<String> seenNames = new HashSet<>();
+        for (Part dataObject : dataObjects) {
+            if (seen.add(dataObject.id()) && (dataObject.fullName() == null || seenNames.add(dataObject.fullName()))) {
+                dataItems.add(new Item(dataObject, 0, outline(dataObject.content(), 1)));
+            }
+        }
+        if (tokenBudget <= 0) {
+            methodItems.forEach(item -> item.full = true);
+            dataItems.forEach(item -> item.full = true);
+            return render(methodItems, dataItems, 0);
+        }
+
+        Item entry = methodItems.isEmpty() ? null : methodItems.get(0);
+        int used = 0;
+        if (entry != null) {
+            entry.full = true;
+            if (entry.fullTokens > tokenBudget) {
+                entry.text = prefixWithin(entry.text, tokenBudget - 1);
+                entry.fullTokens = estimateTokens(entry.text) + 1;
+            }
+            used = entry.fullTokens;
+        }
+        List<Item> compact = new ArrayList<>(methodItems.subList(Math.min(1, methodItems.size()), methodItems.size()));
+        compact.addAll(dataItems);
+        for (Item item : compact) {
+            used += item.compactTokens;
+        }
+        // 仅签名也放不下时，先省略最深的方法，再省略靠后的数据对象
+        int omitted = 0;
+        while (used + (omitted > 0 ? OMITTED_NOTE_TOKENS : 0) > tokenBudget && !compact.isEmpty()) {
+            Item removed = removeLast(compact, methodItems.size() > 1 ? methodItems : dataItems);
+            if (removed == null) {
+                removed = removeLast(compact, dataItems);
+            }
+            used -= removed.compactTokens;
+            omitted++;
+        }
+        int budget = tokenBudget - (omitted > 0 ? OMITTED_NOTE_TOKENS : 0);
+        for (Item item : methodItems) {
+            if (item != entry && item.depth <= fullBodyDepth && !isUtility(item.part)
+                    && used - item.compactTokens + item.fullTokens <= budget) {
+                used += item.fullTokens - item.compactTokens;
+                item.full = true;
+            }
+        }
+        for (Item item : dataItems) {
+            if (used - item.compactTokens + item.fullTokens <= budget) {
+                used += item.fullTokens - item.compactTokens;
+                item.full = true;
+            }
+        }
+        return render(methodItems, dataItems, omitted);
+    }
+
+    private static Item removeLast(List<Item> compact, List<Item> from) {
+        for (int i = from.size() - 1; i >= 0; i--) {
+            Item item = from.get(i);
+            if (!item.full && compact.remove(item)) {
+                from.remove(i);
+                return item;
+            }
+        }
+        return null;
+    }
+
+    private static String render(List<Item> methodItems, List<Item> dataItems, int omitted) {
+        StringBuilder content = new StringBuilder();
+        for (Item item : methodItems) {
+            content.append(item.full ? item.text : item.compact).append("\n");
+        }
+        for (Item item : dataItems) {
+            content.append(item.full ? item.text : item.compact).append("\n");
+        }
+        if (omitted > 0) {
+            content.append("// ").append(omitted).append(" more methods or classes omitted\n");
+        }
+        return content.toString();
+    }
+
+    /**
+     * 工具类中的方法，或简短的 getter / setter
+     */
+    static boolean isUtility(Part method) {
+        String fullName = method.fullName();
+        if (fullName == null) {
+            return false;
+        }
+        int dot = fullName.lastIndexOf('.');
+        String methodName = fullName.substring(dot + 1);
+        String className = dot < 0 ? "" : fullName.substring(fullName.lastIndexOf('.', dot - 1) + 1, dot);
+        if (UTILITY_CLASS.matcher(className).matches()) {
+            return true;
+        }
+        return ACCESSOR.matcher(methodName).matches()
+                && method.content() != null && method.content().lines().count() <= ACCESSOR_MAX_LINES;
+    }
+
+    /**
+     * 代码结构：去掉注释，嵌套深度超过 keepDepth 的代码块替换为 { ... }
+     * keepDepth 为 0 时得到方法签名，为 1 时得到类的字段与方法签名
+     */
+    static String outline(String code, int keepDepth) {
+        if (code == null) {
+            return "null";
+        }
+        StringBuilder out = new StringBuilder(Math.min(code.length(), 256));
+        int depth = 0;
+        int length = code.length();
+        for (int i = 0; i < length; i++) {
+            char c = code.charAt(i);
+            char next = i + 1 < length ? code.charAt(i + 1) : '\0';
+            if (c == '/' && next == '/') {
+                i = skipTo(code, i + 2, "\n") - 1;
+                continue;
+            }
+            if (c == '/' && next == '*') {
+                i = skipTo(code, i + 2, "*/") + 1;
+                continue;
+            }
+            if (c == '"' || c == '\'') {
+                int end = skipLiteral(code, i, c);
+                if (depth <= keepDepth) {
+                    out.append(code, i, end + 1);
+                }
+                i = end;
+                continue;
+            }
+            if (c == '{') {
+                depth++;
+                if (depth <= keepDepth) {
+                    out.append(c);
+                } else if (depth == keepDepth + 1) {
+                    out.append("{ ... }");
+                }
+            } else if (c == '}') {
+                depth = Math.max(0, depth - 1);
+                if (depth < keepDepth) {
+                    out.append(c);
+                }
+            } else if (depth <= keepDepth) {
+                out.append(c);
+            }
+        }
+        return out.toString().replaceAll("[ \\t]*\\n(\\s*\\n)+", "\n").strip();
+    }
+
+    private static int skipTo(String code, int from, String terminator) {
+        int end = code.indexOf(terminator, from);
+        return end < 0 ? code.length() : end;
+    }
+
+    private static int skipLiteral(String code, int start, char quote) {
+        for (int i = start + 1; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == quote || c == '\n') {
+                return i;
+            }
+        }
+        return code.length() - 1;
+    }
+
+    /**
+     * 粗略估计 token 数：ASCII 字符按 4 个一个 token，其余字符（如中文）每个一个 token
+     */
+    static int estimateTokens(String text) {
+        if (text == null) {
+            return 1;
+        }
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 128) {
+                ascii++;
+            } else {
+                other++;
+            }
+        }
+        return (ascii + 3) / 4 + other;
+    }
+
+    private static String prefixWithin(String text, int tokens) {
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 128) {
+                ascii++;
+            } else {
+                other++;
+            }
+            if ((ascii + 3) / 4 + other > tokens) {
+                return text.substring(0, i);
+            }
+        }
+        return text;
+    }
+
+    private static class Item {
+        private final Part part;
+        private final int depth;
+        private final String compact;
+        private final int compactTokens;
+        private String text;
+        private int fullTokens;
+        private boolean full = false;
+
+        private Item(Part part, int depth, String compact) {
+            this.part = part;
+            this.depth = depth;
+            this.text = String.valueOf(part.content());
+            // 每项之后的换行计 1 个 token
+            this.fullTokens = estimateTokens(text) + 1;
+            this.compact = compact;
+            this.compactTokens = estimateTokens(compact) + 1;
+        }
+    }
+}
@@ -1,144 +1,197 @@
 package org.example.lowcodekg.extraction.workflow;
 
-import org.example.lowcodekg.model.dao.neo4j.entity.java.JavaClassEntity;
-import org.example.lowcodekg.model.dao.neo4j.entity.java.WorkflowEntity;
-import org.example.lowcodekg.model.dao.neo4j.entity.java.JavaMethodEntity;
 import org.example.lowcodekg.extraction.KnowledgeExtractor;
-import org.neo4j.driver.QueryRunner;
-import org.neo4j.driver.Result;
-import org.neo4j.driver.types.Node;
+import org.example.lowcodekg.model.dao.neo4j.cypher.CypherQuery;
+import org.example.lowcodekg.model.dao.neo4j.entity.java.WorkflowEntity;
+import org.example.lowcodekg.model.dao.neo4j.writer.RelationBatchWriter;
 
-import java.text.MessageFormat;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
 
 /**
  * 从请求响应方法出发，抽取出该功能实现的方法调用链以及相关的数据实体
+ * 一次性读取全部 METHOD_CALL 关系构建内存调用图，经强连通分量缩点后求各入口方法的传递闭包，
+ * 多个工作流共享的调用子图只计算一次；方法内容、cid 与数据对象关联均批量读写，
+ * content 由 WorkflowContentBuilder 去重、按调用深度排列并控制在 token 预算内，
+ * 功能描述提交给摘要流水线异步生成
+ * 增量模式下只处理尚无描述的工作流（新建的，或调用链经过变更文件而被清空描述的）
  * @return 工作流实体
  * @author Sherloque
  * @date 2025/3/15
  */
 public class WorkflowExtractor extends KnowledgeExtractor {
 
+    /**
+     * 工作流及其入口方法
+     */
+    private record WorkflowEntry(long workflowId, String name, String fullName, long methodId) {}
+
+    private static final CypherQuery<WorkflowEntry> ALL_ENTRIES = CypherQuery.define("workflow entries", """
+            MATCH (w:Workflow)-[:CONTAIN]->(m:JavaMethod)
+            RETURN id(w) AS wid, w.name AS name, w.fullName AS fullName, collect(id(m))[0] AS mid
+            """, WorkflowExtractor::toEntry);
+    private static final CypherQuery<WorkflowEntry> PENDING_ENTRIES = CypherQuery.define("pending workflow entries", """
+            MATCH (w:Workflow)-[:CONTAIN]->(m:JavaMethod)
+            WHERE w.description IS NULL AND NOT w:WorkflowModule
+            RETURN id(w) AS wid, w.name AS name, w.fullName AS fullName, collect(id(m))[0] AS mid
+            """, WorkflowExtractor::toEntry);
+    private static final CypherQuery<Map<String, Object>> METHOD_CALLS = CypherQuery.define("workflow method calls", """
+            MATCH (a:JavaMethod)-[:METHOD_CALL]->(b:JavaMethod)
+            RETURN id(a) AS caller, id(b) AS callee
+            """);
+    private static final CypherQuery<Map<String, Object>> METHOD_DATA_OBJECTS = CypherQuery.define("workflow method data objects", """
+            MATCH (m:JavaMethod)-[:RETURN_TYPE|PARAM_TYPE]->(d:DataObject)
+            RETURN id(m) AS mid, id(d) AS did
+            """);
+    private static final CypherQuery<WorkflowContentBuilder.Part> METHOD_PARTS = CypherQuery.define("workflow method parts",
+            "MATCH (n:JavaMethod) WHERE id(n) IN $ids RETURN id(n) AS id, n.fullName AS fullName, n.content AS content",
+            WorkflowExtractor::toPart);
+    private static final CypherQuery<WorkflowContentBuilder.Part> DATA_OBJECT_PARTS = CypherQuery.define("workflow data object parts",
+            "MATCH (n:DataObject) WHERE id(n) IN $ids RETURN id(n) AS id, n.fullName AS fullName, n.content AS content",
+            WorkflowExtractor::toPart);
+    private static final CypherQuery<Map<String, Object>> SET_CONTENT = CypherQuery.define("set workflow content", """
+            UNWIND $rows AS row
+            MATCH (w:Workflow) WHERE id(w) = row.id
+            SET w.content = row.content
+            """);
+    private static final CypherQuery<Map<String, Object>> SET_CLUSTER = CypherQuery.define("set method cluster", """
+            UNWIND $rows AS row
+            MATCH (m:JavaMethod) WHERE id(m) = row.id
+            SET m.cluster_id = row.cid
+            """);
+
     @Override
     public void extraction() {
         try {
-            String cypher = """
-                    MATCH (n:Workflow)
-                    RETURN n
-                    """;
-            QueryRunner runner = neo4jClient.getQueryRunner();
-            Result result = runner.run(cypher);
-            while(result.hasNext()) {
-                Node node = result.next().get("n").asNode();
-                Optional<WorkflowEntity> optional = workflowRepo.findById(node.id());
-                optional.ifPresent(workflowEntity -> {
-                    // 获取入口方法实体
-                    JavaMethodEntity startMethodEntity = getStartMethodEntity(workflowEntity);
-                    if(!Objects.isNull(startMethodEntity)) {
-                        getMethodInvokeChain(workflowEntity, startMethodEntity, 0);
-
-                        // 将方法和数据对象内容拼接并设置属性
-                        String content = concatenateContent(workflowEntity);
-                        workflowEntity.setContent(content);
-
-                        // 在图上只保留邻近的入口方法的关联
-                        workflowEntity.getContainedMethodList().clear();
-                        workflowEntity.getContainedMethodList().add(startMethodEntity);
-                        workflowEntity = workflowRepo.save(workflowEntity);
-
-                        // 生成功能描述
-                         funcGenerateService.genWorkflowFunc(workflowEntity);
-                    }
-                });
+            List<WorkflowEntry> entries = loadEntries();
+            if(entries.isEmpty()) {
+                return;
             }
+            CallGraph callGraph = loadCallGraph();
+            Map<Long, List<Long>> dataObjectsOfMethod = loadDataObjects();
+            System.out.println("call graph: " + callGraph.size() + " methods, "
+                    + callGraph.componentCount() + " components, " + entries.size() + " workflows");
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Error in Workflow extraction");
-        }
-    }
+            // 计算各工作流的调用链与数据对象（按首次出现去重）
+            Map<Long, WorkflowEntry> entryMap = new HashMap<>();
+            Map<Long, List<Long>> chains = new LinkedHashMap<>();
+            Map<Long, Set<Long>> dataObjects = new HashMap<>();
+            Set<Long> methodIds = new HashSet<>();
+            Set<Long> dataObjectIds = new HashSet<>();
+            for(WorkflowEntry entry: entries) {
+                List<Long> chain = callGraph.reachableFrom(entry.methodId());
+                Set<Long> related = new LinkedHashSet<>();
+                for(Long methodId: chain) {
+                    related.addAll(dataObjectsOfMethod.getOrDefault(methodId, List.of()));
+                }
+                entryMap.put(entry.workflowId(), entry);
+                chains.put(entry.workflowId(), chain);
+                dataObjects.put(entry.workflowId(), related);
+                methodIds.addAll(chain);
+                dataObjectIds.addAll(related);
+            }
+            Map<Long, WorkflowContentBuilder.Part> methodParts = loadParts(METHOD_PARTS, methodIds);
+            Map<Long, WorkflowContentBuilder.Part> dataObjectParts = loadParts(DATA_OBJECT_PARTS, dataObjectIds);
+            WorkflowContentBuilder contentBuilder = new WorkflowContentBuilder(
+                    extractionConfig.getWorkflowContentTokenBudget(), extractionConfig.getWorkflowFullBodyDepth());
 
-    private JavaMethodEntity getStartMethodEntity(WorkflowEntity workflowEntity) {
-        try {
-            String cypher = MessageFormat.format("""
-                MATCH (n:Workflow)-[:CONTAIN]->(m:JavaMethod)
-                    WHERE id(n) = {0}
-                    RETURN m
-                """, String.format("%d", workflowEntity.getId()));
-            Result result = neo4jClient.getQueryRunner().run(cypher);
-            if(result.hasNext()) {
-                Node node = result.next().get("m").asNode();
-                return javaMethodRepo.findById(node.id()).get();
+            // 批量写入内容、方法所属工作流与数据对象关联
+            List<Map<String, Object>> contentRows = new ArrayList<>();
+            List<WorkflowEntity> workflows = new ArrayList<>();
+            Map<Long, Long> methodWorkflow = new HashMap<>();
+            RelationBatchWriter relationWriter = new RelationBatchWriter(neo4jClient, extractionConfig.getNeo4jBatchSize(), true);
+            for(Map.Entry<Long, List<Long>> chain: chains.entrySet()) {
+                Long workflowId = chain.getKey();
+                WorkflowEntry entry = entryMap.get(workflowId);
+                List<WorkflowContentBuilder.Part> methods = new ArrayList<>(chain.getValue().size());
+                for(Long methodId: chain.getValue()) {
+                    methods.add(methodParts.getOrDefault(methodId, new WorkflowContentBuilder.Part(methodId, null, null)));
+                    methodWorkflow.put(methodId, workflowId);
+                }
+                List<WorkflowContentBuilder.Part> related = new ArrayList<>();
+                for(Long dataObjectId: dataObjects.get(workflowId)) {
+                    related.add(dataObjectParts.getOrDefault(dataObjectId, new WorkflowContentBuilder.Part(dataObjectId, null, null)));
+                    relationWriter.add("Workflow", "CONTAIN", "DataObject", workflowId, dataObjectId);
+                }
+                // 只对浅层方法计算调用深度，更深的方法保持调用链中的拓扑顺序
+                Map<Long, Integer> depths = callGraph.depthsFrom(entry.methodId(), extractionConfig.getWorkflowFullBodyDepth());
+                String content = contentBuilder.build(methods, depths, related);
+                contentRows.add(Map.of("id", workflowId, "content", content));
+                WorkflowEntity workflow = new WorkflowEntity();
+                workflow.setId(workflowId);
+                workflow.setName(entry.name());
+                workflow.setFullName(entry.fullName());
+                workflow.setContent(content);
+                workflows.add(workflow);
             }
+            relationWriter.flush();
+            writeRows(SET_CONTENT, contentRows);
+            List<Map<String, Object>> cidRows = new ArrayList<>(methodWorkflow.size());
+            methodWorkflow.forEach((methodId, workflowId) -> cidRows.add(Map.of("id", methodId, "cid", workflowId)));
+            writeRows(SET_CLUSTER, cidRows);
+
+            // 提交功能描述生成，由摘要流水线异步完成
+            workflows.forEach(funcGenerateService::genWorkflowFunc);
         } catch (Exception e) {
             e.printStackTrace();
+            System.err.println("Error in Workflow extraction");
         }
-        return null;
     }
 
     /**
-     * 获取工作流的方法调用链，以及涉及的数据实体类
-     * 以Controller直接关联的方法为入口
-     * @param workflowEntity
-     * @param startMethodEntity
+     * 待处理的工作流及其直接关联的入口方法
      */
-    private void getMethodInvokeChain(WorkflowEntity workflowEntity, JavaMethodEntity startMethodEntity, int recursionDepth) {
-        // reach max recursive depth, return
-        if(recursionDepth > 6) {
-            return;
-        }
-        try {
-            workflowEntity.getContainedMethodList().add(startMethodEntity);
-            // set workflow id property of method entity
-            startMethodEntity.setCid(workflowEntity.getId());
-            javaMethodRepo.save(startMethodEntity);
-
-            // data object access relation
-            // include only param_type relation for now
-            String cypher = MessageFormat.format("""
-                    MATCH (n:JavaMethod)-[r:RETURN_TYPE|PARAM_TYPE]->(m:DataObject)
-                    WHERE id(n) = {0}
-                    RETURN m
-                    """, String.format("%d", startMethodEntity.getId()));
-            Result result = neo4jClient.getQueryRunner().run(cypher);
-            while (result.hasNext()) {
-                Node node = result.next().get("m").asNode();
-                JavaClassEntity relatedDataObject = javaClassRepo.findById(node.id()).get();
-                workflowEntity.getRelatedDataObjectList().add(relatedDataObject);
-            }
+    private List<WorkflowEntry> loadEntries() {
+        return (incremental ? PENDING_ENTRIES : ALL_ENTRIES).list(neo4jClient, Map.of());
+    }
 
-            // method call relation
-            cypher = MessageFormat.format("""
-                MATCH (n:JavaMethod)-[:METHOD_CALL]->(m:JavaMethod)
-                    WHERE id(n) = {0}
-                    RETURN m
-                """, String.format("%d", startMethodEntity.getId()));
-            result = neo4jClient.getQueryRunner().run(cypher);
-            while(result.hasNext()) {
-                Node node = result.next().get("m").asNode();
-                JavaMethodEntity invokedMethodEntity = javaMethodRepo.findById(node.id()).get();
-                getMethodInvokeChain(workflowEntity, invokedMethodEntity, recursionDepth + 1);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Error in getMethodInvokeChain");
-        }
+    private static WorkflowEntry toEntry(Map<String, Object> row) {
+        return new WorkflowEntry(((Number) row.get("wid")).longValue(),
+                (String) row.get("name"), (String) row.get("fullName"), ((Number) row.get("mid")).longValue());
+    }
+
+    private static WorkflowContentBuilder.Part toPart(Map<String, Object> row) {
+        return new WorkflowContentBuilder.Part(((Number) row.get("id")).longValue(),
+                (String) row.get("fullName"), (String) row.get("content"));
+    }
+
+    private CallGraph loadCallGraph() {
+        CallGraph.Builder builder = CallGraph.builder();
+        METHOD_CALLS.list(neo4jClient, Map.of())
+                .forEach(row -> builder.addEdge(
+                        ((Number) row.get("caller")).longValue(), ((Number) row.get("callee")).longValue()));
+        return builder.build();
+    }
+
+    /**
+     * 方法 id -> 参数或返回值涉及的数据对象 id
+     */
+    private Map<Long, List<Long>> loadDataObjects() {
+        Map<Long, List<Long>> dataObjects = new HashMap<>();
+        METHOD_DATA_OBJECTS.list(neo4jClient, Map.of())
+                .forEach(row -> dataObjects
+                        .computeIfAbsent(((Number) row.get("mid")).longValue(), k -> new ArrayList<>())
+                        .add(((Number) row.get("did")).longValue()));
+        return dataObjects;
     }
 
     /**
-     * 将工作流涉及的方法和数据对象内容进行拼接作为content属性
-     * @param workflowEntity
-     * @return
+     * 分批读取节点的 fullName 与 content 属性
      */
-    private String concatenateContent(WorkflowEntity workflowEntity) {
-        StringBuilder str = new StringBuilder();
-        for(JavaMethodEntity methodEntity : workflowEntity.getContainedMethodList()) {
-            str.append(methodEntity.getContent() + "\n");
+    private Map<Long, WorkflowContentBuilder.Part> loadParts(CypherQuery<WorkflowContentBuilder.Part> query, Collection<Long> ids) {
+        Map<Long, WorkflowContentBuilder.Part> parts = new HashMap<>(ids.size() * 2);
+        List<Long> idList = new ArrayList<>(ids);
+        int batchSize = Math.max(1, extractionConfig.getNeo4jBatchSize());
+        for(int from = 0; from < idList.size(); from += batchSize) {
+            List<Long> batch = idList.subList(from, Math.min(from + batchSize, idList.size()));
+            query.list(neo4jClient, Map.of("ids", batch)).forEach(part -> parts.put(part.id(), part));
         }
-        for(JavaClassEntity classEntity : workflowEntity.getRelatedDataObjectList()) {
-            str.append(classEntity.getContent() + "\n");
+        return parts;
+    }
+
+    private void writeRows(CypherQuery<Map<String, Object>> query, List<Map<String, Object>> rows) {
+        int batchSize = Math.max(1, extractionConfig.getNeo4jBatchSize());
+        for(int from = 0; from < rows.size(); from += batchSize) {
+            query.run(neo4jClient, Map.of("rows", rows.subList(from, Math.min(from + batchSize, rows.size()))));
         }
-        return str.toString();
     }
 }
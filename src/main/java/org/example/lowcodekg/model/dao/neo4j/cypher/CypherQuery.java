@@ -0,0 +1,130 @@
+package org.example.lowcodekg.model.dao.neo4j.cypher;
+
+import lombok.Getter;
+import org.springframework.data.neo4j.core.Neo4jClient;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 参数化的 Cypher 语句
+ * 语句文本定义一次（通常为 static final 常量），节点 id、路径等取值只以 $参数 传入，
+ * 同一语句的每次执行文本相同，Neo4j 可以复用计划缓存中的执行计划，而不必为每个取值重新生成；
+ * 执行前校验参数名与语句中声明的参数一致，并按语句统计执行次数
+ *
+ * @param <T> 每行结果映射成的类型
+ */
+public final class CypherQuery<T> {
+
+    private static final Pattern PARAMETER = Pattern.compile("\\$([A-Za-z_][A-Za-z0-9_]*)");
+
+    /**
+     * 已定义的语句，按名称索引
+     */
+    private static final Map<String, CypherQuery<?>> QUERIES = new ConcurrentHashMap<>();
+
+    @Getter
+    private final String name;
+    @Getter
+    private final String cypher;
+    @Getter
+    private final Set<String> parameters;
+    private final Function<Map<String, Object>, T> mapper;
+    private final LongAdder executions = new LongAdder();
+
+    private CypherQuery(String name, String cypher, Function<Map<String, Object>, T> mapper) {
+        this.name = name;
+        this.cypher = cypher;
+        this.mapper = mapper;
+        Set<String> declared = new LinkedHashSet<>();
+        Matcher matcher = PARAMETER.matcher(cypher);
+        while (matcher.find()) {
+            declared.add(matcher.group(1));
+        }
+        this.parameters = Collections.unmodifiableSet(declared);
+    }
+
+    /**
+     * 定义一条语句，结果的每一行由 mapper 转换
+     * @param name 语句名，用于统计与报错，不可重复
+     */
+    public static <T> CypherQuery<T> define(String name, String cypher, Function<Map<String, Object>, T> mapper) {
+        CypherQuery<T> query = new CypherQuery<>(name, cypher, mapper);
+        if (QUERIES.putIfAbsent(name, query) != null) {
+            throw new IllegalStateException("cypher query already defined: " + name);
+        }
+        return query;
+    }
+
+    /**
+     * 定义一条语句，结果的每一行为列名到取值的映射
+     */
+    public static CypherQuery<Map<String, Object>> define(String name, String cypher) {
+        return define(name, cypher, Function.identity());
+    }
+
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /**
+     * 执行并返回映射后的全部结果
+     */
+    public List<T> list(Neo4jClient neo4jClient, Map<String, Object> params) {
+        Collection<Map<String, Object>> rows = neo4jClient.query(cypher).bindAll(checked(params)).fetch().all();
+        List<T> result = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            result.add(mapper.apply(row));
+        }
+        return result;
+    }
+
+    /**
+     * 执行不需要返回结果的语句
+     */
+    public void run(Neo4jClient neo4jClient, Map<String, Object> params) {
+        neo4jClient.query(cypher).bindAll(checked(params)).run();
+    }
+
+    /**
+     * 校验参数名并计入一次执行
+     * 参数缺失时 Neo4j 同样会报错，但要在发出请求之后，且错误信息中没有语句名
+     */
+    Map<String, Object> checked(Map<String, Object> params) {
+        if (!parameters.equals(params.keySet())) {
+            throw new IllegalArgumentException("cypher query [" + name + "] expects parameters " + parameters +
+                    " but got " + params.keySet());
+        }
+        executions.increment();
+        return params;
+    }
+
+    /**
+     * 执行统计：执行过的不同语句数、执行总次数及每条语句的执行次数
+     * 只在客户端统计，不反映服务端计划缓存的实际命中（缓存可能被淘汰或因统计信息变化而重新规划）
+     * 只统计以 CypherQuery 定义的语句，批量写入器按标签与关系类型拼接的语句不在其中
+     */
+    public static String report() {
+        long total = 0;
+        long distinct = 0;
+        StringBuilder details = new StringBuilder();
+        List<CypherQuery<?>> queries = new ArrayList<>(QUERIES.values());
+        queries.sort(Comparator.comparing(CypherQuery::getName));
+        for (CypherQuery<?> query : queries) {
+            long count = query.getExecutions();
+            if (count == 0) {
+                continue;
+            }
+            total += count;
+            distinct++;
+            details.append(String.format("%n  %s: %d", query.getName(), count));
+        }
+        double perStatement = distinct == 0 ? 0 : (double) total / distinct;
+        return String.format("cypher queries: %d executions / %d distinct statements (%.1f executions per statement)",
+                total, distinct, perStatement) + details;
+    }
+}
@@ -7,7 +7,9 @@ import org.example.lowcodekg.model.dao.Describable;
 import org.springframework.data.neo4j.core.schema.*;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Node("JavaClass")
 @Data
@@ -31,6 +33,9 @@ public class JavaClassEntity implements Describable {
     @Property("projectName")
     private String projectName;
 
+    @Property("filePath")
+    private String filePath;
+
     @Property("comment")
     private String comment;
 
@@ -66,4 +71,22 @@ public class JavaClassEntity implements Describable {
     @Relationship(type = "HAVE_FIELD", direction = Relationship.Direction.OUTGOING)
     private List<JavaFieldEntity> fieldList = new ArrayList<>();
 
+    /**
+     * 节点属性，用于批量创建节点
+     */
+    public Map<String, Object> toProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("vid", vid);
+        properties.put("name", name);
+        properties.put("fullName", fullName);
+        properties.put("projectName", projectName);
+        properties.put("filePath", filePath);
+        properties.put("comment", comment);
+        properties.put("content", content);
+        properties.put("description", description);
+        properties.put("superClassType", superClassType);
+        properties.put("superInterfaceType", superInterfaceType);
+        properties.put("isData", isData);
+        return properties;
+    }
 }
@@ -5,7 +5,9 @@ import org.example.lowcodekg.model.dao.Describable;
 import org.springframework.data.neo4j.core.schema.*;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Node("JavaField")
 @Data
@@ -27,6 +29,9 @@ public class JavaFieldEntity {
     @Property("projectName")
     private String projectName;
 
+    @Property("filePath")
+    private String filePath;
+
     @Property("type")
     private String type;
 
@@ -38,4 +43,20 @@ public class JavaFieldEntity {
 
     @Relationship(type = "FIELD_TYPE", direction = Relationship.Direction.OUTGOING)
     private List<JavaClassEntity> typeList = new ArrayList<>();
+
+    /**
+     * 节点属性，用于批量创建节点
+     */
+    public Map<String, Object> toProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("vid", vid);
+        properties.put("name", name);
+        properties.put("fullName", fullName);
+        properties.put("projectName", projectName);
+        properties.put("filePath", filePath);
+        properties.put("type", type);
+        properties.put("comment", comment);
+        properties.put("description", description);
+        return properties;
+    }
 }
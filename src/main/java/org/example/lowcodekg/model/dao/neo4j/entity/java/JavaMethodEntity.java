@@ -5,7 +5,9 @@ import org.example.lowcodekg.model.dao.Describable;
 import org.springframework.data.neo4j.core.schema.*;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Node("JavaMethod")
 @Data
@@ -33,6 +35,9 @@ public class JavaMethodEntity {
     @Property("projectName")
     private String projectName;
 
+    @Property("filePath")
+    private String filePath;
+
     @Property("returnType")
     private String returnType;
 
@@ -51,6 +56,12 @@ public class JavaMethodEntity {
     @Property("mappingUrl")
     private String mappingUrl;
 
+    /**
+     * 方法声明的 JDT binding key，增量抽取时用于关联新解析方法对已有方法的调用
+     */
+    @Property("bindingKey")
+    private String bindingKey;
+
     @Relationship(type = "PARAM_TYPE", direction = Relationship.Direction.OUTGOING)
     private List<JavaClassEntity> paramTypeList = new ArrayList<>();
 
@@ -66,4 +77,24 @@ public class JavaMethodEntity {
     @Relationship(type = "FIELD_ACCESS", direction = Relationship.Direction.OUTGOING)
     private List<JavaFieldEntity> fieldAccessList = new ArrayList<>();
 
+    /**
+     * 节点属性，用于批量创建节点
+     */
+    public Map<String, Object> toProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("vid", vid);
+        properties.put("cluster_id", cid);
+        properties.put("name", name);
+        properties.put("fullName", fullName);
+        properties.put("projectName", projectName);
+        properties.put("filePath", filePath);
+        properties.put("returnType", returnType);
+        properties.put("content", content);
+        properties.put("comment", comment);
+        properties.put("description", description);
+        properties.put("params", params);
+        properties.put("mappingUrl", mappingUrl);
+        properties.put("bindingKey", bindingKey);
+        return properties;
+    }
 }
@@ -7,7 +7,9 @@ import org.springframework.data.neo4j.core.schema.*;
 import org.springframework.data.neo4j.core.schema.Node;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Neo4j 实体节点：组件
@@ -32,6 +34,15 @@ public class ComponentEntity {
     @Property("content")
     private String content;
 
+    /**
+     * 页面组件在所属页面 content 中的起止偏移，页面组件的 content 为空，由偏移截取
+     */
+    @Property("startOffset")
+    private Integer startOffset;
+
+    @Property("endOffset")
+    private Integer endOffset;
+
     @Property("description")
     private String description;
 
@@ -47,5 +58,18 @@ public class ComponentEntity {
     @Relationship(type = "CONTAIN", direction = Relationship.Direction.OUTGOING)
     private List<ConfigItemEntity> containedConfigItemEntities = new ArrayList<>();
 
-
+    /**
+     * 节点属性，用于批量创建节点
+     */
+    public Map<String, Object> toProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("name", name);
+        properties.put("category", category);
+        properties.put("text", text);
+        properties.put("content", content);
+        properties.put("startOffset", startOffset);
+        properties.put("endOffset", endOffset);
+        properties.put("description", description);
+        return properties;
+    }
 }
@@ -8,6 +8,9 @@ import org.springframework.data.neo4j.core.schema.Id;
 import org.springframework.data.neo4j.core.schema.Node;
 import org.springframework.data.neo4j.core.schema.Property;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Node("ConfigItem")
 @Data
 @NoArgsConstructor
@@ -28,4 +31,15 @@ public class ConfigItemEntity {
     @Property("description")
     private String description;
 
+    /**
+     * 节点属性，用于批量创建节点
+     */
+    public Map<String, Object> toProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("name", name);
+        properties.put("type", type);
+        properties.put("value", value);
+        properties.put("description", description);
+        return properties;
+    }
 }
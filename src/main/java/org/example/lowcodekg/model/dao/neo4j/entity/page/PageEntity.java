@@ -25,6 +25,15 @@ public class PageEntity implements Describable {
     @Property("fullName")
     private String fullName;
 
+    @Property("projectName")
+    private String projectName;
+
+    /**
+     * 页面文件相对项目目录的路径
+     */
+    @Property("filePath")
+    private String filePath;
+
     @Property("description")
     private String description;
 
@@ -0,0 +1,72 @@
+package org.example.lowcodekg.model.dao.neo4j.schema;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 一个节点索引或唯一性约束的声明
+ * 名称由类型、标签与属性生成，如 range_JavaMethod_projectName_filePath
+ *
+ * @param kind 索引类型
+ * @param label 节点标签
+ * @param properties 索引的属性，多个属性为组合索引或组合唯一性约束（TEXT 仅支持单个属性）
+ */
+public record IndexDefinition(Kind kind, String label, List<String> properties) {
+
+    public enum Kind {
+        /**
+         * 等值、范围、IN 与 STARTS WITH 查询
+         */
+        RANGE,
+        /**
+         * 字符串的 CONTAINS 与 ENDS WITH 查询
+         */
+        TEXT,
+        /**
+         * 唯一性约束（多个属性时为属性组合唯一），同时提供 RANGE 索引
+         */
+        UNIQUE
+    }
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    public IndexDefinition {
+        properties = List.copyOf(properties);
+        if (!IDENTIFIER.matcher(label).matches() || properties.isEmpty()
+                || !properties.stream().allMatch(property -> IDENTIFIER.matcher(property).matches())) {
+            throw new IllegalArgumentException("invalid index: " + label + properties);
+        }
+        if (kind == Kind.TEXT && properties.size() > 1) {
+            throw new IllegalArgumentException(kind + " index on a single property only: " + label + properties);
+        }
+    }
+
+    public static IndexDefinition range(String label, String... properties) {
+        return new IndexDefinition(Kind.RANGE, label, List.of(properties));
+    }
+
+    public static IndexDefinition text(String label, String property) {
+        return new IndexDefinition(Kind.TEXT, label, List.of(property));
+    }
+
+    public static IndexDefinition unique(String label, String... properties) {
+        return new IndexDefinition(Kind.UNIQUE, label, List.of(properties));
+    }
+
+    public String name() {
+        return kind.name().toLowerCase() + "_" + label + "_" + String.join("_", properties);
+    }
+
+    /**
+     * 幂等的创建语句，已存在同名索引或约束时不做任何事
+     */
+    public String toCypher() {
+        String pattern = "(n:" + label + ")";
+        String columns = "(" + String.join(", ", properties.stream().map(p -> "n." + p).toList()) + ")";
+        return switch (kind) {
+            case RANGE -> "CREATE RANGE INDEX " + name() + " IF NOT EXISTS FOR " + pattern + " ON " + columns;
+            case TEXT -> "CREATE TEXT INDEX " + name() + " IF NOT EXISTS FOR " + pattern + " ON " + columns;
+            case UNIQUE -> "CREATE CONSTRAINT " + name() + " IF NOT EXISTS FOR " + pattern + " REQUIRE " + columns + " IS UNIQUE";
+        };
+    }
+}
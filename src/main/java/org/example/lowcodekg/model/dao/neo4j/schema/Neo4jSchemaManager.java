@@ -0,0 +1,182 @@
+package org.example.lowcodekg.model.dao.neo4j.schema;
+
+import org.example.lowcodekg.common.config.ExtractionConfig;
+import org.neo4j.driver.QueryRunner;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.summary.Plan;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 图谱的索引与约束管理
+ * 在应用启动时与每次抽取前声明查询所依赖的索引（均为 IF NOT EXISTS，可重复执行），等待索引上线，
+ * 再对常用查找语句执行 EXPLAIN，报告仍退化为标签扫描或全图扫描的查询
+ */
+@Service
+public class Neo4jSchemaManager {
+
+    /**
+     * 查询与抽取中按属性查找节点所用的索引
+     */
+    public static final List<IndexDefinition> INDEXES = List.of(
+            // JavaExtractor 按 fullName 关联类型引用，增量抽取按项目与文件定位旧节点
+            IndexDefinition.range("JavaClass", "fullName"),
+            IndexDefinition.range("JavaMethod", "fullName"),
+            IndexDefinition.range("JavaField", "fullName"),
+            IndexDefinition.range("JavaClass", "projectName"),
+            IndexDefinition.range("JavaMethod", "projectName"),
+            IndexDefinition.range("JavaField", "projectName"),
+            IndexDefinition.range("JavaClass", "projectName", "filePath"),
+            IndexDefinition.range("JavaMethod", "projectName", "filePath"),
+            IndexDefinition.range("JavaField", "projectName", "filePath"),
+            IndexDefinition.range("DataObject", "projectName", "filePath"),
+            // 每个页面文件对应一个 PageTemplate；filePath 相对项目目录，不同项目可以有相同的 src/App.vue
+            IndexDefinition.unique("PageTemplate", "projectName", "filePath"),
+            IndexDefinition.range("PageTemplate", "projectName"),
+            // ComponentRepo.findByName / findByNameContaining
+            IndexDefinition.range("Component", "name"),
+            IndexDefinition.text("Component", "name"),
+            IndexDefinition.range("Workflow", "mappingUrl"),
+            IndexDefinition.text("Workflow", "mappingUrl")
+    );
+
+    /**
+     * 用于检查执行计划的查找语句
+     */
+    record Probe(String name, String cypher, Map<String, Object> params) {
+    }
+
+    static final List<Probe> PROBES = List.of(
+            new Probe("component by name",
+                    "MATCH (c:Component) WHERE c.name = $name RETURN id(c)", Map.of("name", "")),
+            new Probe("component name contains",
+                    "MATCH (c:Component) WHERE c.name CONTAINS $key RETURN id(c)", Map.of("key", "")),
+            new Probe("page by project file",
+                    "MATCH (p:PageTemplate) WHERE p.projectName = $projectName AND p.filePath = $filePath RETURN id(p)",
+                    Map.of("projectName", "", "filePath", "")),
+            new Probe("pages of project files",
+                    "MATCH (p:PageTemplate) WHERE p.projectName = $projectName AND p.filePath IN $files RETURN id(p)",
+                    Map.of("projectName", "", "files", List.of())),
+            new Probe("workflow by mapping url",
+                    "MATCH (w:Workflow) WHERE w.mappingUrl ENDS WITH $url RETURN id(w)", Map.of("url", "")),
+            new Probe("class by full name",
+                    "MATCH (n:JavaClass) WHERE n.fullName = $fullName RETURN id(n)", Map.of("fullName", "")),
+            new Probe("methods of project",
+                    "MATCH (n:JavaMethod) WHERE n.projectName = $projectName RETURN id(n)", Map.of("projectName", "")),
+            new Probe("methods of project files",
+                    "MATCH (n:JavaMethod) WHERE n.projectName = $projectName AND n.filePath IN $files RETURN id(n)",
+                    Map.of("projectName", "", "files", List.of()))
+    );
+
+    /**
+     * 不经过索引读取节点的算子
+     */
+    private static final List<String> SCAN_OPERATORS = List.of("NodeByLabelScan", "AllNodesScan");
+
+    @Autowired
+    private Neo4jClient neo4jClient;
+    @Autowired
+    private ExtractionConfig extractionConfig;
+
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureSchema();
+    }
+
+    /**
+     * 创建缺失的索引并等待其上线，同一进程中成功一次后直接返回
+     * 清空图数据（MATCH (n) DETACH DELETE n）不会删除索引
+     */
+    public synchronized void ensureSchema() {
+        if (ready || !extractionConfig.isNeo4jSchemaEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            for (IndexDefinition index : INDEXES) {
+                createIndex(index);
+            }
+            neo4jClient.query("CALL db.awaitIndexes($seconds)")
+                    .bind(extractionConfig.getNeo4jSchemaAwaitSeconds()).to("seconds")
+                    .run();
+            ready = true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.err.println("Error in preparing neo4j schema: " + e.getMessage());
+            return;
+        }
+        System.out.printf("neo4j schema ready: %d indexes in %.2fs%n", INDEXES.size(), (System.nanoTime() - start) / 1e9);
+        if (extractionConfig.isNeo4jSchemaExplain()) {
+            reportScans();
+        }
+    }
+
+    private void createIndex(IndexDefinition index) {
+        try {
+            neo4jClient.query(index.toCypher()).run();
+        } catch (Exception e) {
+            System.err.println("Error in creating " + index.name() + ": " + e.getMessage());
+            if (index.kind() == IndexDefinition.Kind.UNIQUE) {
+                // 已有重复数据时约束无法创建，退化为普通索引以保证查找仍走索引
+                IndexDefinition fallback = new IndexDefinition(IndexDefinition.Kind.RANGE, index.label(), index.properties());
+                neo4jClient.query(fallback.toCypher()).run();
+                System.err.println("created " + fallback.name() + " instead");
+            }
+        }
+    }
+
+    /**
+     * 报告执行计划中仍包含标签扫描或全图扫描的查找语句
+     * @return 退化为扫描的查找语句名
+     */
+    public List<String> reportScans() {
+        List<String> fallbacks = new ArrayList<>();
+        // 执行计划只能从驱动的 ResultSummary 中取得，Neo4jClient 不提供
+        try (QueryRunner runner = neo4jClient.getQueryRunner()) {
+            for (Probe probe : PROBES) {
+                try {
+                    Plan plan = runner.run("EXPLAIN " + probe.cypher(), probe.params()).consume().plan();
+                    List<String> scans = scans(plan);
+                    if (!scans.isEmpty()) {
+                        fallbacks.add(probe.name());
+                        System.err.println("query plan of [" + probe.name() + "] still scans: " + String.join(", ", scans));
+                    }
+                } catch (Exception e) {
+                    System.err.println("Error in explaining [" + probe.name() + "]: " + e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return fallbacks;
+    }
+
+    /**
+     * 执行计划树中的扫描算子及其详情，如 NodeByLabelScan(c:Component)
+     */
+    static List<String> scans(Plan plan) {
+        List<String> result = new ArrayList<>();
+        if (plan == null) {
+            return result;
+        }
+        // 算子名可能带有运行时后缀，如 NodeByLabelScan@neo4j
+        String operator = plan.operatorType().split("@")[0];
+        if (SCAN_OPERATORS.contains(operator)) {
+            Value details = plan.arguments().get("Details");
+            result.add(details == null ? operator : operator + "(" + details.asObject() + ")");
+        }
+        for (Plan child : plan.children()) {
+            result.addAll(scans(child));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.lowcodekg.model.dao.neo4j.writer;
+
+import org.springframework.data.neo4j.core.Neo4jClient;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * 关系批量写入器
+ * 按 (起点标签, 关系类型, 终点标签) 分组缓存待创建的关系，每组累计到 batchSize 条后
+ * 通过一条参数化的 UNWIND 语句写入，替代逐条调用 repository 的 createRelationOfXxx 方法
+ * 非线程安全，应由写库阶段的单个线程使用；使用结束后需调用 flush 写入剩余的关系
+ */
+public class RelationBatchWriter {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final Neo4jClient neo4jClient;
+    private final int batchSize;
+    /**
+     * 为 true 时使用 MERGE 创建关系，重复写入同一条边不会产生多条关系
+     */
+    private final boolean merge;
+
+    private final Map<RelationKey, List<Map<String, Object>>> pending = new LinkedHashMap<>();
+
+    private long writtenCount = 0;
+    private long failedCount = 0;
+    private long writeNanos = 0;
+
+    public RelationBatchWriter(Neo4jClient neo4jClient, int batchSize) {
+        this(neo4jClient, batchSize, false);
+    }
+
+    public RelationBatchWriter(Neo4jClient neo4jClient, int batchSize, boolean merge) {
+        this.neo4jClient = neo4jClient;
+        this.batchSize = Math.max(1, batchSize);
+        this.merge = merge;
+    }
+
+    /**
+     * 添加一条待创建的关系，起点或终点 id 为空时忽略
+     * @param srcLabel 起点标签
+     * @param relType 关系类型
+     * @param tgtLabel 终点标签
+     * @param sid 起点 id
+     * @param eid 终点 id
+     */
+    public void add(String srcLabel, String relType, String tgtLabel, Long sid, Long eid) {
+        if(Objects.isNull(sid) || Objects.isNull(eid)) {
+            return;
+        }
+        RelationKey key = new RelationKey(srcLabel, relType, tgtLabel);
+        List<Map<String, Object>> rows = pending.computeIfAbsent(key, k -> new ArrayList<>());
+        rows.add(Map.of("sid", sid, "eid", eid));
+        if(rows.size() >= batchSize) {
+            write(key, rows);
+            rows.clear();
+        }
+    }
+
+    /**
+     * 写入所有缓存的关系，并输出本写入器累计的写入速率
+     */
+    public void flush() {
+        pending.forEach((key, rows) -> {
+            if(!rows.isEmpty()) {
+                write(key, rows);
+            }
+        });
+        pending.clear();
+        if(writtenCount > 0) {
+            double seconds = writeNanos / 1e9;
+            System.out.printf("relations written: %d in %.2fs (%.0f edges/sec)%n",
+                    writtenCount, seconds, seconds > 0 ? writtenCount / seconds : writtenCount);
+        }
+    }
+
+    public long getWrittenCount() {
+        return writtenCount;
+    }
+
+    /**
+     * 写入失败的批次中的关系数
+     */
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    private void write(RelationKey key, List<Map<String, Object>> rows) {
+        long start = System.nanoTime();
+        try {
+            neo4jClient.query(key.toCypher(merge))
+                    .bind(new ArrayList<>(rows)).to("rows")
+                    .run();
+            writtenCount += rows.size();
+        } catch (Exception e) {
+            failedCount += rows.size();
+            e.printStackTrace();
+            System.err.println("Error in writing relations " + key + ": " + e.getMessage());
+        } finally {
+            writeNanos += System.nanoTime() - start;
+        }
+    }
+
+    private record RelationKey(String srcLabel, String relType, String tgtLabel) {
+
+        RelationKey {
+            // 标签与关系类型无法参数化，只能拼接到语句中，因此限制为合法标识符
+            for(String identifier: new String[]{srcLabel, relType, tgtLabel}) {
+                if(Objects.isNull(identifier) || !IDENTIFIER.matcher(identifier).matches()) {
+                    throw new IllegalArgumentException("invalid label or relationship type: " + identifier);
+                }
+            }
+        }
+
+        String toCypher(boolean merge) {
+            return "UNWIND $rows AS row " +
+                    "MATCH (s:" + srcLabel + ") WHERE id(s) = row.sid " +
+                    "MATCH (e:" + tgtLabel + ") WHERE id(e) = row.eid " +
+                    (merge ? "MERGE" : "CREATE") + " (s)-[:" + relType + "]->(e)";
+        }
+
+        @Override
+        public String toString() {
+            return "(:" + srcLabel + ")-[:" + relType + "]->(:" + tgtLabel + ")";
+        }
+    }
+}
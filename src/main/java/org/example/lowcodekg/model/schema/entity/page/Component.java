@@ -4,13 +4,13 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.example.lowcodekg.model.dao.neo4j.entity.page.ComponentEntity;
-import org.example.lowcodekg.model.dao.neo4j.entity.page.ConfigItemEntity;
 import org.example.lowcodekg.model.dao.neo4j.repository.ComponentRepo;
 import org.example.lowcodekg.model.dao.neo4j.repository.ConfigItemRepo;
 import org.example.lowcodekg.model.schema.entity.category.Category;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * 低代码组件实体类
@@ -37,6 +37,14 @@ public class Component {
 
     private String content;
 
+    /**
+     * 页面组件在所属页面 template 源码（PageTemplate.content）中的起止偏移，
+     * 页面组件不保存 content，需要时由偏移截取；组件定义等其他来源的组件为空
+     */
+    private Integer startOffset;
+
+    private Integer endOffset;
+
     /**
      * 组件类别，包括场景标签、功能分类等
      */
@@ -75,6 +83,8 @@ public class Component {
         entity.setName(name);
         entity.setText(text);
         entity.setContent(content);
+        entity.setStartOffset(startOffset);
+        entity.setEndOffset(endOffset);
         entity.setDescription(description);
         entity = componentRepo.save(entity);
         return entity;
@@ -82,29 +92,11 @@ public class Component {
 
     /**
      * 将数据对象持久化到Neo4j
+     * 配置项随组件一次保存，不再先逐个保存后再 saveAll 重复写入
      */
     public ComponentEntity storeInNeo4j(ComponentRepo componentRepo, ConfigItemRepo configItemRepo) {
         try {
-            // 设置组件实体属性
-            ComponentEntity entity = new ComponentEntity();
-            entity.setName(name);
-            entity.setCategory(category.toString());
-            entity.setDescription(description);
-
-            // 组件关联的配置型列表
-            List<ConfigItemEntity> configItemEntities = new ArrayList<>();
-            for(ConfigItem configItem: configItemList) {
-                // 存储配置项节点
-                ConfigItemEntity configEntity = configItem.storeInNeo4j(configItemRepo);
-                configItemEntities.add(configEntity);
-            }
-            entity.getContainedConfigItemEntities().addAll(configItemEntities);
-
-            // Neo4j 存储数据对象
-            entity = componentRepo.save(entity);
-            configItemRepo.saveAll(entity.getContainedConfigItemEntities());
-            return entity;
-
+            return componentRepo.save(toDefinitionEntity());
         } catch (Exception e) {
             System.err.println("Error in storeInNeo4j: " + e.getMessage());
             e.printStackTrace();
@@ -112,6 +104,22 @@ public class Component {
         return null;
     }
 
+    /**
+     * 未持久化的组件定义实体，包含未持久化的配置项
+     */
+    public ComponentEntity toDefinitionEntity() {
+        // 设置组件实体属性
+        ComponentEntity entity = new ComponentEntity();
+        entity.setName(name);
+        entity.setCategory(Objects.isNull(category) ? null : category.toString());
+        entity.setDescription(description);
+        // 组件关联的配置型列表
+        for(ConfigItem configItem: configItemList) {
+            entity.getContainedConfigItemEntities().add(configItem.toEntity());
+        }
+        return entity;
+    }
+
     /**
      * 将数据对象持久化到ES
      */
@@ -53,11 +53,18 @@ public class ConfigItem {
     }
 
     public ConfigItemEntity storeInNeo4j(ConfigItemRepo configItemRepo) {
+        return configItemRepo.save(toEntity());
+    }
+
+    /**
+     * 未持久化的配置项实体
+     */
+    public ConfigItemEntity toEntity() {
         ConfigItemEntity configEntity = new ConfigItemEntity();
         configEntity.setName(code);
         configEntity.setType(type);
         configEntity.setValue(value);
         configEntity.setDescription(description);
-        return configItemRepo.save(configEntity);
+        return configEntity;
     }
 }
\ No newline at end of file
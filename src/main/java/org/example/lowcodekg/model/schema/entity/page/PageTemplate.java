@@ -24,6 +24,13 @@ public class PageTemplate {
 
     private String fullName;
 
+    private String projectName;
+
+    /**
+     * 页面文件相对项目目录的路径
+     */
+    private String filePath;
+
     private String description;
 
     private String content;
@@ -51,6 +58,8 @@ public class PageTemplate {
         PageEntity pageEntity = new PageEntity();
         pageEntity.setName(name);
         pageEntity.setFullName(fullName);
+        pageEntity.setProjectName(projectName);
+        pageEntity.setFilePath(filePath);
         pageEntity.setDescription(description);
         pageEntity.setContent(content);
         pageEntity = pageRepo.save(pageEntity);
@@ -2,6 +2,7 @@ package org.example.lowcodekg.model.schema.entity.workflow;
 
 import com.alibaba.fastjson.JSONObject;
 import lombok.*;
+import org.example.lowcodekg.common.util.SourceRange;
 import org.example.lowcodekg.model.dao.neo4j.entity.java.JavaClassEntity;
 import org.example.lowcodekg.model.dao.neo4j.repository.JavaClassRepo;
 
@@ -29,10 +30,21 @@ public class JavaClass {
 
     private String projectName;
 
+    /**
+     * 所在源文件相对项目目录的路径，用于增量抽取时定位需要替换的节点
+     */
+    private String filePath;
+
     private String comment;
 
     private String content;
 
+    /**
+     * comment / content 在源文件中的位置，对应字符串为空时在读取时才生成
+     */
+    private SourceRange commentRange;
+    private SourceRange contentRange;
+
     private String description;
 
     private String superClassType;
@@ -58,23 +70,39 @@ public class JavaClass {
         this.superInterfaceType = superInterfaceType;
     }
 
+    public String getComment() {
+        return Objects.isNull(comment) && !Objects.isNull(commentRange) ? commentRange.toString() : comment;
+    }
+
+    public String getContent() {
+        return Objects.isNull(content) && !Objects.isNull(contentRange) ? contentRange.toString() : content;
+    }
+
     public JavaClassEntity storeInNeo4j(JavaClassRepo javaClassRepo, JSONObject jsonContent) {
+        JavaClassEntity classEntity = javaClassRepo.save(toEntity(jsonContent));
+        // 数据实体类添加标签
+        if(isData) {
+            javaClassRepo.setDataObjectLabel(classEntity.getId());
+        }
+        return classEntity;
+    }
+
+    /**
+     * 构造尚未持久化的实体，供逐个保存与批量创建共用
+     */
+    public JavaClassEntity toEntity(JSONObject jsonContent) {
         JavaClassEntity classEntity = new JavaClassEntity();
         classEntity.setName(this.name);
         classEntity.setFullName(this.fullName);
-        classEntity.setComment(this.comment);
-        classEntity.setContent(this.content);
+        classEntity.setComment(getComment());
+        classEntity.setContent(getContent());
         classEntity.setProjectName(this.projectName);
+        classEntity.setFilePath(this.filePath);
         classEntity.setIsData(this.isData);
         if(!Objects.isNull(jsonContent)) {
             classEntity.setVid(jsonContent.getLong("id"));
             classEntity.setDescription(jsonContent.getString("description"));
         }
-        classEntity = javaClassRepo.save(classEntity);
-        // 数据实体类添加标签
-        if(isData) {
-            javaClassRepo.setDataObjectLabel(classEntity.getId());
-        }
         return classEntity;
     }
 }
@@ -2,6 +2,7 @@ package org.example.lowcodekg.model.schema.entity.workflow;
 
 import com.alibaba.fastjson.JSONObject;
 import lombok.*;
+import org.example.lowcodekg.common.util.SourceRange;
 import org.example.lowcodekg.model.dao.neo4j.entity.java.JavaFieldEntity;
 import org.example.lowcodekg.model.dao.neo4j.repository.JavaFieldRepo;
 
@@ -23,10 +24,20 @@ public class JavaField {
 
     private String projectName;
 
+    /**
+     * 所在源文件相对项目目录的路径，用于增量抽取时定位需要替换的节点
+     */
+    private String filePath;
+
     private String type;
 
     private String comment;
 
+    /**
+     * comment 在源文件中的位置，comment 为空时在读取时才生成
+     */
+    private SourceRange commentRange;
+
     private String description;
 
     private String belongTo;
@@ -47,17 +58,29 @@ public class JavaField {
         this.fullType = fullType;
     }
 
+    public String getComment() {
+        return Objects.isNull(comment) && !Objects.isNull(commentRange) ? commentRange.toString() : comment;
+    }
+
     public JavaFieldEntity storeInNeo4j(JavaFieldRepo javaFieldRepo, JSONObject jsonContent) {
+        return javaFieldRepo.save(toEntity(jsonContent));
+    }
+
+    /**
+     * 构造尚未持久化的实体，供逐个保存与批量创建共用
+     */
+    public JavaFieldEntity toEntity(JSONObject jsonContent) {
         JavaFieldEntity fieldEntity = new JavaFieldEntity();
         fieldEntity.setName(name);
         fieldEntity.setFullName(fullName);
         fieldEntity.setProjectName(projectName);
+        fieldEntity.setFilePath(filePath);
         fieldEntity.setType(type);
-        fieldEntity.setComment(comment);
+        fieldEntity.setComment(getComment());
         if(!Objects.isNull(jsonContent)) {
             fieldEntity.setVid(Long.valueOf(jsonContent.getLong("id")));
             fieldEntity.setDescription(jsonContent.getString("description"));
         }
-        return javaFieldRepo.save(fieldEntity);
+        return fieldEntity;
     }
 }
@@ -3,7 +3,7 @@ package org.example.lowcodekg.model.schema.entity.workflow;
 import com.alibaba.fastjson.JSONObject;
 import io.micrometer.common.util.StringUtils;
 import lombok.*;
-import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.example.lowcodekg.common.util.SourceRange;
 import org.example.lowcodekg.model.dao.neo4j.entity.java.JavaMethodEntity;
 import org.example.lowcodekg.model.dao.neo4j.repository.JavaMethodRepo;
 
@@ -26,6 +26,11 @@ public class JavaMethod {
 
     private String projectName;
 
+    /**
+     * 所在源文件相对项目目录的路径，用于增量抽取时定位需要替换的节点
+     */
+    private String filePath;
+
     private String returnType;
 
     private String fullReturnType;
@@ -46,13 +51,23 @@ public class JavaMethod {
 
     private String comment;
 
+    /**
+     * content / comment 在源文件中的位置，对应字符串为空时在读取时才生成，
+     * 解析期间不再为每个方法复制一份方法体字符串
+     */
+    private SourceRange contentRange;
+    private SourceRange commentRange;
+
     private String description;
 
     private String params;
 
     private String fullParams;
 
-    private IMethodBinding methodBiding;
+    /**
+     * 方法声明的 JDT binding key，用于在 AST 释放后仍能关联方法调用
+     */
+    private String bindingKey;
 
     private String belongTo;
 
@@ -60,7 +75,10 @@ public class JavaMethod {
 
     private String fullVariables;
 
-    private Set<IMethodBinding> methodCalls;
+    /**
+     * 方法体中调用的方法的 binding key
+     */
+    private Set<String> methodCalls;
 
     private String throwType;
 
@@ -74,15 +92,15 @@ public class JavaMethod {
     private List<JavaField> fieldAccessList = new ArrayList<>();
 
 
-    public JavaMethod(String name, String fullName, String returnType, String content, String comment, String params, IMethodBinding methodBinding,
-                          String fullReturnType, String belongTo, String fullParams, String fullVariables, Set<IMethodBinding> methodCalls, String fieldAccesses, String throwTypes) {
+    public JavaMethod(String name, String fullName, String returnType, String content, String comment, String params, String bindingKey,
+                          String fullReturnType, String belongTo, String fullParams, String fullVariables, Set<String> methodCalls, String fieldAccesses, String throwTypes) {
         this.name = name;
         this.fullName = fullName;
         this.returnType = returnType;
         this.content = content;
         this.comment = comment;
         this.params = params;
-        this.methodBiding = methodBinding;
+        this.bindingKey = bindingKey;
         this.fullReturnType = fullReturnType;
         this.belongTo = belongTo;
         this.fullParams = fullParams;
@@ -92,21 +110,38 @@ public class JavaMethod {
         this.throwType = throwTypes;
     }
 
+    public String getContent() {
+        return Objects.isNull(content) && !Objects.isNull(contentRange) ? contentRange.toString() : content;
+    }
+
+    public String getComment() {
+        return Objects.isNull(comment) && !Objects.isNull(commentRange) ? commentRange.toString() : comment;
+    }
+
     public JavaMethodEntity storeInNeo4j(JavaMethodRepo javaMethodRepo, JSONObject jsonContent) {
+        return javaMethodRepo.save(toEntity(jsonContent));
+    }
+
+    /**
+     * 构造尚未持久化的实体，供逐个保存与批量创建共用
+     */
+    public JavaMethodEntity toEntity(JSONObject jsonContent) {
         JavaMethodEntity methodEntity = new JavaMethodEntity();
         methodEntity.setName(name);
         methodEntity.setFullName(fullName);
         methodEntity.setProjectName(projectName);
+        methodEntity.setFilePath(filePath);
+        methodEntity.setBindingKey(bindingKey);
         methodEntity.setReturnType(returnType);
-        methodEntity.setContent(content);
-        methodEntity.setComment(comment);
+        methodEntity.setContent(getContent());
+        methodEntity.setComment(getComment());
         methodEntity.setParams(params);
         methodEntity.setMappingUrl(mappingUrl);
         if(!Objects.isNull(jsonContent)) {
             methodEntity.setVid(jsonContent.getLong("id"));
             methodEntity.setDescription(jsonContent.getString("description"));
         }
-        return javaMethodRepo.save(methodEntity);
+        return methodEntity;
     }
 
     /**
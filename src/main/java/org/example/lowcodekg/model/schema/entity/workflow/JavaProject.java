@@ -3,7 +3,6 @@ package org.example.lowcodekg.model.schema.entity.workflow;
 import com.alibaba.fastjson.JSONObject;
 import lombok.Getter;
 import lombok.Setter;
-import org.eclipse.jdt.core.dom.IMethodBinding;
 import org.example.lowcodekg.model.dao.neo4j.entity.java.WorkflowEntity;
 import org.example.lowcodekg.model.dao.neo4j.entity.java.JavaClassEntity;
 import org.example.lowcodekg.model.dao.neo4j.entity.java.JavaFieldEntity;
@@ -12,14 +11,25 @@ import org.example.lowcodekg.model.dao.neo4j.repository.JavaClassRepo;
 import org.example.lowcodekg.model.dao.neo4j.repository.JavaFieldRepo;
 import org.example.lowcodekg.model.dao.neo4j.repository.JavaMethodRepo;
 import org.example.lowcodekg.model.dao.neo4j.repository.WorkflowRepo;
+import org.example.lowcodekg.model.dao.neo4j.writer.NodeBatchWriter;
+import org.example.lowcodekg.model.dao.neo4j.writer.RelationBatchWriter;
 import org.example.lowcodekg.common.util.JsonUtil;
+import org.example.lowcodekg.extraction.workflow.TypeReferenceResolver;
 import org.example.lowcodekg.query.service.util.ElasticSearchService;
 import org.example.lowcodekg.query.service.util.summarize.FuncGenerate;
+import org.springframework.data.neo4j.core.Neo4jClient;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
+/**
+ * 单个 Java 项目的解析结果
+ * 解析阶段可能由多个线程同时调用 addXxx 写入，因此各实体表使用并发容器；
+ * parse 方法只由写库阶段的单个线程调用
+ */
 @Component
 public class JavaProject {
 
@@ -30,20 +40,62 @@ public class JavaProject {
     @Setter
     private ElasticSearchService elasticSearchService;
 
+    /**
+     * 关系通过 Neo4jClient 批量写入，每批包含的关系数为 neo4jBatchSize
+     */
+    @Setter
+    private Neo4jClient neo4jClient;
+    @Setter
+    private int neo4jBatchSize = 1000;
+    /**
+     * 是否批量创建类、方法、字段节点；关闭时逐个调用 repository.save
+     */
+    @Setter
+    private boolean bulkNodes = true;
+
     @Getter
     @Setter
     private String projectName;
 
-    private Map<String, JavaClass> classMap = new HashMap<>();
-    private Map<String, JavaClassEntity> classEntityMap = new HashMap<>();
+    private Map<String, JavaClass> classMap = new ConcurrentHashMap<>();
+    private Map<String, JavaClassEntity> classEntityMap = new ConcurrentHashMap<>();
 
-    private Map<String, JavaMethod> methodMap = new HashMap<>();
-    private Map<String, JavaMethodEntity> methodEntityMap = new HashMap<>();
+    private Map<String, JavaMethod> methodMap = new ConcurrentHashMap<>();
+    private Map<String, JavaMethodEntity> methodEntityMap = new ConcurrentHashMap<>();
 
-    private Map<String, JavaField> fieldMap = new HashMap<>();
-    private Map<String, JavaFieldEntity> fieldEntityMap = new HashMap<>();
+    private Map<String, JavaField> fieldMap = new ConcurrentHashMap<>();
+    private Map<String, JavaFieldEntity> fieldEntityMap = new ConcurrentHashMap<>();
 
-    private Map<IMethodBinding, JavaMethod> methodBindingMap = new HashMap<>();
+    /**
+     * 以 binding key 索引方法，key 在不同 ASTParser 之间保持稳定，因此可以关联跨批次解析的方法调用
+     */
+    private Map<String, JavaMethod> methodBindingMap = new ConcurrentHashMap<>();
+
+    /**
+     * 增量抽取时图中已存在、本次未重新解析的类和字段，只参与关系关联，不会重复创建
+     * 对应的实体（仅含 id）直接放入 xxxEntityMap
+     */
+    private Map<String, JavaClass> existingClassMap = new HashMap<>();
+    private Map<String, JavaField> existingFieldMap = new HashMap<>();
+
+    /**
+     * 类型字符串到类、字段的解析器，在 parse 开始时基于完整的实体表构建
+     */
+    private TypeReferenceResolver<JavaClass> classResolver;
+    private TypeReferenceResolver<JavaField> fieldResolver;
+    @Setter
+    private boolean typeBloomFilter = false;
+
+    /**
+     * parse 中写入失败的节点与关系数，批量写入失败时无法确定受影响的源文件
+     */
+    @Getter
+    private long writeFailures = 0;
+
+    /**
+     * 待提交摘要的数据实体类，在 parse 的图写入全部刷新后统一提交
+     */
+    private final List<JavaClassEntity> dataObjectEntities = new ArrayList<>();
 
     public JavaProject(FuncGenerate funcGenerate) {
         this.funcGenerate = funcGenerate;
@@ -68,13 +120,60 @@ public class JavaProject {
 
     public void addMethod(JavaMethod javaMethod) {
         methodMap.put(javaMethod.getFullName(), javaMethod);
-        methodBindingMap.put(javaMethod.getMethodBiding(), javaMethod);
+        if(!Objects.isNull(javaMethod.getBindingKey())) {
+            methodBindingMap.put(javaMethod.getBindingKey(), javaMethod);
+        }
     }
 
     public void addField(JavaField javaField) {
         fieldMap.put(javaField.getFullName(), javaField);
     }
 
+    public void addExistingClass(String fullName, Long id) {
+        JavaClass javaClass = new JavaClass();
+        javaClass.setFullName(fullName);
+        existingClassMap.put(fullName, javaClass);
+        JavaClassEntity classEntity = new JavaClassEntity();
+        classEntity.setId(id);
+        classEntity.setFullName(fullName);
+        classEntityMap.put(fullName, classEntity);
+    }
+
+    public void addExistingMethod(String fullName, String bindingKey, Long id) {
+        JavaMethod javaMethod = new JavaMethod();
+        javaMethod.setFullName(fullName);
+        javaMethod.setBindingKey(bindingKey);
+        if(!Objects.isNull(bindingKey)) {
+            methodBindingMap.put(bindingKey, javaMethod);
+        }
+        JavaMethodEntity methodEntity = new JavaMethodEntity();
+        methodEntity.setId(id);
+        methodEntity.setFullName(fullName);
+        methodEntityMap.put(fullName, methodEntity);
+    }
+
+    public void addExistingField(String fullName, Long id) {
+        JavaField javaField = new JavaField();
+        javaField.setFullName(fullName);
+        existingFieldMap.put(fullName, javaField);
+        JavaFieldEntity fieldEntity = new JavaFieldEntity();
+        fieldEntity.setId(id);
+        fieldEntity.setFullName(fullName);
+        fieldEntityMap.put(fullName, fieldEntity);
+    }
+
+    /**
+     * 按标签和 fullName 查找已写入图中的节点 id
+     */
+    public Long findEntityId(String label, String fullName) {
+        return switch (label) {
+            case "JavaClass" -> idOf(classEntityMap.get(fullName));
+            case "JavaMethod" -> idOf(methodEntityMap.get(fullName));
+            case "JavaField" -> idOf(fieldEntityMap.get(fullName));
+            default -> null;
+        };
+    }
+
     /**
      * 创建实体及关系
      */
@@ -82,32 +181,68 @@ public class JavaProject {
                       JavaClassRepo javaClassRepo,
                       JavaMethodRepo javaMethodRepo,
                       JavaFieldRepo javaFieldRepo) {
-        methodMap.values().forEach(info -> methodBindingMap.put(info.getMethodBiding(), info));
+        methodMap.values().forEach(info -> {
+            if(!Objects.isNull(info.getBindingKey())) {
+                methodBindingMap.put(info.getBindingKey(), info);
+            }
+        });
 
+        Map<String, JavaClass> classIndex = new HashMap<>(existingClassMap);
+        classIndex.putAll(classMap);
+        Map<String, JavaField> fieldIndex = new HashMap<>(existingFieldMap);
+        fieldIndex.putAll(fieldMap);
+        classResolver = new TypeReferenceResolver<>(classIndex, typeBloomFilter);
+        fieldResolver = new TypeReferenceResolver<>(fieldIndex, typeBloomFilter);
+
+        RelationBatchWriter relationWriter = new RelationBatchWriter(neo4jClient, neo4jBatchSize);
+        NodeBatchWriter nodeWriter = bulkNodes ? new NodeBatchWriter(neo4jClient, neo4jBatchSize) : null;
         /*
          * create entities
          */
-        parseClassEntity(javaClassRepo);
-        parseMethodEntity(javaMethodRepo, workflowRepo);
-        parseFieldEntity(javaFieldRepo);
+        parseClassEntity(javaClassRepo, nodeWriter);
+        parseMethodEntity(javaMethodRepo, workflowRepo, nodeWriter, relationWriter);
+        parseFieldEntity(javaFieldRepo, nodeWriter);
 
         /*
          * store relationships
          */
-        parseRelations(javaClassRepo, javaMethodRepo, javaFieldRepo);
+        parseRelations(relationWriter);
+        relationWriter.flush();
+        writeFailures = relationWriter.getFailedCount() + (Objects.isNull(nodeWriter) ? 0 : nodeWriter.getFailedCount());
+
+        /*
+         * 图写入完成后再提交数据实体类的摘要任务
+         * 摘要队列满时提交会阻塞，放在写入过程中会拖住缓冲区里尚未落库的关系
+         */
+        dataObjectEntities.forEach(funcGenerate::genDataObjectFunc);
+        dataObjectEntities.clear();
     }
 
-    private void parseClassEntity(JavaClassRepo javaClassRepo) {
+    private void parseClassEntity(JavaClassRepo javaClassRepo, NodeBatchWriter nodeWriter) {
         classMap.values().forEach(classInfo -> {
             classInfo.setProjectName(projectName);
             classInfo.getSuperClassList().addAll(findJavaClassInfo(classInfo.getSuperClassType()));
             classInfo.getSuperInterfaceList().addAll(findJavaClassInfo(classInfo.getSuperInterfaceType()));
-            JavaClassEntity classEntity = classInfo.storeInNeo4j(javaClassRepo, jsonMap.get(classInfo.getFullName()));
-            // 判定为数据实体类，生成描述信息并添加索引
-            if(classInfo.getIsData()) {
-                funcGenerate.genDataObjectFunc(classEntity);
+        });
+        if(Objects.isNull(nodeWriter)) {
+            classMap.values().forEach(classInfo -> classEntityMap.put(classInfo.getFullName(),
+                    classInfo.storeInNeo4j(javaClassRepo, jsonMap.get(classInfo.getFullName()))));
+        } else {
+            Map<String, JavaClassEntity> entities = new LinkedHashMap<>();
+            classMap.values().forEach(classInfo -> entities.put(classInfo.getFullName(),
+                    classInfo.toEntity(jsonMap.get(classInfo.getFullName()))));
+            // 数据实体类在创建时直接带上 DataObject 标签
+            nodeWriter.create(new ArrayList<>(entities.values()),
+                    entity -> Boolean.TRUE.equals(entity.getIsData()) ? "JavaClass:DataObject" : "JavaClass",
+                    JavaClassEntity::toProperties, JavaClassEntity::setId);
+            putCreated(entities, classEntityMap, JavaClassEntity::getId);
+        }
+        // 判定为数据实体类，待图写入完成后生成描述信息并添加索引
+        classMap.values().forEach(classInfo -> {
+            JavaClassEntity classEntity = classEntityMap.get(classInfo.getFullName());
+            if(Boolean.TRUE.equals(classInfo.getIsData()) && !Objects.isNull(classEntity)) {
+                dataObjectEntities.add(classEntity);
             }
-            classEntityMap.put(classInfo.getFullName(), classEntity);
         });
         // class -[extend | implement]-> class
         classMap.values().forEach(classInfo -> {
@@ -123,7 +258,8 @@ public class JavaProject {
         });
     }
 
-    private void parseMethodEntity(JavaMethodRepo javaMethodRepo, WorkflowRepo workflowRepo) {
+    private void parseMethodEntity(JavaMethodRepo javaMethodRepo, WorkflowRepo workflowRepo,
+                                   NodeBatchWriter nodeWriter, RelationBatchWriter relationWriter) {
         methodMap.values().forEach(methodInfo -> {
             methodInfo.setProjectName(projectName);
             findJavaClassInfo(methodInfo.getBelongTo()).forEach(owner -> owner.getContainMethodList().add(methodInfo));
@@ -136,15 +272,25 @@ public class JavaProject {
                 }
             });
             findJavaFieldInfo(methodInfo.getFieldAccesses()).forEach(access -> methodInfo.getFieldAccessList().add(access));
-
-            JavaMethodEntity methodEntity = methodInfo.storeInNeo4j(javaMethodRepo, jsonMap.get(methodInfo.getFullName()));
-            methodEntityMap.put(methodInfo.getFullName(), methodEntity);
-
+        });
+        if(Objects.isNull(nodeWriter)) {
+            methodMap.values().forEach(methodInfo -> methodEntityMap.put(methodInfo.getFullName(),
+                    methodInfo.storeInNeo4j(javaMethodRepo, jsonMap.get(methodInfo.getFullName()))));
+        } else {
+            Map<String, JavaMethodEntity> entities = new LinkedHashMap<>();
+            methodMap.values().forEach(methodInfo -> entities.put(methodInfo.getFullName(),
+                    methodInfo.toEntity(jsonMap.get(methodInfo.getFullName()))));
+            nodeWriter.create(new ArrayList<>(entities.values()), entity -> "JavaMethod",
+                    JavaMethodEntity::toProperties, JavaMethodEntity::setId);
+            putCreated(entities, methodEntityMap, JavaMethodEntity::getId);
+        }
+        methodMap.values().forEach(methodInfo -> {
+            JavaMethodEntity methodEntity = methodEntityMap.get(methodInfo.getFullName());
             // check if the method belongs to workflow
-            if(methodInfo.belongToWorkflow()) {
+            if(!Objects.isNull(methodEntity) && methodInfo.belongToWorkflow()) {
                 Workflow workflow = new Workflow(methodInfo);
                 WorkflowEntity workflowEntity = workflow.createWorkflowEntity(workflowRepo);
-                workflowRepo.createRelationOfContainedMethod(workflowEntity.getId(), methodEntity.getId());
+                relationWriter.add("Workflow", "CONTAIN", "JavaMethod", workflowEntity.getId(), methodEntity.getId());
             }
         });
         // class -[have_method]-> method
@@ -177,15 +323,23 @@ public class JavaProject {
         });
     }
 
-    private void parseFieldEntity(JavaFieldRepo javaFieldRepo) {
+    private void parseFieldEntity(JavaFieldRepo javaFieldRepo, NodeBatchWriter nodeWriter) {
         fieldMap.values().forEach(fieldInfo -> {
             fieldInfo.setProjectName(projectName);
             findJavaClassInfo(fieldInfo.getBelongTo()).forEach(owner -> owner.getContainFieldList().add(fieldInfo));
             findJavaClassInfo(fieldInfo.getFullType()).forEach(type -> fieldInfo.getFiledTypeList().add(type));
-
-            JavaFieldEntity fieldEntity = fieldInfo.storeInNeo4j(javaFieldRepo, jsonMap.get(fieldInfo.getFullName()));
-            fieldEntityMap.put(fieldInfo.getFullName(), fieldEntity);
         });
+        if(Objects.isNull(nodeWriter)) {
+            fieldMap.values().forEach(fieldInfo -> fieldEntityMap.put(fieldInfo.getFullName(),
+                    fieldInfo.storeInNeo4j(javaFieldRepo, jsonMap.get(fieldInfo.getFullName()))));
+        } else {
+            Map<String, JavaFieldEntity> entities = new LinkedHashMap<>();
+            fieldMap.values().forEach(fieldInfo -> entities.put(fieldInfo.getFullName(),
+                    fieldInfo.toEntity(jsonMap.get(fieldInfo.getFullName()))));
+            nodeWriter.create(new ArrayList<>(entities.values()), entity -> "JavaField",
+                    JavaFieldEntity::toProperties, JavaFieldEntity::setId);
+            putCreated(entities, fieldEntityMap, JavaFieldEntity::getId);
+        }
         // class -[have_field]-> field
         classMap.values().forEach(classInfo -> {
             JavaClassEntity classEntity = classEntityMap.get(classInfo.getFullName());
@@ -215,61 +369,74 @@ public class JavaProject {
         });
     }
 
-    private void parseRelations(JavaClassRepo javaClassRepo, JavaMethodRepo javaMethodRepo, JavaFieldRepo javaFieldRepo) {
+    private void parseRelations(RelationBatchWriter relationWriter) {
         classEntityMap.values().forEach(classEntity -> {
             classEntity.getSuperClassList().forEach(superClass -> {
-                javaClassRepo.createRelationOfExtendClass(classEntity.getId(), superClass.getId());
+                relationWriter.add("JavaClass", "EXTEND", "JavaClass", classEntity.getId(), idOf(superClass));
             });
             classEntity.getSuperInterfaceList().forEach(superInterface -> {
-                javaClassRepo.createRelationOfInterface(classEntity.getId(), superInterface.getId());
+                relationWriter.add("JavaClass", "IMPLEMENT", "JavaClass", classEntity.getId(), idOf(superInterface));
             });
             classEntity.getMethodList().forEach(methodEntity -> {
-                javaClassRepo.createRelationOfMethod(classEntity.getId(), methodEntity.getId());
+                relationWriter.add("JavaClass", "HAVE_METHOD", "JavaMethod", classEntity.getId(), idOf(methodEntity));
             });
             classEntity.getFieldList().forEach(fieldEntity -> {
-                javaClassRepo.createRelationOfField(classEntity.getId(), fieldEntity.getId());
+                relationWriter.add("JavaClass", "HAVE_FIELD", "JavaField", classEntity.getId(), idOf(fieldEntity));
             });
 
         });
         methodEntityMap.values().forEach(methodEntity -> {
             methodEntity.getMethodCallList().forEach(call -> {
-                javaMethodRepo.createRelationOfMethodCall(methodEntity.getId(), call.getId());
+                relationWriter.add("JavaMethod", "METHOD_CALL", "JavaMethod", methodEntity.getId(), idOf(call));
             });
             methodEntity.getParamTypeList().forEach(param -> {
-                javaMethodRepo.createRelationOfParamType(methodEntity.getId(), param.getId());
+                relationWriter.add("JavaMethod", "PARAM_TYPE", "JavaClass", methodEntity.getId(), idOf(param));
             });
             methodEntity.getReturnTypeList().forEach(returnType -> {
-                javaMethodRepo.createRelationOfReturnType(methodEntity.getId(), returnType.getId());
+                relationWriter.add("JavaMethod", "RETURN_TYPE", "JavaClass", methodEntity.getId(), idOf(returnType));
             });
             methodEntity.getVariableTypeList().forEach(variable -> {
-                javaMethodRepo.createRelationOfVariableType(methodEntity.getId(), variable.getId());
+                relationWriter.add("JavaMethod", "VARIABLE_TYPE", "JavaClass", methodEntity.getId(), idOf(variable));
             });
             methodEntity.getFieldAccessList().forEach(access -> {
-                javaMethodRepo.createRelationOfFieldAccess(methodEntity.getId(), access.getId());
+                relationWriter.add("JavaMethod", "FIELD_ACCESS", "JavaField", methodEntity.getId(), idOf(access));
             });
         });
         fieldEntityMap.values().forEach(fieldEntity -> {
             fieldEntity.getTypeList().forEach(type -> {
-                javaFieldRepo.createRelationOfFieldType(fieldEntity.getId(), type.getId());
+                relationWriter.add("JavaField", "FIELD_TYPE", "JavaClass", fieldEntity.getId(), idOf(type));
             });
         });
     }
 
+    /**
+     * 批量创建后只登记成功写入（已回填 id）的实体
+     */
+    private static <E> void putCreated(Map<String, E> entities, Map<String, E> entityMap, Function<E, Long> idGetter) {
+        entities.forEach((fullName, entity) -> {
+            if(!Objects.isNull(idGetter.apply(entity))) {
+                entityMap.put(fullName, entity);
+            }
+        });
+    }
+
+    private static Long idOf(JavaClassEntity entity) {
+        return Objects.isNull(entity) ? null : entity.getId();
+    }
+
+    private static Long idOf(JavaMethodEntity entity) {
+        return Objects.isNull(entity) ? null : entity.getId();
+    }
+
+    private static Long idOf(JavaFieldEntity entity) {
+        return Objects.isNull(entity) ? null : entity.getId();
+    }
+
     private Set<JavaClass> findJavaClassInfo(String str) {
-        Set<JavaClass> r = new HashSet<>();
-        String[] tokens = str.split("[^\\w\\.]+");
-        for (String token : tokens)
-            if (classMap.containsKey(token))
-                r.add(classMap.get(token));
-        return r;
+        return classResolver.resolve(str);
     }
 
     private Set<JavaField> findJavaFieldInfo(String str) {
-        Set<JavaField> r = new HashSet<>();
-        String[] tokens = str.split("[^\\w\\.]+");
-        for (String token : tokens)
-            if (fieldMap.containsKey(token))
-                r.add(fieldMap.get(token));
-        return r;
+        return fieldResolver.resolve(str);
     }
 }
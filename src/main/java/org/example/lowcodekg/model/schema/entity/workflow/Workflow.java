@@ -33,9 +33,6 @@ public class Workflow {
 
     private String mappingUrl;
 
-    // 请求响应方法调用链
-    private List<JavaMethod> methodList = new ArrayList<>();
-
     // 工作流包含的子类别实体(聚类过程)
     private List<Workflow> subWorkflowList = new ArrayList<>();
 
@@ -44,7 +41,6 @@ public class Workflow {
         this.fullName = method.getFullName();
         this.method = method;
         this.mappingUrl = method.getMappingUrl();
-        appendMethod(method);
     }
 
     public WorkflowEntity createWorkflowEntity(WorkflowRepo workflowRepo) {
@@ -56,20 +52,4 @@ public class Workflow {
         entity = workflowRepo.save(entity);
         return entity;
     }
-
-    private void appendMethod(JavaMethod method) {
-//        Queue<JavaMethod> q = new LinkedList();
-//        q.add(method);
-//        while(!q.isEmpty()) {
-//            JavaMethod cur = q.poll();
-//            methodList.add(cur);
-//            for(JavaMethod m: cur.getMethodCallList()) {
-//                q.add(m);
-//            }
-//        }
-        methodList.add(method);
-        for(JavaMethod m: method.getMethodCallList()) {
-            appendMethod(m);
-        }
-    }
 }
\ No newline at end of file
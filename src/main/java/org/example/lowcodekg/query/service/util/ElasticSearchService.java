@@ -1,6 +1,7 @@
 package org.example.lowcodekg.query.service.util;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.ScrollResponse;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
 import co.elastic.clients.elasticsearch.core.search.Hit;
 import co.elastic.clients.elasticsearch.indices.IndexState;
@@ -17,6 +18,7 @@ import java.lang.reflect.Field;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static org.example.lowcodekg.query.utils.Constants.*;
@@ -161,6 +163,60 @@ public class ElasticSearchService {
         );
     }
 
+    /**
+     * 以 scroll 方式遍历索引中的全部文档
+     * @param includes 只返回的字段，为空时返回全部字段
+     * @param batchSize 每次拉取的文档数
+     */
+    public void scanDocuments(String indexName, List<String> includes, int batchSize, Consumer<Document> consumer)
+            throws IOException {
+        SearchResponse<Document> response = client.search(s -> s
+                        .index(indexName)
+                        .query(q -> q.matchAll(m -> m))
+                        .source(src -> includes.isEmpty() ? src.fetch(true) : src.filter(f -> f.includes(includes)))
+                        .size(batchSize)
+                        .scroll(t -> t.time("1m")),
+                Document.class
+        );
+        String scrollId = response.scrollId();
+        List<Hit<Document>> hits = response.hits().hits();
+        try {
+            while (!hits.isEmpty()) {
+                for (Hit<Document> hit : hits) {
+                    Document document = hit.source();
+                    if (document != null) {
+                        document.setId(hit.id());
+                        consumer.accept(document);
+                    }
+                }
+                String currentScrollId = scrollId;
+                ScrollResponse<Document> next = client.scroll(s -> s
+                                .scrollId(currentScrollId)
+                                .scroll(t -> t.time("1m")),
+                        Document.class
+                );
+                scrollId = next.scrollId();
+                hits = next.hits().hits();
+            }
+        } finally {
+            String lastScrollId = scrollId;
+            if (lastScrollId != null) {
+                client.clearScroll(c -> c.scrollId(lastScrollId));
+            }
+        }
+    }
+
+    /**
+     * 按 id 删除单个文档，文档不存在时忽略
+     */
+    public void deleteDocument(String id, String indexName) {
+        try {
+            client.delete(d -> d.index(indexName).id(id));
+        } catch (Exception e) {
+            System.err.println("Failed to delete document " + id + " in index " + indexName + ": " + e.getMessage());
+        }
+    }
+
     /**
      * 基于文本内容搜索文档
      * @param query 查询文本
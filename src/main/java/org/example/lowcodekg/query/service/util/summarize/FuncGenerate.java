@@ -7,6 +7,7 @@ import org.example.lowcodekg.model.result.Result;
 
 /**
  * @Description 为低代码资源生成功能描述
+ * 生成过程异步执行：gen 方法提交任务后立即返回，描述、IR、向量与 ES 索引由后台流水线陆续补全
  * @Author Sherloque
  * @Date 2025/3/23 15:47
  */
@@ -26,4 +27,9 @@ public interface FuncGenerate {
      * 针对数据实体，生成功能描述信息
      */
     void genDataObjectFunc(JavaClassEntity classEntity);
+
+    /**
+     * 等待已提交的功能描述全部生成完成
+     */
+    void awaitCompletion();
 }
@@ -1,38 +1,39 @@
 package org.example.lowcodekg.query.service.util.summarize;
 
 import com.alibaba.fastjson.JSONObject;
+import org.example.lowcodekg.common.config.ExtractionConfig;
+import org.example.lowcodekg.model.dao.Describable;
 import org.example.lowcodekg.model.dao.es.document.Document;
+import org.example.lowcodekg.model.dao.neo4j.cypher.CypherQuery;
 import org.example.lowcodekg.model.dao.neo4j.entity.java.JavaClassEntity;
 import org.example.lowcodekg.model.dao.neo4j.entity.java.WorkflowEntity;
 import org.example.lowcodekg.model.dao.neo4j.entity.page.PageEntity;
-import org.example.lowcodekg.model.dao.neo4j.repository.JavaClassRepo;
-import org.example.lowcodekg.model.dao.neo4j.repository.PageRepo;
-import org.example.lowcodekg.model.dao.neo4j.repository.WorkflowRepo;
 import org.example.lowcodekg.query.model.IR;
 import org.example.lowcodekg.query.service.ir.IRGenerate;
 import org.example.lowcodekg.query.service.util.EmbeddingUtil;
 import org.example.lowcodekg.query.utils.FormatUtil;
 import org.example.lowcodekg.query.service.util.ElasticSearchService;
 import org.example.lowcodekg.service.LLMGenerateService;
-import org.neo4j.driver.QueryRunner;
-import org.neo4j.driver.Result;
 import org.neo4j.driver.types.Node;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.neo4j.core.Neo4jClient;
 import org.springframework.stereotype.Service;
 
-import java.text.MessageFormat;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.example.lowcodekg.query.utils.Constants.*;
 import static org.example.lowcodekg.query.utils.Prompt.PAGE_SUMMARIZE_PROMPT;
 import static org.example.lowcodekg.query.utils.Prompt.WORKFLOW_SUMMARIZE_PROMPT;
 
 /**
- * @Description
+ * @Description 功能描述生成，各 gen 方法只提交任务，由摘要流水线异步完成
  * @Author Sherloque
  * @Date 2025/3/23 15:47
  */
@@ -48,113 +49,182 @@ public class FuncGenerateImpl implements FuncGenerate {
     @Autowired
     private ElasticSearchService esService;
     @Autowired
-    private WorkflowRepo workflowRepo;
-    @Autowired
-    private PageRepo pageRepo;
-    @Autowired
-    private JavaClassRepo classRepo;
-    @Autowired
     private IRGenerate irGenerate;
+    @Autowired
+    private ExtractionConfig extractionConfig;
+
+    private static final CypherQuery<Map<String, Object>> PAGE_COMPONENTS = CypherQuery.define("page components", """
+            MATCH (p:PageTemplate)-[:CONTAIN]->(c:Component)
+            WHERE id(p) = $id
+            RETURN c, p.content AS pageContent
+            """);
+    private static final CypherQuery<Node> COMPONENT_CONFIG_ITEMS = CypherQuery.define("component config items", """
+            MATCH (p:Component)-[:CONTAIN]->(c:ConfigItem)
+            WHERE id(p) = $id
+            RETURN c
+            """, row -> (Node) row.get("c"));
+    private static final CypherQuery<Node> COMPONENT_CHILDREN = CypherQuery.define("component children", """
+            MATCH (p:Component)-[:PARENT_OF]->(c:Component)
+            WHERE id(p) = $id
+            RETURN c
+            """, row -> (Node) row.get("c"));
+    private static final CypherQuery<Map<String, Object>> SET_DESCRIPTION = CypherQuery.define("set description",
+            "MATCH (n) WHERE id(n) = $id SET n.description = $description, n.ir = $ir");
+
+    private StagedPipeline<SummaryTask> pipeline;
+
+    /**
+     * 在流水线各阶段之间传递的摘要任务
+     */
+    private static class SummaryTask {
+        private final Describable entity;
+        private final String label;
+        private final String indexName;
+        private final Supplier<String> prompt;
+        private String description;
+        private String ir;
+        private List<Float> embedding;
+
+        private SummaryTask(Describable entity, String label, String indexName, Supplier<String> prompt) {
+            this.entity = entity;
+            this.label = label;
+            this.indexName = indexName;
+            this.prompt = prompt;
+        }
+    }
+
+    /**
+     * 摘要流水线：LLM 功能描述 -> IR 生成（同时写回图） -> 向量嵌入 -> ES 索引
+     * 各阶段独立限流，抽取过程只负责提交任务，图写入不再等待 LLM
+     */
+    private synchronized StagedPipeline<SummaryTask> pipeline() {
+        if(pipeline == null) {
+            pipeline = new StagedPipeline<SummaryTask>("summary", 50)
+                    .addStage("llm", extractionConfig.getSummaryLlmWorkers(),
+                            extractionConfig.getSummaryQueueCapacity(), this::describe)
+                    .addStage("ir", extractionConfig.getSummaryIrWorkers(),
+                            extractionConfig.getSummaryIrWorkers() * 4, this::generateIR)
+                    .addStage("embedding", extractionConfig.getSummaryEmbeddingWorkers(),
+                            extractionConfig.getSummaryEmbeddingWorkers() * 4, this::embed)
+                    .addStage("index", extractionConfig.getSummaryIndexWorkers(),
+                            extractionConfig.getSummaryIndexWorkers() * 4, this::index);
+        }
+        return pipeline;
+    }
 
     @Override
     public void genDataObjectFunc(JavaClassEntity classEntity) {
-        try {
-            // functional description
-            String prompt = WORKFLOW_SUMMARIZE_PROMPT.replace("{code}", classEntity.getContent());
-            String result = FormatUtil.extractJson(llmGenerateService.generateAnswer(prompt));
-            JSONObject jsonObject = JSONObject.parseObject(result);
-            String description = jsonObject.getString("functionality");
-            classEntity.setDescription(description);
-            // convert to IR list
-            List<IR> irList = irGenerate.generateIR(description, "DataObject").getData();
-            classEntity.setIr(JSONObject.toJSONString(irList));
-            JavaClassEntity entity = classRepo.save(classEntity);
-
-            // create es index
-//            entity.setEmbedding(EmbeddingUtil.embedText(JSONObject.toJSONString(irList)));
-            entity.setEmbedding(EmbeddingUtil.embedText(description));
-            Document document = FormatUtil.entityToDocument(entity);
-            esService.indexDocument(document, DATA_OBJECT_INDEX_NAME);
-        } catch (Exception e) {
-            System.err.println("Error in genDataObjectFunc");
-        }
+        pipeline().submit(new SummaryTask(classEntity, "DataObject", DATA_OBJECT_INDEX_NAME,
+                () -> WORKFLOW_SUMMARIZE_PROMPT.replace("{code}", classEntity.getContent())));
     }
+
     @Override
     public void genWorkflowFunc(WorkflowEntity workflowEntity) {
-        try {
-            String prompt = WORKFLOW_SUMMARIZE_PROMPT.replace("{code}", workflowEntity.getContent());
-            String result = FormatUtil.extractJson(llmGenerateService.generateAnswer(prompt));
-            JSONObject jsonObject = JSONObject.parseObject(result);
-            String description = jsonObject.getString("functionality");
-            workflowEntity.setDescription(description);
-            // IR
-            List<IR> irList = irGenerate.generateIR(description, "Workflow").getData();
-            workflowEntity.setIr(JSONObject.toJSONString(irList));
-            WorkflowEntity entity = workflowRepo.save(workflowEntity);
-
-            // create es index
-//            entity.setEmbedding(EmbeddingUtil.embedText(JSONObject.toJSONString(irList)));
-            entity.setEmbedding(EmbeddingUtil.embedText(description));
-            Document document = FormatUtil.entityToDocument(entity);
-            esService.indexDocument(document, WORKFLOW_INDEX_NAME);
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("genWorkflowFunc error, " + workflowEntity.getName());
-        }
+        pipeline().submit(new SummaryTask(workflowEntity, "Workflow", WORKFLOW_INDEX_NAME,
+                () -> WORKFLOW_SUMMARIZE_PROMPT.replace("{code}", workflowEntity.getContent())));
     }
 
     @Override
     public void genPageFunc(PageEntity pageEntity) {
+        pipeline().submit(new SummaryTask(pageEntity, "PageTemplate", PAGE_INDEX_NAME,
+                () -> buildPagePrompt(pageEntity)));
+    }
+
+    @Override
+    public void awaitCompletion() {
+        if(pipeline != null) {
+            pipeline.await();
+        }
+    }
+
+    private void describe(SummaryTask task) {
+        String result = FormatUtil.extractJson(llmGenerateService.generateAnswer(task.prompt.get()));
+        JSONObject jsonObject = JSONObject.parseObject(result);
+        String description = jsonObject.getString("functionality");
+        if(description == null) {
+            throw new IllegalStateException("no functionality in summary of " + task.entity.getFullName());
+        }
+        task.description = description;
+    }
+
+    /**
+     * 生成 IR，并将描述与 IR 写回图中的节点
+     * 只更新这两个属性，不保存整个实体，避免覆盖抽取过程中仍在写入的关系
+     */
+    private void generateIR(SummaryTask task) {
+        // 页面沿用原实现，以 DataObject 类型生成 IR
+        String irType = "Workflow".equals(task.label) ? "Workflow" : "DataObject";
+        List<IR> irList = irGenerate.generateIR(task.description, irType).getData();
+        task.ir = JSONObject.toJSONString(irList);
+        SET_DESCRIPTION.run(neo4jClient, Map.of("id", task.entity.getId(),
+                "description", task.description, "ir", task.ir));
+    }
+
+    private void embed(SummaryTask task) {
+//        task.embedding = EmbeddingUtil.embedText(task.ir);
+        task.embedding = EmbeddingUtil.embedText(task.description);
+    }
+
+    private void index(SummaryTask task) {
+        Document document = new Document();
+        document.setId(task.entity.getId().toString());
+        document.setName(task.entity.getName());
+        document.setFullName(task.entity.getFullName());
+        document.setContent(task.description);
+        document.setEmbedding(FormatUtil.ListToArray(task.embedding));
+        document.setIr(task.ir);
+        document.setLabel(task.label);
         try {
-            String formattedId = String.format("%d", pageEntity.getId());
-            StringBuilder codeContent = new StringBuilder();
-            Set<String> keywords = new HashSet<>();
-            List<Node> nodeList = new ArrayList<>();
-
-            // get component entity of page entity
-            String nodeCypher = MessageFormat.format("""
-                MATCH (p:PageTemplate)-[:CONTAIN]->(c:Component)
-                where id(p)={0}
-                RETURN c
-                """, formattedId);
-            QueryRunner runner = neo4jClient.getQueryRunner();
-            Result result = runner.run(nodeCypher);
-            while (result.hasNext()) {
-                Node node = result.next().get("c").asNode();
-                nodeList.add(node);
-                // code content
-                codeContent.append(node.asMap().get("content"));
-                // textual literals
-                keywords.add(node.asMap().get("text") + "\n");
-            }
+            esService.indexDocument(document, task.indexName);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-            // scan config item property of component entity
-            nodeList.forEach(node -> {
-                scanComponentProperty(node, keywords);
-            });
-
-            // construct final prompt
-            String prompt = PAGE_SUMMARIZE_PROMPT
-                    .replace("{code}", codeContent.toString())
-                    .replace("{keywords}", keywords.toString());
-            String res = FormatUtil.extractJson(llmGenerateService.generateAnswer(prompt));
-            JSONObject jsonObject = JSONObject.parseObject(res);
-            String description = jsonObject.getString("functionality");
-            pageEntity.setDescription(description);
-            List<IR> irList = irGenerate.generateIR(description, "DataObject").getData();
-            pageEntity.setIr(JSONObject.toJSONString(irList));
-            PageEntity entity = pageRepo.save(pageEntity);
-
-            // create es index
-//            entity.setEmbedding(EmbeddingUtil.embedText(JSONObject.toJSONString(irList)));
-            entity.setEmbedding(EmbeddingUtil.embedText(description));
-            Document document = FormatUtil.entityToDocument(entity);
-            esService.indexDocument(document, PAGE_INDEX_NAME);
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("generate PageFunctionality error, " + pageEntity.getFullName());
+    /**
+     * 页面代码与配置项中的文本字面量组成的摘要提示
+     */
+    private String buildPagePrompt(PageEntity pageEntity) {
+        StringBuilder codeContent = new StringBuilder();
+        Set<String> keywords = new HashSet<>();
+        List<Node> nodeList = new ArrayList<>();
+
+        // get component entity of page entity
+        for (Map<String, Object> row : PAGE_COMPONENTS.list(neo4jClient, Map.of("id", pageEntity.getId()))) {
+            Node node = (Node) row.get("c");
+            nodeList.add(node);
+            // code content
+            String pageContent = (String) row.get("pageContent");
+            codeContent.append(componentContent(node, pageContent));
+            // textual literals
+            keywords.add(node.asMap().get("text") + "\n");
+        }
+
+        // scan config item property of component entity
+        nodeList.forEach(node -> {
+            scanComponentProperty(node, keywords);
+        });
+
+        // construct final prompt
+        return PAGE_SUMMARIZE_PROMPT
+                .replace("{code}", codeContent.toString())
+                .replace("{keywords}", keywords.toString());
+    }
+
+    /**
+     * 组件源码：页面组件只保存在页面 template 源码中的起止偏移，在此按需截取
+     */
+    private static String componentContent(Node node, String pageContent) {
+        Map<String, Object> properties = node.asMap();
+        if(pageContent != null && properties.get("startOffset") instanceof Number start
+                && properties.get("endOffset") instanceof Number end) {
+            int from = start.intValue();
+            int to = Math.min(end.intValue(), pageContent.length());
+            if(from >= 0 && from <= to) {
+                return pageContent.substring(from, to);
+            }
         }
+        return String.valueOf(properties.get("content"));
     }
 
     /**
@@ -163,27 +233,11 @@ public class FuncGenerateImpl implements FuncGenerate {
     private void scanComponentProperty(Node node, Set<String> keywords) {
         try {
             // current component entity contained config item
-            String formattedId = String.format("%d", node.id());
-            String nodeCypher = MessageFormat.format("""
-                MATCH (p:Component)-[:CONTAIN]->(c:ConfigItem)
-                where id(p)={0}
-                RETURN c
-                """, formattedId);
-            QueryRunner runner = neo4jClient.getQueryRunner();
-            Result result = runner.run(nodeCypher);
-            while (result.hasNext()) {
-                Node n = result.next().get("c").asNode();
+            for (Node n : COMPONENT_CONFIG_ITEMS.list(neo4jClient, Map.of("id", node.id()))) {
                 keywords.add(getConfigItemValue(n));
             }
             // child component
-            nodeCypher = MessageFormat.format("""
-                MATCH (p:Component)-[:PARENT_OF]->(c:Component)
-                where id(p)={0}
-                RETURN c
-                """, formattedId);
-            result = runner.run(nodeCypher);
-            while (result.hasNext()) {
-                Node n = result.next().get("c").asNode();
+            for (Node n : COMPONENT_CHILDREN.list(neo4jClient, Map.of("id", node.id()))) {
                 scanComponentProperty(n, keywords);
             }
         } catch (Exception e) {
@@ -0,0 +1,156 @@
+package org.example.lowcodekg.query.service.util.summarize;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 多阶段异步流水线
+ * 每个阶段拥有独立的定长线程池，阶段内并发数与排队数均有上限；任务在一个阶段完成后进入下一阶段，
+ * 下一阶段排满时上一阶段的线程阻塞等待，形成逐级反压。某一阶段失败的任务不再进入后续阶段
+ * 线程池为守护线程，流水线可以在多次抽取之间复用
+ *
+ * @param <T> 在各阶段之间传递的任务对象
+ */
+public class StagedPipeline<T> {
+
+    private final String name;
+    private final List<Stage<T>> stages = new ArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong finished = new AtomicLong();
+    private final int reportInterval;
+
+    public StagedPipeline(String name, int reportInterval) {
+        this.name = name;
+        this.reportInterval = Math.max(1, reportInterval);
+    }
+
+    /**
+     * 添加一个阶段，阶段按添加顺序执行
+     * @param workers 阶段内并发执行的任务数
+     * @param queueCapacity 阶段内等待执行的任务数上限
+     */
+    public StagedPipeline<T> addStage(String stageName, int workers, int queueCapacity, Consumer<T> action) {
+        stages.add(new Stage<>(name + "-" + stageName, stageName, Math.max(1, workers), Math.max(0, queueCapacity), action));
+        return this;
+    }
+
+    /**
+     * 提交任务，第一阶段排满时阻塞等待
+     */
+    public void submit(T task) {
+        if (stages.isEmpty()) {
+            return;
+        }
+        inFlight.incrementAndGet();
+        dispatch(0, task);
+    }
+
+    private void dispatch(int index, T task) {
+        Stage<T> stage = stages.get(index);
+        stage.slots.acquireUninterruptibly();
+        stage.pool.execute(() -> {
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                stage.action.accept(task);
+                success = true;
+            } catch (Exception e) {
+                e.printStackTrace();
+                System.err.println("Error in " + stage.threadName + " stage: " + e.getMessage());
+            } finally {
+                stage.busyNanos.addAndGet(System.nanoTime() - start);
+                (success ? stage.completed : stage.failed).incrementAndGet();
+                stage.slots.release();
+            }
+            if (success && index + 1 < stages.size()) {
+                dispatch(index + 1, task);
+            } else {
+                finish();
+            }
+        });
+    }
+
+    private void finish() {
+        long count = finished.incrementAndGet();
+        if (count % reportInterval == 0) {
+            System.out.println(name + " progress: " + metrics());
+        }
+        if (inFlight.decrementAndGet() == 0) {
+            synchronized (inFlight) {
+                inFlight.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 等待已提交的任务全部完成（成功或失败），流水线保持可用
+     */
+    public void await() {
+        synchronized (inFlight) {
+            while (inFlight.get() > 0) {
+                try {
+                    inFlight.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    System.err.println(name + " pipeline interrupted");
+                    return;
+                }
+            }
+        }
+        System.out.println(name + " finished: " + metrics());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 各阶段的完成数、失败数、排队数与平均耗时
+     */
+    public String metrics() {
+        StringBuilder metrics = new StringBuilder("in flight ").append(inFlight.get());
+        for (Stage<T> stage : stages) {
+            long completed = stage.completed.get();
+            long failed = stage.failed.get();
+            long total = completed + failed;
+            metrics.append(", ").append(stage.stageName)
+                    .append(" ").append(completed).append(" done/")
+                    .append(failed).append(" failed/")
+                    .append(stage.pool.getQueue().size()).append(" queued");
+            if (total > 0) {
+                metrics.append("/").append(stage.busyNanos.get() / total / 1_000_000).append("ms avg");
+            }
+        }
+        return metrics.toString();
+    }
+
+    private static class Stage<T> {
+        private final String threadName;
+        private final String stageName;
+        private final ThreadPoolExecutor pool;
+        private final Semaphore slots;
+        private final Consumer<T> action;
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong busyNanos = new AtomicLong();
+
+        private Stage(String threadName, String stageName, int workers, int queueCapacity, Consumer<T> action) {
+            this.threadName = threadName;
+            this.stageName = stageName;
+            this.action = action;
+            // 许可数 = 执行中 + 排队中的任务数，线程池队列本身不设上限，由许可控制
+            this.slots = new Semaphore(workers + queueCapacity);
+            AtomicInteger counter = new AtomicInteger();
+            this.pool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, threadName + "-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
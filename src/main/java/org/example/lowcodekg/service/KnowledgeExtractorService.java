@@ -1,9 +1,12 @@
 package org.example.lowcodekg.service;
 
 import org.apache.commons.io.FileUtils;
+import org.example.lowcodekg.common.config.ExtractionConfig;
 import org.example.lowcodekg.extraction.ExtractorConfig;
 import org.example.lowcodekg.extraction.KnowledgeExtractor;
+import org.example.lowcodekg.model.dao.neo4j.cypher.CypherQuery;
 import org.example.lowcodekg.model.dao.neo4j.repository.*;
+import org.example.lowcodekg.model.dao.neo4j.schema.Neo4jSchemaManager;
 import org.example.lowcodekg.query.service.util.ElasticSearchService;
 import org.example.lowcodekg.query.service.util.summarize.FuncGenerate;
 import org.neo4j.driver.QueryRunner;
@@ -51,6 +54,10 @@ public class KnowledgeExtractorService {
     private LLMGenerateService llmGenerateService;
     @Autowired
     private FuncGenerate funcGenerateService;
+    @Autowired
+    private ExtractionConfig extractionConfig;
+    @Autowired
+    private Neo4jSchemaManager schemaManager;
 
     public void execute(String yamlStr)
     {
@@ -63,6 +70,7 @@ public class KnowledgeExtractorService {
             increment = true;
             ret.remove("increment");
         }
+        KnowledgeExtractor.setIncremental(increment);
         List<ExtractorConfig> configs = new ArrayList<>();
         for (String key : ret.keySet()) {
             Object value = ret.get(key);
@@ -81,7 +89,12 @@ public class KnowledgeExtractorService {
             elasticSearchService.deleteAllIndices();
             elasticSearchService.createDefaultIndex();
         }
+        // 抽取中按属性查找节点前确保索引已上线
+        schemaManager.ensureSchema();
         KnowledgeExtractor.execute(configs);
+        // 图构建完成后等待后台的功能描述生成结束
+        funcGenerateService.awaitCompletion();
+        System.out.println(CypherQuery.report());
     }
 
     private void initExtractorBean() {
@@ -100,6 +113,7 @@ public class KnowledgeExtractorService {
         KnowledgeExtractor.setLlmGenerateService(llmGenerateService);
         KnowledgeExtractor.setNeo4jClient(neo4jClient);
         KnowledgeExtractor.setFuncGenerateService(funcGenerateService);
+        KnowledgeExtractor.setExtractionConfig(extractionConfig);
     }
 
     public static void main(String[] args) {
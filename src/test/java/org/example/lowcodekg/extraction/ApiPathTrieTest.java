@@ -0,0 +1,66 @@
+package org.example.lowcodekg.extraction;
+
+import org.example.lowcodekg.extraction.fusion.ApiPathTrie;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ApiPathTrieTest {
+
+    private static ApiPathTrie<Long> trie(String... paths) {
+        ApiPathTrie<Long> trie = new ApiPathTrie<>();
+        for (int i = 0; i < paths.length; i++) {
+            trie.add(paths[i], (long) i);
+        }
+        return trie;
+    }
+
+    @Test
+    public void matchesSegmentSuffixesInBothDirections() {
+        ApiPathTrie<Long> trie = trie("/api/user/list", "/user/list", "/list", "/api/role/list", "/api/user/add");
+        // 后端路径是前端路径的后缀
+        assertEquals(Set.of(0L, 1L, 2L), trie.match("http://localhost:8080/api/user/list?page=1"));
+        // 前端路径是后端路径的后缀
+        assertEquals(Set.of(0L, 1L, 2L), trie.match("user/list"));
+        assertEquals(Set.of(2L, 3L), trie.match("role/list"));
+        assertEquals(Set.of(4L), trie.match("/api/user/add#top"));
+        // 与字符串 endsWith 不同，只按完整路径段匹配
+        assertEquals(Set.of(), trie("list", "user/list").match("/api/playlist"));
+        assertEquals(Set.of(), trie.match("/ist"));
+    }
+
+    @Test
+    public void pathVariablesMatchAnySegment() {
+        ApiPathTrie<Long> trie = trie("/api/user/{id}", "/api/user/{id}/roles", "/api/user/profile");
+        assertEquals(Set.of(0L, 2L), trie.match("/api/user/profile"));
+        assertEquals(Set.of(0L), trie.match("/api/user/12"));
+        assertEquals(Set.of(0L, 2L), trie.match("/api/user/${this.userId}"));
+        assertEquals(Set.of(1L), trie.match("/api/user/:id/roles"));
+        // '/api/user/' + id 截取到的路径末尾视为路径变量
+        assertEquals(Set.of(0L, 2L), trie.match("/api/user/"));
+        // 前后端的路径变量可以出现在不同位置
+        assertEquals(Set.of(0L), trie("/api/{id}/detail", "/user/add").match("/api/role/${id}"));
+    }
+
+    @Test
+    public void requiresOneLiteralSegment() {
+        // 类上没有前缀的 @GetMapping("/{id}") 不能匹配所有请求
+        ApiPathTrie<Long> trie = trie("/{id}", "/{type}/{id}", "/user/{id}");
+        assertEquals(Set.of(), trie.match("/role/list"));
+        assertEquals(Set.of(), trie.match("/api/user/12/roles"));
+        assertEquals(Set.of(), trie.match("/${id}"));
+        assertEquals(Set.of(2L), trie.match("/api/user/12"));
+        assertEquals(Set.of(2L), trie.match("user/${id}"));
+    }
+
+    @Test
+    public void emptyPathsMatchNothing() {
+        ApiPathTrie<Long> trie = trie("/", "", "/api/user/list");
+        assertEquals(1, trie.size());
+        assertEquals(Set.of(), trie.match(""));
+        assertEquals(Set.of(), trie.match("/"));
+        assertEquals(Set.of(), trie.match("http://localhost:8080"));
+    }
+}
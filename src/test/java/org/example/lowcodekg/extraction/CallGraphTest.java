@@ -0,0 +1,74 @@
+package org.example.lowcodekg.extraction;
+
+import org.example.lowcodekg.extraction.workflow.CallGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CallGraphTest {
+
+    @Test
+    public void testCycleAndOrder() {
+        CallGraph graph = CallGraph.builder()
+                .addEdge(1, 2).addEdge(2, 3).addEdge(1, 3)
+                .addEdge(3, 4).addEdge(4, 3)
+                .build();
+        assertEquals(3, graph.componentCount());
+        List<Long> chain = graph.reachableFrom(1);
+        assertEquals(1L, chain.get(0));
+        assertEquals(2L, chain.get(1));
+        assertEquals(Set.of(3L, 4L), new HashSet<>(chain.subList(2, 4)));
+        assertEquals(List.of(5L), graph.reachableFrom(5));
+        assertEquals(Map.of(1L, 0, 2L, 1, 3L, 1), graph.depthsFrom(1, 1));
+        assertEquals(Map.of(1L, 0, 2L, 1, 3L, 1, 4L, 2), graph.depthsFrom(1, 5));
+    }
+
+    /**
+     * 随机图上与逐入口 BFS 的结果比较
+     */
+    @Test
+    public void testSameAsBfs() {
+        Random random = new Random(1);
+        for(int iter = 0; iter < 300; iter++) {
+            int n = 1 + random.nextInt(60);
+            int m = random.nextInt(150);
+            CallGraph.Builder builder = CallGraph.builder();
+            Map<Long, List<Long>> adjacency = new HashMap<>();
+            for(int e = 0; e < m; e++) {
+                long caller = random.nextInt(n);
+                long callee = random.nextInt(n);
+                builder.addEdge(caller, callee);
+                adjacency.computeIfAbsent(caller, k -> new ArrayList<>()).add(callee);
+            }
+            CallGraph graph = builder.build();
+            for(long entry = 0; entry < n; entry++) {
+                Set<Long> expected = new HashSet<>(List.of(entry));
+                Deque<Long> queue = new ArrayDeque<>(expected);
+                while(!queue.isEmpty()) {
+                    for(long callee: adjacency.getOrDefault(queue.poll(), List.of())) {
+                        if(expected.add(callee)) {
+                            queue.add(callee);
+                        }
+                    }
+                }
+                List<Long> chain = graph.reachableFrom(entry);
+                assertEquals(entry, chain.get(0));
+                assertEquals(expected.size(), chain.size());
+                assertEquals(expected, new HashSet<>(chain));
+            }
+        }
+    }
+
+    @Test
+    public void testLongChain() {
+        CallGraph.Builder builder = CallGraph.builder();
+        for(int i = 0; i < 200000; i++) {
+            builder.addEdge(i, i + 1);
+        }
+        CallGraph graph = builder.build();
+        assertEquals(200001, graph.reachableFrom(0).size());
+        assertEquals(199996, graph.reachableFrom(5).size());
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.lowcodekg.extraction;
+
+import org.example.lowcodekg.extraction.document.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 组件文档并发解析的结果与逐篇解析一致
+ */
+public class ComponentDocExtractorTest {
+
+    @TempDir
+    Path root;
+
+    @AfterEach
+    public void clear() {
+        SourceScanner.clear();
+    }
+
+    private void write(String relativePath, String content) throws IOException {
+        Path file = root.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    private static String describe(List<RawData> dataList) {
+        StringBuilder builder = new StringBuilder();
+        for (RawData data : dataList) {
+            builder.append(data.getName()).append('|').append(data.getName_CN()).append('|')
+                    .append(data.getDescription()).append('|').append(data.getUsage()).append('|')
+                    .append(data.getSource()).append('\n');
+            for (CodeDemo demo : data.getCodeDemos()) {
+                builder.append("  demo ").append(demo.getName()).append('|').append(demo.getName_CN()).append('|')
+                        .append(demo.getDescription()).append('|').append(demo.getCode()).append('\n');
+            }
+            for (RawConfigItem item : data.getConfigItems()) {
+                builder.append("  config ").append(item.getName()).append('|').append(item.getDescription()).append('|')
+                        .append(item.getType()).append('|').append(item.getDefaultValue()).append('\n');
+            }
+        }
+        return builder.toString();
+    }
+
+    private static List<RawData> parseElement(String dir, int workers) {
+        EleMDExtractor extractor = new EleMDExtractor();
+        extractor.setDataDir(List.of(dir));
+        extractor.parseData(workers);
+        return extractor.dataList;
+    }
+
+    private static List<RawData> parseAntd(String dir, int workers) {
+        AntMDExtractor extractor = new AntMDExtractor();
+        extractor.setDataDir(List.of(dir));
+        extractor.parseData(workers);
+        return extractor.dataList;
+    }
+
+    @Test
+    public void parallelParsingMatchesSequential() throws IOException {
+        for (int i = 0; i < 20; i++) {
+            String name = "comp" + i;
+            write("docs/en-US/component/" + name + ".md", """
+                    ---
+                    title: %1$s
+                    lang: en-US
+                    ---
+
+                    # %1$s
+
+                    Component %1$s.
+
+                    ## Basic usage
+
+                    :::demo Basic %1$s
+
+                    %1$s/basic
+
+                    :::
+
+                    ## API
+
+                    ### Attributes
+
+                    | Name | Description   | Type   | Default |
+                    | ---- | ------------- | ------ | ------- |
+                    | size | size of %1$s  | string | —       |
+                    """.formatted(name));
+            write("docs/examples/" + name + "/basic.vue", "<template>\n  <el-" + name + " />\n</template>\n");
+
+            write("components/" + name + "/index.zh-CN.md", """
+                    ---
+                    category: Components
+                    group: 通用
+                    title: %1$s
+                    subtitle: 组件
+                    description: %1$s 描述
+                    ---
+
+                    ## 何时使用
+
+                    需要 %1$s 时。
+
+                    ## 代码演示
+
+                    <code src="./demo/basic.tsx">基本</code>
+
+                    ## API
+
+                    | 属性 | 说明 | 类型 | 默认值 | 版本 |
+                    | --- | --- | --- | --- | --- |
+                    | block | 块级 | boolean | false | 5.0.0 |
+                    """.formatted(name));
+            write("components/" + name + "/demo/basic.tsx", "export default () => <" + name + " />;\n");
+            write("components/" + name + "/demo/basic.md", "## zh-CN\n\n基本用法\n");
+        }
+
+        List<RawData> element = parseElement(root.toString(), 1);
+        assertEquals(20, element.size());
+        assertEquals("<template>\n  <el-comp0 />\n</template>\n", element.get(0).getCodeDemos().get(0).getCode());
+        assertEquals("size", element.get(0).getConfigItems().get(0).getName());
+        assertEquals(describe(element), describe(parseElement(root.toString(), 4)));
+
+        List<RawData> antd = parseAntd(root.toString(), 1);
+        assertEquals(20, antd.size());
+        assertEquals("export default () => <comp0 />;\n", antd.get(0).getCodeDemos().get(0).getCode());
+        assertEquals(describe(antd), describe(parseAntd(root.toString(), 4)));
+    }
+}
@@ -16,6 +16,7 @@ import org.example.lowcodekg.query.service.util.summarize.FuncGenerate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.neo4j.core.Neo4jClient;
 
 import java.io.File;
 import java.io.IOException;
@@ -37,6 +38,8 @@ public class JDTParserTest {
     private WorkflowRepo workflowRepo;
     @Autowired
     private FuncGenerate funcGenerate;
+    @Autowired
+    private Neo4jClient neo4jClient;
 
 
     @Test
@@ -44,6 +47,7 @@ public class JDTParserTest {
         String filePath = "/Users/chang/Documents/projects/data_projects/aurora/aurora-springboot";
         JavaProject javaProject = new JavaProject(funcGenerate);
         javaProject.init();
+        javaProject.setNeo4jClient(neo4jClient);
 
         String projectName = filePath.split("/")[filePath.split("/").length - 1];
         javaProject.setProjectName(projectName);
@@ -0,0 +1,75 @@
+package org.example.lowcodekg.extraction;
+
+import com.alibaba.fastjson.JSONObject;
+import org.example.lowcodekg.common.util.JsObjectLiteralParser;
+import org.example.lowcodekg.common.util.PageParserUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsObjectLiteralParserTest {
+
+    @Test
+    public void testDataBlock() {
+        String script = """
+                export default {
+                  data() {
+                    return {
+                      // 列表数据
+                      tableData: [],
+                      loading: false,
+                      total: 0,
+                      url: 'http://localhost:8080/api', // 接口地址
+                      form: {
+                        name: "",
+                        size: 10.5,
+                      },
+                      headers: {
+                        Authorization: "Bearer " + sessionStorage.getItem('token')
+                      },
+                      /* 表单校验 */
+                      rules: { name: [{ required: true, message: '请输入名称', trigger: 'blur' }] },
+                      title: `编辑`,
+                      label: `${prefix}-name`,
+                      formatter: (row) => row.name,
+                      empty: undefined
+                    };
+                  },
+                  methods: {
+                  }
+                }
+                """;
+        JSONObject data = JsObjectLiteralParser.parse(PageParserUtil.getScriptData(script));
+        assertEquals(List.of("tableData", "loading", "total", "url", "form", "headers", "rules", "title", "label",
+                "formatter", "empty"), List.copyOf(data.keySet()));
+        assertEquals("[]", data.get("tableData").toString());
+        assertEquals("false", data.get("loading").toString());
+        assertEquals("0", data.get("total").toString());
+        assertEquals("http://localhost:8080/api", data.get("url"));
+        assertEquals("{\"name\":\"\",\"size\":10.5}", data.get("form").toString());
+        assertEquals("{\"Authorization\":\"\\\"Bearer \\\" + sessionStorage.getItem('token')\"}", data.get("headers").toString());
+        assertEquals("{\"name\":[{\"required\":true,\"message\":\"请输入名称\",\"trigger\":\"blur\"}]}", data.get("rules").toString());
+        assertEquals("编辑", data.get("title"));
+        assertEquals("`${prefix}-name`", data.get("label"));
+        assertEquals("(row) => row.name", data.get("formatter"));
+        assertNull(data.get("empty"));
+    }
+
+    @Test
+    public void testMissingClosingBrace() {
+        JSONObject data = JsObjectLiteralParser.parse(" { a: 1, b: 'x', c\n");
+        assertEquals("1", data.get("a").toString());
+        assertEquals("x", data.get("b"));
+        assertEquals("c", data.get("c"));
+    }
+
+    @Test
+    public void testUnsupportedSyntax() {
+        assertThrows(IllegalArgumentException.class, () -> JsObjectLiteralParser.parse("{ ...mapState(['user']) }"));
+        assertThrows(IllegalArgumentException.class, () -> JsObjectLiteralParser.parse("{ a: 1 }, methods: {}"));
+        assertThrows(IllegalArgumentException.class, () -> JsObjectLiteralParser.parse("{ a: 'x }"));
+        assertThrows(IllegalArgumentException.class, () -> JsObjectLiteralParser.parse("{ a: [1, 2 }"));
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.lowcodekg.extraction;
+
+import org.example.lowcodekg.extraction.workflow.LshClusterer;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LshClustererTest {
+
+    private static float[] randomUnit(Random random, int dimension) {
+        float[] vector = new float[dimension];
+        for (int d = 0; d < dimension; d++) {
+            vector[d] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    private static float[] perturb(Random random, float[] base, double noise) {
+        double norm = 0;
+        for (float v : base) {
+            norm += v * v;
+        }
+        double scale = noise * Math.sqrt(norm / base.length);
+        float[] vector = base.clone();
+        for (int d = 0; d < vector.length; d++) {
+            vector[d] += (float) (random.nextGaussian() * scale);
+        }
+        return vector;
+    }
+
+    /**
+     * 若干组近似重复的向量加上互不相关的向量，近似重复的应各自成簇，其余各自独立
+     */
+    @Test
+    public void testNearDuplicates() {
+        Random random = new Random(7);
+        int dimension = 512;
+        List<float[]> vectors = new ArrayList<>();
+        List<Integer> groups = new ArrayList<>();
+        for (int group = 0; group < 50; group++) {
+            float[] base = randomUnit(random, dimension);
+            for (int copy = 0; copy < 5; copy++) {
+                vectors.add(perturb(random, base, 0.15));
+                groups.add(group);
+            }
+        }
+        for (int i = 0; i < 500; i++) {
+            vectors.add(randomUnit(random, dimension));
+            groups.add(-1 - i);
+        }
+        int[] labels = new LshClusterer(8, 12, 0.92, 64, 42L).cluster(vectors);
+        for (int i = 0; i < vectors.size(); i++) {
+            for (int j = i + 1; j < vectors.size(); j++) {
+                assertEquals(groups.get(i).equals(groups.get(j)), labels[i] == labels[j], i + " " + j);
+            }
+        }
+        List<Integer> first = List.of(0, 1, 2, 3, 4);
+        assertTrue(first.contains(LshClusterer.representative(vectors, first)));
+    }
+
+    @Test
+    public void testSmallFixture() {
+        List<float[]> vectors = List.of(
+                new float[]{1f, 0f, 0f, 0f},
+                new float[]{0f, 1f, 0f, 0f},
+                new float[]{0.98f, 0.2f, 0f, 0f},
+                new float[]{0f, 0.98f, 0.1f, 0f},
+                new float[]{0f, 0f, 0f, 1f},
+                new float[]{0.98f, -0.2f, 0f, 0f});
+        // 簇编号为簇内最小的下标
+        assertArrayEquals(new int[]{0, 1, 0, 1, 4, 0}, new LshClusterer(8, 12, 0.92, 64, 42L).cluster(vectors));
+        // 与簇中心最接近的是两侧对称向量的中间一个
+        assertEquals(0, LshClusterer.representative(vectors, List.of(0, 2, 5)));
+        assertEquals(5, LshClusterer.representative(vectors, List.of(5)));
+    }
+}
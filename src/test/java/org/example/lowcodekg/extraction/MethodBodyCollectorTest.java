@@ -0,0 +1,79 @@
+package org.example.lowcodekg.extraction;
+
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.*;
+import org.example.lowcodekg.extraction.workflow.MethodBodyCollector;
+import org.example.lowcodekg.extraction.workflow.NameResolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MethodBodyCollectorTest {
+
+    private static final String SOURCE = """
+            public class Demo {
+                static class Point { static int ORIGIN = 0; }
+                int f(int v) { return v + 1; }
+                Point p(Point q) { return q; }
+                void g() { }
+                void run(int[] values) {
+                    int a = f(1) + Point.ORIGIN;
+                    for (int v : values) { f(v); }
+                    if (a > 0) {
+                        Point q = p(null);
+                    } else {
+                        while (f(a) < 0) { a--; }
+                    }
+                    try {
+                        long b = f(2);
+                    } catch (RuntimeException e) {
+                        g();
+                    }
+                }
+            }
+            """;
+
+    private static MethodDeclaration parseMethod(String source, String name) {
+        ASTParser parser = ASTParser.newParser(AST.JLS10);
+        parser.setKind(ASTParser.K_COMPILATION_UNIT);
+        parser.setResolveBindings(true);
+        parser.setBindingsRecovery(true);
+        parser.setEnvironment(null, null, null, true);
+        parser.setUnitName("/Demo.java");
+        Map<String, String> options = JavaCore.getOptions();
+        JavaCore.setComplianceOptions(JavaCore.VERSION_1_8, options);
+        parser.setCompilerOptions(options);
+        parser.setSource(source.toCharArray());
+        CompilationUnit unit = (CompilationUnit) parser.createAST(null);
+        TypeDeclaration type = (TypeDeclaration) unit.types().get(0);
+        for (MethodDeclaration method : type.getMethods()) {
+            if (method.getName().getIdentifier().equals(name)) {
+                return method;
+            }
+        }
+        throw new IllegalStateException("method " + name + " not found");
+    }
+
+    @Test
+    public void testCollectNestedStatements() {
+        MethodBodyCollector collector = new MethodBodyCollector(new NameResolver());
+        collector.collect(parseMethod(SOURCE, "run").getBody());
+        // catch 块不处理，其中的 g() 不计入
+        assertEquals(Set.of("LDemo;.f(I)I", "LDemo;.p(LDemo$Point;)LDemo$Point;"), collector.getMethodCalls());
+        assertEquals("int, int, Demo.Point, long, ", collector.getFullVariables());
+        assertEquals("Demo.Point.ORIGIN, ", collector.getFieldAccesses());
+    }
+
+    @Test
+    public void testEmptyBody() {
+        MethodBodyCollector collector = new MethodBodyCollector(new NameResolver());
+        collector.collect(parseMethod(SOURCE, "g").getBody());
+        collector.collect(null);
+        assertEquals(Set.of(), collector.getMethodCalls());
+        assertEquals("", collector.getFullVariables());
+        assertEquals("", collector.getFieldAccesses());
+    }
+}
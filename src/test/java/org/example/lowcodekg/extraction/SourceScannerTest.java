@@ -0,0 +1,69 @@
+package org.example.lowcodekg.extraction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SourceScannerTest {
+
+    @TempDir
+    Path root;
+
+    @AfterEach
+    public void clear() {
+        SourceScanner.clear();
+    }
+
+    private void write(String relativePath, String content) throws IOException {
+        Path file = root.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    private static List<String> paths(List<SourceScanner.SourceFile> files) {
+        return files.stream().map(SourceScanner.SourceFile::relativePath).toList();
+    }
+
+    @Test
+    public void classifiesFilesAndSkipsExcludedDirs() throws IOException {
+        write("src/App.vue", "<template></template>");
+        write("src/api/user.js", "axios.get('/user')");
+        write("src/main/java/Demo.java", "class Demo {}");
+        write("components/button/index.zh-CN.md", "# Button");
+        write("components/button/demo/basic.md", "## basic");
+        write("node_modules/lib/Lib.vue", "<template></template>");
+        write(".git/config", "");
+
+        SourceScanner scanner = SourceScanner.scan(root.toString(), 4, List.of(".git", "node_modules"));
+        assertEquals(List.of("src/App.vue", "src/api/user.js"), paths(scanner.files("vue", "js")));
+        assertEquals(List.of("src/main/java/Demo.java"), paths(scanner.files("java")));
+        assertEquals(List.of("components/button/index.zh-CN.md"),
+                paths(scanner.matching("components/*/index.zh-CN.md")));
+        // 同一根目录在清空前只扫描一次
+        assertSame(scanner, SourceScanner.scan(root + "/", 1, List.of()));
+    }
+
+    @Test
+    public void readsNormalizedContentAndHashesInParallel() throws IOException {
+        write("a.vue", "line1\r\nline2");
+        write("b.vue", "line1\nline2\n");
+        SourceScanner scanner = SourceScanner.scan(root.toString(), 2, List.of());
+        List<SourceScanner.SourceFile> files = scanner.files("vue");
+        assertEquals("line1\nline2\n", scanner.read(files.get(0)));
+        assertEquals("line1\nline2\n", scanner.read(files.get(1)));
+
+        Map<SourceScanner.SourceFile, String> hashes = scanner.hashAll(files);
+        assertEquals(2, hashes.size());
+        assertNotEquals(hashes.get(files.get(0)), hashes.get(files.get(1)));
+        assertEquals(hashes.get(files.get(1)), scanner.hash(files.get(1)));
+        assertEquals(files.get(1).size(), Files.size(root.resolve("b.vue")));
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.lowcodekg.extraction;
+
+import org.example.lowcodekg.extraction.workflow.TypeReferenceResolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TypeReferenceResolverTest {
+
+    private static final String ARTICLE_DTO = "com.aurora.model.dto.ArticleDTO";
+    private static final String ARTICLE_CARD_DTO = "com.aurora.model.dto.ArticleCardDTO";
+    private static final String PAGE_RESULT_DTO = "com.aurora.model.dto.PageResultDTO";
+    private static final String ARTICLE = "com.aurora.entity.Article";
+    private static final String CONDITION_VO = "com.aurora.model.vo.ConditionVO";
+    private static final String CATEGORY_FIELD = "com.aurora.entity.Article.category";
+
+    /**
+     * 类型字符串 -> 应解析出的项目内类型
+     */
+    private static final Map<String, Set<String>> EXPECTED = new LinkedHashMap<>();
+
+    static {
+        EXPECTED.put(ARTICLE_DTO, Set.of(ARTICLE_DTO));
+        EXPECTED.put("java.util.List<com.aurora.model.dto.ArticleDTO>", Set.of(ARTICLE_DTO));
+        EXPECTED.put("java.util.Map<java.lang.String,com.aurora.entity.Article>", Set.of(ARTICLE));
+        EXPECTED.put("com.aurora.model.vo.ConditionVO,java.lang.Integer", Set.of(CONDITION_VO));
+        EXPECTED.put("com.aurora.model.dto.PageResultDTO<com.aurora.model.dto.ArticleCardDTO>[]",
+                Set.of(PAGE_RESULT_DTO, ARTICLE_CARD_DTO));
+        EXPECTED.put("java.lang.String", Set.of());
+        EXPECTED.put(" com.aurora.entity.Article ", Set.of(ARTICLE));
+        EXPECTED.put("", Set.of());
+        // 带点号的名称整体查找，不拆成前缀类型
+        EXPECTED.put(CATEGORY_FIELD, Set.of(CATEGORY_FIELD));
+    }
+
+    private static Map<String, String> buildIndex() {
+        Map<String, String> index = new HashMap<>();
+        for (String name : List.of(ARTICLE_DTO, ARTICLE_CARD_DTO, PAGE_RESULT_DTO, ARTICLE, CONDITION_VO, CATEGORY_FIELD)) {
+            index.put(name, name);
+        }
+        return index;
+    }
+
+    @Test
+    public void testResolve() {
+        Map<String, String> index = buildIndex();
+        TypeReferenceResolver<String> resolver = new TypeReferenceResolver<>(index);
+        TypeReferenceResolver<String> bloomResolver = new TypeReferenceResolver<>(index, true);
+        EXPECTED.forEach((str, expected) -> {
+            assertEquals(expected, resolver.resolve(str), str);
+            assertEquals(expected, bloomResolver.resolve(str), str);
+            // 缓存命中后结果不变
+            assertEquals(expected, resolver.resolve(str), str);
+        });
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.lowcodekg.extraction;
+
+import org.example.lowcodekg.common.util.VueSfcScanner;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VueSfcScannerTest {
+
+    private static final String PAGE = """
+            <template>
+              <div class="app-container">
+                <el-table :data="tableData" v-loading="loading">
+                  <el-table-column prop="name" label="名称" />
+                </el-table>
+                <el-button @click="handleAdd(row)">新增</el-button>
+              </div>
+            </template>
+
+            <script>
+            import { listUser, addUser } from '@/api/system/user'
+            import Pagination from '@/components/Pagination'
+            export default {
+              name: 'User',
+              components: { Pagination },
+              data() {
+                return {
+                  loading: true,
+                  url: 'http://localhost/api', // 接口
+                  tableData: []
+                }
+              },
+              created() {
+                this.getList()
+              },
+              methods: {
+                getList() {
+                  listUser(this.queryParams).then(response => {
+                    this.tableData = response.rows
+                  })
+                },
+                handleAdd(row, index) {
+                  this.open = true
+                },
+                /** 提交 */
+                submitForm: function() {
+                  addUser(this.form)
+                }
+              }
+            }
+            </script>
+
+            <style scoped>
+            .app-container { padding: 20px; }
+            </style>
+            """;
+
+    private static final String TEMPLATE = """
+            <template>
+              <div class="app-container">
+                <el-table :data="tableData" v-loading="loading">
+                  <el-table-column prop="name" label="名称" />
+                </el-table>
+                <el-button @click="handleAdd(row)">新增</el-button>
+              </div>
+            </template>""";
+
+    private static final String METHODS = """
+                getList() {
+                  listUser(this.queryParams).then(response => {
+                    this.tableData = response.rows
+                  })
+                },
+                handleAdd(row, index) {
+                  this.open = true
+                },
+                /** 提交 */
+                submitForm: function() {
+                  addUser(this.form)
+                }
+            """;
+
+    /**
+     * 方法名|参数|方法体（方法体各行直接拼接，不含换行）
+     */
+    private static List<String> methods(VueSfcScanner sfc) {
+        List<String> methods = new ArrayList<>();
+        for (VueSfcScanner.MethodHeader method : sfc.methods()) {
+            methods.add(method.name() + "|" + method.params() + "|" + sfc.methodBody(method));
+        }
+        return methods;
+    }
+
+    @Test
+    public void testScanPage() {
+        VueSfcScanner sfc = VueSfcScanner.scan(PAGE);
+        assertEquals(TEMPLATE, sfc.templateContent());
+        assertTrue(sfc.scriptContent().startsWith("import { listUser, addUser } from '@/api/system/user'\n"));
+        assertTrue(sfc.scriptContent().endsWith("  }\n}\n"));
+        // 与原实现一致，dataBlock 以 " { " 开头，直接拼接 return { 之后的各行
+        assertEquals(" {       loading: true,\n      url: 'http://localhost/api', // 接口\n      tableData: []\n    }\n",
+                sfc.dataBlock());
+        assertEquals(METHODS, sfc.methodsContent());
+        // "submitForm: function() {" 按原有正则取到的方法名为 function
+        assertEquals(List.of(
+                "getList||      listUser(this.queryParams).then(response => {        this.tableData = response.rows      })",
+                "handleAdd|row, index|      this.open = true",
+                "function||      addUser(this.form)"), methods(sfc));
+
+        // 只扫描 script 内容时结果相同
+        VueSfcScanner scriptOnly = VueSfcScanner.scanScript(sfc.scriptContent());
+        assertEquals(sfc.dataBlock(), scriptOnly.dataBlock());
+        assertEquals(METHODS, scriptOnly.methodsContent());
+        assertEquals(methods(sfc), methods(scriptOnly));
+    }
+
+    @Test
+    public void testMissingBlocks() {
+        VueSfcScanner empty = VueSfcScanner.scan("");
+        assertEquals("<template>\n</template>", empty.templateContent());
+        assertEquals("", empty.scriptContent());
+        assertNull(empty.dataBlock());
+        assertEquals("", empty.methodsContent());
+        assertEquals(List.of(), empty.methods());
+
+        // 缺少结束标签时取到文件末尾
+        VueSfcScanner templateOnly = VueSfcScanner.scan("<template>\n  <div/>\n");
+        assertEquals("<template>\n  <div/>\n</template>", templateOnly.templateContent());
+        assertEquals("", templateOnly.scriptContent());
+        assertNull(templateOnly.dataBlock());
+
+        VueSfcScanner unclosedScript = VueSfcScanner.scan(PAGE.replace("</script>", ""));
+        assertEquals(TEMPLATE, unclosedScript.templateContent());
+        assertTrue(unclosedScript.scriptContent().endsWith("<style scoped>\n.app-container { padding: 20px; }\n</style>\n"));
+        assertEquals(METHODS, unclosedScript.methodsContent());
+        assertEquals(3, unclosedScript.methods().size());
+
+        // methods 块被截断
+        VueSfcScanner truncated = VueSfcScanner.scan(PAGE.substring(0, PAGE.indexOf("methods: {") + 20));
+        assertTrue(truncated.scriptContent().endsWith("  methods: {\n    getLi\n"));
+        assertEquals("    getLi\n", truncated.methodsContent());
+        assertEquals(List.of(), truncated.methods());
+    }
+}
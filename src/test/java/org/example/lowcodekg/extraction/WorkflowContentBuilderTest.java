@@ -0,0 +1,79 @@
+package org.example.lowcodekg.extraction;
+
+import org.example.lowcodekg.extraction.workflow.WorkflowContentBuilder;
+import org.example.lowcodekg.extraction.workflow.WorkflowContentBuilder.Part;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkflowContentBuilderTest {
+
+    private static final String USER = """
+            /** 用户 */
+            @Data
+            public class User {
+                private String name; // 名称
+                public String getName() { return name; }
+            }""";
+
+    private static Part method(long id, String name, int statements) {
+        String body = "    userMapper.selectById(id); log.info(\"{}\", id);\n".repeat(statements);
+        return new Part(id, "org.demo.UserService." + name, "public void " + name + "(Long id) {\n" + body + "}");
+    }
+
+    @Test
+    public void testUnlimitedKeepsFullCodeWithoutDuplicates() {
+        Part entry = method(1, "entry", 3);
+        Part helper = method(2, "helper", 3);
+        String content = new WorkflowContentBuilder(0, 2).build(List.of(entry, helper, helper),
+                Map.of(1L, 0, 2L, 1), List.of(new Part(10, "org.demo.User", USER), new Part(10, "org.demo.User", USER)));
+        assertEquals(entry.content() + "\n" + helper.content() + "\n" + USER + "\n", content);
+    }
+
+    @Test
+    public void testBudgetKeepsSignaturesOfDeepMethods() {
+        List<Part> methods = new ArrayList<>();
+        methods.add(method(0, "entry", 20));
+        for (int i = 1; i < 30; i++) {
+            methods.add(method(i, "step" + i, 20));
+        }
+        // 调用链为拓扑序，step2 比 step1 浅
+        Map<Long, Integer> depths = Map.of(0L, 0, 1L, 2, 2L, 1);
+        String content = new WorkflowContentBuilder(1000, 2)
+                .build(methods, depths, List.of(new Part(100, "org.demo.User", USER)));
+
+        assertTrue(content.startsWith(methods.get(0).content()));
+        assertTrue(content.indexOf("step2(") < content.indexOf("step1("));
+        assertTrue(content.contains(methods.get(2).content()));
+        assertTrue(content.contains("public void step29(Long id) { ... }"));
+        assertFalse(content.contains(methods.get(29).content()));
+        assertTrue(content.length() / 4 <= 1000);
+    }
+
+    @Test
+    public void testOmitsDeepestWhenSignaturesDoNotFit() {
+        List<Part> methods = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            methods.add(method(i, "step" + i, 2));
+        }
+        String content = new WorkflowContentBuilder(300, 2).build(methods, Map.of(0L, 0), List.of());
+        assertTrue(content.startsWith(methods.get(0).content()));
+        assertTrue(content.contains("step1(Long id) { ... }"));
+        assertFalse(content.contains("step199("));
+        assertTrue(content.endsWith("more methods or classes omitted\n"));
+        assertTrue(content.length() / 4 <= 300);
+    }
+
+    @Test
+    public void testDataObjectOutline() {
+        List<Part> methods = List.of(method(0, "entry", 1));
+        String large = USER + "\n// " + "x".repeat(400);
+        String content = new WorkflowContentBuilder(70, 2)
+                .build(methods, Map.of(), List.of(new Part(100, "org.demo.User", large)));
+        assertTrue(content.contains("public class User {"));
+        assertTrue(content.contains("public String getName() { ... }"));
+        assertFalse(content.contains("名称"));
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.lowcodekg.model.dao.neo4j.cypher;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CypherQueryTest {
+
+    @Test
+    public void declaresParametersFromStatement() {
+        CypherQuery<Map<String, Object>> query = CypherQuery.define("test pages of project files", """
+                MATCH (p:PageTemplate)
+                WHERE p.projectName = $projectName AND p.filePath IN $files AND id(p) <> $projectName
+                RETURN id(p) AS id
+                """);
+        assertEquals(List.of("projectName", "files"), List.copyOf(query.getParameters()));
+        assertEquals(Set.of(), CypherQuery.define("test all workflows", "MATCH (w:Workflow) RETURN id(w)").getParameters());
+        assertThrows(IllegalStateException.class, () -> CypherQuery.define("test all workflows", "MATCH (n) RETURN n"));
+    }
+
+    @Test
+    public void checksParametersAndCountsExecutions() {
+        CypherQuery<Map<String, Object>> query = CypherQuery.define("test component by id",
+                "MATCH (c:Component) WHERE id(c) = $id RETURN c");
+        assertThrows(IllegalArgumentException.class, () -> query.checked(Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> query.checked(Map.of("id", 1L, "path", "/a")));
+        assertEquals(0, query.getExecutions());
+
+        for (long id = 0; id < 10; id++) {
+            query.checked(Map.of("id", id));
+        }
+        assertEquals(10, query.getExecutions());
+        assertTrue(CypherQuery.report().contains("test component by id: 10"));
+    }
+}
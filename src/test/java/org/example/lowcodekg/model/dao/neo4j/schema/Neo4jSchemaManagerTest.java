@@ -0,0 +1,56 @@
+package org.example.lowcodekg.model.dao.neo4j.schema;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.summary.Plan;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Neo4jSchemaManagerTest {
+
+    private record TestPlan(String operatorType, Map<String, Value> arguments, List<TestPlan> children) implements Plan {
+        @Override
+        public List<String> identifiers() {
+            return List.of();
+        }
+    }
+
+    @Test
+    public void generatesIdempotentStatements() {
+        assertEquals("CREATE RANGE INDEX range_JavaMethod_projectName_filePath IF NOT EXISTS FOR (n:JavaMethod) ON (n.projectName, n.filePath)",
+                IndexDefinition.range("JavaMethod", "projectName", "filePath").toCypher());
+        assertEquals("CREATE TEXT INDEX text_Component_name IF NOT EXISTS FOR (n:Component) ON (n.name)",
+                IndexDefinition.text("Component", "name").toCypher());
+        assertEquals("CREATE CONSTRAINT unique_PageTemplate_projectName_filePath IF NOT EXISTS FOR (n:PageTemplate) REQUIRE (n.projectName, n.filePath) IS UNIQUE",
+                IndexDefinition.unique("PageTemplate", "projectName", "filePath").toCypher());
+        assertEquals("CREATE CONSTRAINT unique_Component_name IF NOT EXISTS FOR (n:Component) REQUIRE (n.name) IS UNIQUE",
+                IndexDefinition.unique("Component", "name").toCypher());
+        assertThrows(IllegalArgumentException.class, () -> IndexDefinition.range("Page Template", "filePath"));
+        assertThrows(IllegalArgumentException.class, () -> IndexDefinition.range("Component"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new IndexDefinition(IndexDefinition.Kind.TEXT, "Component", List.of("name", "category")));
+
+        Set<String> names = new HashSet<>();
+        Neo4jSchemaManager.INDEXES.forEach(index -> assertTrue(names.add(index.name()), index.name()));
+    }
+
+    @Test
+    public void findsScanOperatorsInPlanTree() {
+        TestPlan labelScan = new TestPlan("NodeByLabelScan@neo4j", Map.of("Details", Values.value("c:Component")), List.of());
+        TestPlan filter = new TestPlan("Filter@neo4j", Map.of(), List.of(labelScan));
+        TestPlan seek = new TestPlan("NodeIndexSeek@neo4j", Map.of(), List.of());
+        TestPlan allNodes = new TestPlan("AllNodesScan", Map.of(), List.of());
+        TestPlan root = new TestPlan("ProduceResults@neo4j", Map.of(),
+                List.of(new TestPlan("CartesianProduct@neo4j", Map.of(), List.of(filter, seek, allNodes))));
+
+        assertEquals(List.of("NodeByLabelScan(c:Component)", "AllNodesScan"), Neo4jSchemaManager.scans(root));
+        assertEquals(List.of(), Neo4jSchemaManager.scans(new TestPlan("ProduceResults@neo4j", Map.of(), List.of(seek))));
+        assertEquals(List.of(), Neo4jSchemaManager.scans(null));
+    }
+}